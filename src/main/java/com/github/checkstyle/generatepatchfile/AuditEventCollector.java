@@ -0,0 +1,129 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.github.checkstyle.generatepatchfile;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+
+/**
+ * Audit listener that records the violations and exceptions of one {@code Checker}
+ * grouped by file, so that results of several Checkers can be merged and replayed
+ * in a deterministic order. Every instance is confined to the thread of its Checker.
+ */
+final class AuditEventCollector implements AuditListener {
+
+    /** Recorded entries by file name, in the order they were reported. */
+    private final Map<String, List<Entry>> entries = new HashMap<>();
+
+    @Override
+    public void auditStarted(AuditEvent event) {
+        // no code
+    }
+
+    @Override
+    public void auditFinished(AuditEvent event) {
+        // no code
+    }
+
+    @Override
+    public void fileStarted(AuditEvent event) {
+        getEntries(event.getFileName());
+    }
+
+    @Override
+    public void fileFinished(AuditEvent event) {
+        // no code
+    }
+
+    @Override
+    public void addError(AuditEvent event) {
+        getEntries(event.getFileName()).add(new Entry(event, null));
+    }
+
+    @Override
+    public void addException(AuditEvent event, Throwable throwable) {
+        getEntries(event.getFileName()).add(new Entry(event, throwable));
+    }
+
+    /**
+     * Returns the recorded entries by file name, files without violations are
+     * mapped to an empty list.
+     *
+     * @return recorded entries by file name
+     */
+    Map<String, List<Entry>> getEntries() {
+        return entries;
+    }
+
+    private List<Entry> getEntries(String fileName) {
+        return entries.computeIfAbsent(fileName, name -> new ArrayList<>());
+    }
+
+    /**
+     * Recorded violation or exception.
+     */
+    static final class Entry {
+
+        /** Audit event. */
+        private final AuditEvent event;
+
+        /** Exception of the event, {@code null} for violations. */
+        private final Throwable exception;
+
+        /**
+         * Creates an entry.
+         *
+         * @param event audit event
+         * @param exception exception of the event, {@code null} for violations
+         */
+        Entry(AuditEvent event, Throwable exception) {
+            this.event = event;
+            this.exception = exception;
+        }
+
+        /**
+         * Checks whether the entry records an exception instead of a violation.
+         *
+         * @return true if the entry records an exception
+         */
+        boolean isException() {
+            return exception != null;
+        }
+
+        /**
+         * Forwards the entry to a listener.
+         *
+         * @param listener listener to notify
+         */
+        void replay(AuditListener listener) {
+            if (exception == null) {
+                listener.addError(event);
+            }
+            else {
+                listener.addException(event, exception);
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+
+package com.github.checkstyle.generatepatchfile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs diff.groovy of checkstyle-tester, which compares the reports of the master
+ * branch and the patch branch of checkstyle on the listed projects.
+ */
+final class CheckstyleTester {
+
+    /** List of projects of checkstyle-tester. */
+    static final String PROJECTS_FILE = "projects-to-test-on.properties";
+
+    /** Directory of the reports of checkstyle-tester. */
+    static final String REPORTS = "reports";
+
+    /** Base branch of checkstyle that the patch branch is compared with. */
+    static final String BASE_BRANCH = "master";
+
+    /** Environment variable of the options of the JVM of Maven. */
+    private static final String MAVEN_OPTS = "MAVEN_OPTS";
+
+    /** Message of a failed tester run. */
+    private static final String TESTER_FAILURE = "an error occurred when running diff.groovy";
+
+    /** Path of checkstyle-tester. */
+    private final String testerPath;
+
+    /** Path of checkstyle. */
+    private final String checkstyleRepoPath;
+
+    /** Patch-branch of checkstyle. */
+    private final String checkstyleBranch;
+
+    /** Config of the base branch. */
+    private final File baseConfigFile;
+
+    /** Config of the patch branch. */
+    private final File patchConfigFile;
+
+    /**
+     * Creates a tester.
+     *
+     * @param testerPath path of checkstyle-tester
+     * @param checkstyleRepoPath path of checkstyle
+     * @param checkstyleBranch patch-branch of checkstyle
+     * @param baseConfigFile config of the base branch
+     * @param patchConfigFile config of the patch branch
+     */
+    CheckstyleTester(String testerPath, String checkstyleRepoPath, String checkstyleBranch,
+                     File baseConfigFile, File patchConfigFile) {
+        this.testerPath = testerPath;
+        this.checkstyleRepoPath = checkstyleRepoPath;
+        this.checkstyleBranch = checkstyleBranch;
+        this.baseConfigFile = baseConfigFile;
+        this.patchConfigFile = patchConfigFile;
+    }
+
+    /**
+     * Returns the path of checkstyle-tester.
+     *
+     * @return tester path
+     */
+    String getTesterPath() {
+        return testerPath;
+    }
+
+    /**
+     * Returns the path of checkstyle.
+     *
+     * @return checkstyle path
+     */
+    String getCheckstyleRepoPath() {
+        return checkstyleRepoPath;
+    }
+
+    /**
+     * Returns the config of the patch branch.
+     *
+     * @return patch config file
+     */
+    File getPatchConfigFile() {
+        return patchConfigFile;
+    }
+
+    /**
+     * Deletes the reports of the previous run in checkstyle-tester.
+     *
+     * @throws IOException IO exception
+     */
+    void deleteReports() throws IOException {
+        Utils.deleteDir(new File(testerPath, REPORTS).toPath());
+    }
+
+    /**
+     * Runs the tester in checkstyle-tester on its list of projects and the patch
+     * config of the patch branch.
+     *
+     * @return report directory
+     * @throws InterruptedException if interrupted while waiting for the tester
+     * @throws IOException if the tester can not be started or wrote no report
+     */
+    File generate() throws InterruptedException, IOException {
+        runTester(new ProcessBuilder()
+                .directory(new File(testerPath))
+                .command(createTesterCommand(checkstyleRepoPath,
+                        patchConfigFile.getAbsolutePath(), PROJECTS_FILE)));
+        return getReportDir(new File(testerPath, REPORTS));
+    }
+
+    /**
+     * Runs the tester in the workspace of a slot. Maven uses the local repository of
+     * the slot, as the tester installs the builds of both branches under the same
+     * version, which must not replace the builds of a concurrent run.
+     *
+     * @param slot slot to run the tester in
+     * @return report directory of the slot
+     * @throws InterruptedException if interrupted while waiting for the tester
+     * @throws IOException if the tester can not be started or wrote no report
+     */
+    File generate(TesterSlot slot) throws InterruptedException, IOException {
+        final List<String> command = createTesterCommand(
+                slot.getCheckstyleDir().toAbsolutePath().toString(),
+                slot.getPatchConfigFile().toAbsolutePath().toString(),
+                slot.getProjectsFile().toAbsolutePath().toString());
+        command.add("-o");
+        command.add(slot.getReportDir().toAbsolutePath().toString());
+        final ProcessBuilder processBuilder = new ProcessBuilder()
+                .directory(slot.getTesterDir().toFile())
+                .command(command);
+        final String mavenRepoOption = "-Dmaven.repo.local="
+                + slot.getMavenRepoDir().toAbsolutePath();
+        processBuilder.environment().merge(MAVEN_OPTS, mavenRepoOption,
+                (mavenOpts, option) -> mavenOpts + ' ' + option);
+        runTester(processBuilder);
+        return getReportDir(slot.getReportDir().toFile());
+    }
+
+    private List<String> createTesterCommand(String checkstyleDir, String patchConfig,
+                                             String projectsFile) {
+        return new ArrayList<>(List.of(
+                "groovy", "diff.groovy",
+                "-r", checkstyleDir,
+                "-b", BASE_BRANCH,
+                "-p", checkstyleBranch,
+                "-bc", baseConfigFile.getAbsolutePath(),
+                "-pc", patchConfig,
+                "-l", projectsFile));
+    }
+
+    private static void runTester(ProcessBuilder processBuilder)
+            throws InterruptedException, IOException {
+        final Process process = processBuilder.inheritIO().start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException(TESTER_FAILURE);
+        }
+    }
+
+    private static File getReportDir(File reportDir) throws IOException {
+        if (!reportDir.exists() || !reportDir.isDirectory()) {
+            throw new IOException("report does not exist or it is not a directory");
+        }
+        return reportDir;
+    }
+
+}
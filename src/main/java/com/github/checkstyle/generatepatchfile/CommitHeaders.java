@@ -0,0 +1,103 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+
+package com.github.checkstyle.generatepatchfile;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.revwalk.RevCommit;
+
+/**
+ * Formats the headers that {@code git show} and {@code git format-patch} print
+ * before the patch of a commit, so that patches in these formats can be produced
+ * in process. The diffstat and the version trailer of {@code git format-patch}
+ * are omitted.
+ */
+final class CommitHeaders {
+
+    /** Initial capacity of a header, enough for the lines before the message. */
+    private static final int HEADER_CAPACITY = 256;
+
+    /** Separator of the paragraphs of a commit message. */
+    private static final String PARAGRAPH_SEPARATOR = "\n\n";
+
+    /** Prevents instantiation. */
+    private CommitHeaders() {
+    }
+
+    /**
+     * Formats the header that {@code git show} prints before the patch of a commit.
+     *
+     * @param commit commit
+     * @return header of the commit
+     */
+    static String formatShowHeader(RevCommit commit) {
+        final PersonIdent author = commit.getAuthorIdent();
+        final DateFormat dateFormat =
+                new SimpleDateFormat("EEE MMM d HH:mm:ss yyyy Z", Locale.US);
+        dateFormat.setTimeZone(author.getTimeZone());
+        final StringBuilder header = new StringBuilder(HEADER_CAPACITY)
+                .append("commit ").append(commit.getName()).append('\n')
+                .append("Author: ");
+        appendIdent(header, author)
+                .append("Date:   ").append(dateFormat.format(author.getWhen()))
+                .append(PARAGRAPH_SEPARATOR);
+        for (String line : commit.getFullMessage().stripTrailing().split("\n", -1)) {
+            header.append("    ").append(line).append('\n');
+        }
+        return header.append('\n').toString();
+    }
+
+    /**
+     * Formats the mail header that {@code git format-patch} writes before the patch
+     * of a commit.
+     *
+     * @param commit commit
+     * @return header of the commit
+     */
+    static String formatMailHeader(RevCommit commit) {
+        final PersonIdent author = commit.getAuthorIdent();
+        final DateFormat dateFormat =
+                new SimpleDateFormat("EEE, d MMM yyyy HH:mm:ss Z", Locale.US);
+        dateFormat.setTimeZone(author.getTimeZone());
+        final String fullMessage = commit.getFullMessage();
+        final int bodyStart = fullMessage.indexOf(PARAGRAPH_SEPARATOR);
+        final StringBuilder header = new StringBuilder(HEADER_CAPACITY)
+                .append("From ").append(commit.getName()).append(" Mon Sep 17 00:00:00 2001\n")
+                .append("From: ");
+        appendIdent(header, author)
+                .append("Date: ").append(dateFormat.format(author.getWhen())).append('\n')
+                .append("Subject: [PATCH] ").append(commit.getShortMessage())
+                .append(PARAGRAPH_SEPARATOR);
+        if (bodyStart >= 0 && !fullMessage.substring(bodyStart).isBlank()) {
+            header.append(fullMessage.substring(bodyStart + 2).strip()).append('\n');
+        }
+        return header.append("---\n").toString();
+    }
+
+    private static StringBuilder appendIdent(StringBuilder header, PersonIdent ident) {
+        return header.append(ident.getName())
+                .append(" <").append(ident.getEmailAddress()).append(">\n");
+    }
+
+}
@@ -0,0 +1,271 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+
+package com.github.checkstyle.generatepatchfile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import com.github.checkstyle.generatepatchfile.StageTimings.Stage;
+import com.puppycrawl.tools.checkstyle.filters.PatchPathFilter;
+
+/**
+ * History of the repository under test, restricted to the paths of include and
+ * exclude globs: selects the pairs of commits to report and formats their patches
+ * from the trees of the commits, without touching the working tree.
+ */
+final class CommitHistory {
+
+    /** Repository under test. */
+    private final Repository repository;
+
+    /** Tree filter of the included and not excluded paths. */
+    private final TreeFilter pathFilter;
+
+    /**
+     * Creates the history of a repository.
+     *
+     * @param repository repository under test
+     * @param includePaths globs of the paths to include, split by comma, or null to
+     *     include all paths
+     * @param excludePaths globs of the paths to exclude, split by comma, or null
+     */
+    CommitHistory(Repository repository, String includePaths, String excludePaths) {
+        this.repository = repository;
+        pathFilter = createPathFilter(includePaths, excludePaths);
+    }
+
+    /**
+     * Walks the history of a commit in the order of {@code git log} and pairs each
+     * commit with its first parent, stopping after a number of pairs, so the rest of
+     * the history is never loaded. With path filters, only the commits that change an
+     * included path are walked. The walk then rewrites the parents of commits to the
+     * previous walked commit, so the pairs take the first parent from a walk without
+     * filter. Root commits have no parent and are skipped.
+     *
+     * @param start commit to walk the history of
+     * @param count maximum number of pairs
+     * @return pairs of the first commits of the history and their parents
+     * @throws IOException if the history can not be read
+     */
+    List<CommitPair> getFirstCommitPairs(ObjectId start, int count) throws IOException {
+        final List<CommitPair> commitPairs = new ArrayList<>(count);
+        try (RevWalk revWalk = new RevWalk(repository);
+             RevWalk parentWalk = new RevWalk(repository)) {
+            revWalk.markStart(revWalk.parseCommit(start));
+            if (pathFilter != TreeFilter.ALL) {
+                revWalk.setTreeFilter(AndTreeFilter.create(pathFilter, TreeFilter.ANY_DIFF));
+            }
+            for (RevCommit commit : revWalk) {
+                if (commitPairs.size() == count) {
+                    break;
+                }
+                final RevCommit newCommit = parentWalk.parseCommit(commit);
+                if (newCommit.getParentCount() > 0) {
+                    commitPairs.add(new CommitPair(
+                            parentWalk.parseCommit(newCommit.getParent(0)), newCommit));
+                }
+            }
+        }
+        return commitPairs;
+    }
+
+    /**
+     * Pairs commits with their first parent, newest commit first. Commits that can
+     * not be resolved, such as full names of missing objects, or are not reachable
+     * from a head, root commits and, with path filters, commits that change no
+     * included path are skipped.
+     *
+     * @param commits names of the commits
+     * @param head commit the commits should be reachable from
+     * @return pairs of the commits and their parents
+     * @throws IOException if the history can not be read
+     */
+    List<CommitPair> getCommitPairs(Set<String> commits, ObjectId head) throws IOException {
+        final List<CommitPair> commitPairs = new ArrayList<>();
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            final RevCommit headCommit = revWalk.parseCommit(head);
+            final List<RevCommit> revisions = new ArrayList<>();
+            for (String commit : commits) {
+                final ObjectId commitId = repository.resolve(commit);
+                if (commitId != null && repository.getObjectDatabase().has(commitId)) {
+                    final RevCommit revision = revWalk.parseCommit(commitId);
+                    if (revision.getParentCount() > 0
+                            && revWalk.isMergedInto(revision, headCommit)
+                            && isChangingFilteredPaths(revWalk.parseCommit(
+                                    revision.getParent(0)), revision)) {
+                        revisions.add(revision);
+                    }
+                }
+            }
+            revisions.sort(Comparator.comparingInt(RevCommit::getCommitTime).reversed());
+            for (RevCommit revision : revisions) {
+                commitPairs.add(new CommitPair(revWalk.parseCommit(revision.getParent(0)),
+                        revision));
+            }
+        }
+        return commitPairs;
+    }
+
+    /**
+     * Follows the first parents of a commit, stopping at a root commit.
+     *
+     * @param start first commit
+     * @param count maximum number of commits, including the first one
+     * @return the first commit and its first parent, grandparent and so on
+     * @throws IOException if the history can not be read
+     */
+    List<RevCommit> getFirstParents(ObjectId start, int count) throws IOException {
+        final List<RevCommit> commitList = new ArrayList<>();
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            RevCommit commit = revWalk.parseCommit(start);
+            commitList.add(commit);
+            while (commitList.size() < count && commit.getParentCount() > 0) {
+                commit = revWalk.parseCommit(commit.getParent(0));
+                commitList.add(commit);
+            }
+        }
+        return commitList;
+    }
+
+    /**
+     * Checks whether a commit changes an included path, compared with another commit.
+     *
+     * @param oldCommit commit to compare with
+     * @param newCommit commit
+     * @return true if an included path is changed, or there are no path filters
+     * @throws IOException if the trees of the commits can not be read
+     */
+    boolean isChangingFilteredPaths(RevCommit oldCommit, RevCommit newCommit)
+            throws IOException {
+        boolean result = true;
+        if (pathFilter != TreeFilter.ALL) {
+            try (TreeWalk treeWalk = new TreeWalk(repository)) {
+                treeWalk.addTree(oldCommit.getTree());
+                treeWalk.addTree(newCommit.getTree());
+                treeWalk.setRecursive(true);
+                treeWalk.setFilter(AndTreeFilter.create(pathFilter, TreeFilter.ANY_DIFF));
+                result = treeWalk.next();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Starts formatting the patches of pairs of commits on a pool of threads and
+     * records the time of each patch as the {@code diff} stage of its report.
+     *
+     * @param commitPairs pairs of commits
+     * @param executor pool of threads
+     * @param stageTimings time spent in each stage of the run
+     * @param diffReportDir diff report dir that names the reports of the pairs
+     * @return patches of the pairs, in the same order
+     */
+    List<Future<byte[]>> formatPatches(List<CommitPair> commitPairs, ExecutorService executor,
+                                       StageTimings stageTimings, DiffReportDir diffReportDir) {
+        final List<Future<byte[]>> patches = new ArrayList<>(commitPairs.size());
+        for (CommitPair commitPair : commitPairs) {
+            patches.add(executor.submit(() -> {
+                final long diffStart = System.nanoTime();
+                final byte[] patch = formatPatch(commitPair);
+                stageTimings.record(diffReportDir.getCommitDirName(commitPair), Stage.DIFF,
+                        diffStart);
+                return patch;
+            }));
+        }
+        return patches;
+    }
+
+    /**
+     * Formats the patch between the trees of a pair of commits in memory, with the
+     * changes of the included paths only. Each call uses its own object reader, so
+     * patches can be formatted concurrently.
+     *
+     * @param commitPair pair of commits
+     * @return content of the patch
+     * @throws IOException if the objects of the commits can not be read
+     */
+    byte[] formatPatch(CommitPair commitPair) throws IOException {
+        final ByteArrayOutputStream patch = new ByteArrayOutputStream();
+        try (ObjectReader reader = repository.newObjectReader();
+             DiffFormatter diffFormatter = new DiffFormatter(patch)) {
+            diffFormatter.setRepository(repository);
+            diffFormatter.setPathFilter(pathFilter);
+            final CanonicalTreeParser oldTreeIter = new CanonicalTreeParser();
+            oldTreeIter.reset(reader, commitPair.getOldCommit().getTree());
+            final CanonicalTreeParser newTreeIter = new CanonicalTreeParser();
+            newTreeIter.reset(reader, commitPair.getNewCommit().getTree());
+            final List<DiffEntry> entries = diffFormatter.scan(oldTreeIter, newTreeIter);
+            diffFormatter.format(entries);
+        }
+        return patch.toByteArray();
+    }
+
+    /**
+     * Creates the tree filter of the include and exclude globs.
+     *
+     * @param includePaths globs of the paths to include, split by comma, or null
+     * @param excludePaths globs of the paths to exclude, split by comma, or null
+     * @return tree filter, or {@link TreeFilter#ALL} without globs
+     */
+    private static TreeFilter createPathFilter(String includePaths, String excludePaths) {
+        final PatchPathFilter patchPathFilter = new PatchPathFilter(splitPaths(includePaths),
+                splitPaths(excludePaths));
+        final TreeFilter result;
+        if (patchPathFilter.isIncludingAll()) {
+            result = TreeFilter.ALL;
+        }
+        else {
+            result = new PathGlobTreeFilter(patchPathFilter);
+        }
+        return result;
+    }
+
+    private static List<String> splitPaths(String paths) {
+        final List<String> result;
+        if (paths == null) {
+            result = null;
+        }
+        else {
+            result = Arrays.asList(paths.split(","));
+        }
+        return result;
+    }
+
+}
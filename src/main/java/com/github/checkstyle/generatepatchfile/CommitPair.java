@@ -0,0 +1,77 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.github.checkstyle.generatepatchfile;
+
+import org.eclipse.jgit.revwalk.RevCommit;
+
+/**
+ * A commit and the commit it is compared with, which a report is generated for.
+ */
+final class CommitPair {
+
+    /** Number of characters of an abbreviated commit id. */
+    private static final int SHORT_NAME_LENGTH = 7;
+
+    /** Commit the patch starts from. */
+    private final RevCommit oldCommit;
+
+    /** Commit the report represents. */
+    private final RevCommit newCommit;
+
+    /**
+     * Creates a pair of commits.
+     *
+     * @param oldCommit commit the patch starts from
+     * @param newCommit commit the report represents
+     */
+    CommitPair(RevCommit oldCommit, RevCommit newCommit) {
+        this.oldCommit = oldCommit;
+        this.newCommit = newCommit;
+    }
+
+    /**
+     * Returns the commit the patch starts from.
+     *
+     * @return old commit
+     */
+    RevCommit getOldCommit() {
+        return oldCommit;
+    }
+
+    /**
+     * Returns the commit the report represents.
+     *
+     * @return new commit
+     */
+    RevCommit getNewCommit() {
+        return newCommit;
+    }
+
+    /**
+     * Returns the abbreviated id of a commit.
+     *
+     * @param commit commit
+     * @return first characters of the commit id
+     */
+    static String getShortName(RevCommit commit) {
+        return commit.getName().substring(0, SHORT_NAME_LENGTH);
+    }
+
+}
@@ -0,0 +1,42 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.github.checkstyle.generatepatchfile;
+
+/**
+ * How {@link Utils#copyDir(java.nio.file.Path, java.nio.file.Path, CopyMode, int)}
+ * transfers the files of a directory tree.
+ */
+public enum CopyMode {
+
+    /** Copies every file, the source tree is left untouched. */
+    COPY,
+
+    /**
+     * Moves the tree, by renaming whole directories where possible and file by file
+     * otherwise. The source tree does not exist afterwards.
+     */
+    MOVE,
+
+    /**
+     * Creates a hard link to every file, which shares its content with the source
+     * file. Files that can not be linked, for example across file systems, are copied.
+     */
+    HARD_LINK
+}
@@ -0,0 +1,344 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+
+package com.github.checkstyle.generatepatchfile;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Diff report dir that the report and the patch of each commit are written to, in a
+ * directory named after the repository and the commit, with the manifest of the
+ * completed reports and the summary index page.
+ */
+final class DiffReportDir {
+
+    /** Reason to skip a report whose inputs did not change since it was completed. */
+    static final String UP_TO_DATE_REASON = "report is up to date";
+
+    /** Name of the patch file of a commit. */
+    private static final String PATCH_FILE_FORMAT = "%s-patch-%s-%s.txt";
+
+    /** Diff report dir. */
+    private final File dir;
+
+    /** Name of the repository under test. */
+    private final String repoName;
+
+    /** Manifest of the completed reports of the diff report dir. */
+    private final ReportManifest manifest;
+
+    /**
+     * Store that keeps every distinct report file once, or null to keep full copies
+     * of the reports.
+     */
+    private ReportStore reportStore;
+
+    /** Number of threads that transfer the files of a report. */
+    private int copyThreadCount = 1;
+
+    /**
+     * Inputs shared by all reports of the current run, such as the hashes of the
+     * config files.
+     */
+    private Map<String, String> runInputs;
+
+    /**
+     * Creates a diff report dir.
+     *
+     * @param dir diff report dir
+     * @param repoName name of the repository under test
+     */
+    DiffReportDir(File dir, String repoName) {
+        this.dir = dir;
+        this.repoName = repoName;
+        manifest = new ReportManifest(dir.toPath());
+    }
+
+    /**
+     * Returns the diff report dir.
+     *
+     * @return diff report dir
+     */
+    File getDir() {
+        return dir;
+    }
+
+    /**
+     * Returns the name of the repository under test.
+     *
+     * @return name of the repository
+     */
+    String getRepoName() {
+        return repoName;
+    }
+
+    /**
+     * Sets whether files of reports are deduplicated in a {@link ReportStore}.
+     *
+     * @param deduplicateReports whether files of reports are deduplicated
+     */
+    void setDeduplicateReports(boolean deduplicateReports) {
+        if (deduplicateReports) {
+            reportStore = new ReportStore(dir.toPath());
+        }
+        else {
+            reportStore = null;
+        }
+    }
+
+    /**
+     * Sets the number of threads that transfer the files of a report.
+     *
+     * @param copyThreadCount number of threads
+     */
+    void setCopyThreadCount(int copyThreadCount) {
+        this.copyThreadCount = copyThreadCount;
+    }
+
+    /**
+     * Loads the manifest of completed reports and keeps the inputs shared by all
+     * reports of a run.
+     *
+     * @param inputs inputs shared by all reports of the run
+     * @throws IOException IO exception
+     */
+    void startRun(Map<String, String> inputs) throws IOException {
+        manifest.load();
+        runInputs = inputs;
+    }
+
+    /**
+     * Returns the inputs that the report of a pair of commits is generated from.
+     *
+     * @param commitPair pair of commits
+     * @return inputs of the report
+     */
+    Map<String, String> getReportInputs(CommitPair commitPair) {
+        final Map<String, String> inputs = new LinkedHashMap<>();
+        inputs.put("oldCommit", commitPair.getOldCommit().getName());
+        inputs.put("newCommit", commitPair.getNewCommit().getName());
+        inputs.putAll(runInputs);
+        return inputs;
+    }
+
+    /**
+     * Checks whether the report of a directory was completed from the inputs of a
+     * pair of commits.
+     *
+     * @param subDirName name of the report directory
+     * @param commitPair pair of commits
+     * @return true if the report is up to date
+     */
+    boolean isComplete(String subDirName, CommitPair commitPair) {
+        return manifest.isComplete(subDirName, getReportInputs(commitPair));
+    }
+
+    /**
+     * Returns the pairs of commits whose report is not up to date, printing the
+     * ones that are skipped.
+     *
+     * @param commitPairs pairs of commits
+     * @return pairs to report, in the same order
+     */
+    List<CommitPair> getStaleCommitPairs(List<CommitPair> commitPairs) {
+        final List<CommitPair> staleCommitPairs = new ArrayList<>(commitPairs.size());
+        for (CommitPair commitPair : commitPairs) {
+            final String subDirName = getCommitDirName(commitPair);
+            if (isComplete(subDirName, commitPair)) {
+                printSkip(subDirName, UP_TO_DATE_REASON);
+            }
+            else {
+                staleCommitPairs.add(commitPair);
+            }
+        }
+        return staleCommitPairs;
+    }
+
+    /**
+     * Prints that the report of a directory is skipped.
+     *
+     * @param subDirName name of the report directory
+     * @param reason why the report is skipped
+     */
+    static void printSkip(String subDirName, String reason) {
+        System.out.println("Skip " + subDirName + ", " + reason);
+    }
+
+    /**
+     * Records that the report of a directory is complete.
+     *
+     * @param subDirName name of the report directory
+     * @param commitPair pair of commits the report is generated from
+     * @throws IOException IO exception
+     */
+    void markComplete(String subDirName, CommitPair commitPair) throws IOException {
+        manifest.markComplete(subDirName, getReportInputs(commitPair));
+    }
+
+    /**
+     * Returns the name of the report directory of a pair of commits.
+     *
+     * @param commitPair pair of commits
+     * @return name of the report directory
+     */
+    String getCommitDirName(CommitPair commitPair) {
+        return repoName + "-" + CommitPair.getShortName(commitPair.getNewCommit());
+    }
+
+    /**
+     * Returns the name of the patch file of a pair of commits.
+     *
+     * @param commitPair pair of commits
+     * @return name of the patch file
+     */
+    String getPatchFileName(CommitPair commitPair) {
+        return getPatchFileName(CommitPair.getShortName(commitPair.getOldCommit()),
+                CommitPair.getShortName(commitPair.getNewCommit()));
+    }
+
+    /**
+     * Returns the name of a patch file.
+     *
+     * @param from name of the old side of the patch
+     * @param to name of the new side of the patch
+     * @return name of the patch file
+     */
+    String getPatchFileName(String from, String to) {
+        return String.format(PATCH_FILE_FORMAT, repoName, from, to);
+    }
+
+    /**
+     * Returns the report directory of a name, deleting a stale or incomplete report.
+     *
+     * @param subDirName name of the report directory
+     * @return report directory
+     * @throws IOException IO exception
+     */
+    File createDestDirName(String subDirName) throws IOException {
+        final File destDirFile = new File(dir, subDirName);
+        if (destDirFile.exists()) {
+            System.out.println("Regenerate " + subDirName + ", report is stale or incomplete");
+            manifest.markIncomplete(subDirName);
+            Utils.deleteDir(destDirFile.toPath());
+        }
+        return destDirFile;
+    }
+
+    /**
+     * Transfers a report of checkstyle-tester into a report directory, through the
+     * report store if reports are deduplicated.
+     *
+     * @param reportDir report of checkstyle-tester
+     * @param destDirFile report directory
+     * @param mode how the files are transferred without report store
+     * @throws IOException IO exception
+     */
+    void transferReport(File reportDir, File destDirFile, CopyMode mode)
+            throws IOException {
+        if (reportStore == null) {
+            Utils.copyDir(reportDir.toPath(), destDirFile.toPath(), mode, copyThreadCount);
+        }
+        else {
+            reportStore.store(reportDir.toPath(), destDirFile.toPath());
+        }
+    }
+
+    /**
+     * Generates the summary index page, with links to the report and the patch of
+     * each commit and a summary of the timings of the run.
+     *
+     * @param checkstyleBranch patch-branch of checkstyle
+     * @param stageTimings time spent in each stage of the run
+     */
+    void generateSummaryIndexHtml(String checkstyleBranch, StageTimings stageTimings) {
+        final File indexFile = new File(dir, "index.html");
+        try (FileWriter out = new FileWriter(indexFile)) {
+            final String brLine = "<br />\n";
+            out.write("<html><head>\n");
+            out.write("<link rel=\"icon\" href=\"https://checkstyle.org/images/favicon.png\" "
+                    + "type=\"image/x-icon\" />\n");
+            out.write("<title>Checkstyle Tester Report Diff Summary</title>\n");
+            out.write("</head><body>\n<h3><span style=\"color: #ff0000;\">\n");
+            out.write("<strong>WARNING: Excludes are ignored by diff.groovy.</strong>\n");
+            out.write("</span></h3>\n");
+
+            out.write("<h2>\n");
+            out.write("Base branch: " + CheckstyleTester.BASE_BRANCH);
+            out.write(brLine);
+            out.write("Patch branch: " + checkstyleBranch);
+            out.write(brLine + brLine);
+            writeCommitLinks(out, brLine);
+            out.write("</h2>\n");
+            stageTimings.writeHtmlSummary(out);
+            out.write("</body></html>");
+
+        }
+        catch (IOException exception) {
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Writes the links to the report and the patch of each commit of the summary.
+     *
+     * @param out writer of the summary
+     * @param brLine line break
+     * @throws IOException IO exception
+     */
+    private void writeCommitLinks(Writer out, String brLine) throws IOException {
+        final String[] commitDirNameList = dir.list(DiffReportDir::isCommitDir);
+        if (commitDirNameList != null) {
+            for (String commitDirName : commitDirNameList) {
+                final String repoCommitInfo = String.format(
+                        "<a href='%s/diff/%s/index.html'>%s-diff</a>\n",
+                        commitDirName, repoName, commitDirName);
+                out.write(repoCommitInfo);
+                out.write(brLine);
+                final File commitDir = new File(dir, commitDirName);
+                final String[] patchFileList =
+                        commitDir.list((parent, name) -> name.endsWith(".txt"));
+                final String patchFileInfo = String.format("<a href='%s/%s'>%s-patch</a>\n",
+                        commitDirName, patchFileList[0], commitDirName);
+                out.write(patchFileInfo);
+                out.write(brLine);
+            }
+        }
+    }
+
+    /**
+     * Checks whether an entry of the diff report dir is the report dir of a commit,
+     * which skips hidden entries such as the blobs of the report store.
+     *
+     * @param parent diff report dir
+     * @param name name of the entry
+     * @return true if the entry is the report dir of a commit
+     */
+    private static boolean isCommitDir(File parent, String name) {
+        return name.charAt(0) != '.' && new File(parent, name).isDirectory();
+    }
+
+}
@@ -20,28 +20,30 @@
 package com.github.checkstyle.generatepatchfile;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Date;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.diff.DiffEntry;
-import org.eclipse.jgit.diff.DiffFormatter;
-import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
-import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+
+import com.github.checkstyle.generatepatchfile.StageTimings.Stage;
 
 /**
  * To generate patch file through jgit.
@@ -53,24 +55,34 @@ public class GeneratePatchFile {
     private static final String HEAD = "-HEAD~";
 
     /**
-     * PATCH_FILE_FORMAT.
+     * MOVE_PATCH_FILE_ERROR_MESSAGE.
      */
-    private static final String PATCH_FILE_FORMAT = "%s-patch-%s-%s.txt";
+    private static final String MOVE_PATCH_FILE_ERROR_MESSAGE = "Moving Patch File failed!";
 
     /**
-     * GIT.
+     * PATCH_TXT.
      */
-    private static final String GIT = "git";
+    private static final String PATCH_TXT = "patch.txt";
 
     /**
-     * MOVE_PATCH_FILE_ERROR_MESSAGE.
+     * Patch format of {@code git show}.
      */
-    private static final String MOVE_PATCH_FILE_ERROR_MESSAGE = "Moving Patch File failed!";
+    private static final String SHOW_PATCH_FORMAT = "show";
 
     /**
-     * PATCH_TXT.
+     * Patch format of {@code git diff}.
      */
-    private static final String PATCH_TXT = "patch.txt";
+    private static final String DIFF_PATCH_FORMAT = "diff";
+
+    /**
+     * Patch format of {@code git format-patch}.
+     */
+    private static final String MAIL_PATCH_FORMAT = "format";
+
+    /**
+     * Format of the patches generated through jgit, as recorded in the manifest.
+     */
+    private static final String JGIT_PATCH_FORMAT = "jgit";
 
     /**
      * Git instance.
@@ -113,9 +125,56 @@ public class GeneratePatchFile {
     private final File patchConfigFile;
 
     /**
-     * Directory name which be store diff reports.
+     * Tester that generates the reports.
+     */
+    private final CheckstyleTester tester;
+
+    /**
+     * Directory which stores diff reports.
+     */
+    private final DiffReportDir diffReportDir;
+
+    /**
+     * Number of threads that format patches, by default the number of available
+     * processors.
+     */
+    private int diffThreadCount = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Number of tester runs at the same time.
+     */
+    private int testerConcurrency = 1;
+
+    /**
+     * Number of commits that one tester run reports on.
+     */
+    private int batchSize = 1;
+
+    /**
+     * Globs of the paths that patches are generated for, split by comma, or null to
+     * include all paths.
+     */
+    private String includePaths;
+
+    /**
+     * Globs of the paths that patches are never generated for, split by comma, or null.
+     */
+    private String excludePaths;
+
+    /**
+     * History of the repository, restricted to the included and not excluded paths.
      */
-    private final String diffReportDirName;
+    private CommitHistory history;
+
+    /**
+     * How reports of checkstyle-tester are transferred into the diff report dir.
+     */
+    private CopyMode reportCopyMode = CopyMode.COPY;
+
+    /**
+     * Time spent in each stage of the current run.
+     */
+    private StageTimings stageTimings;
 
     /**
      * Init GeneratePatchFile.
@@ -145,11 +204,129 @@ public class GeneratePatchFile {
         catch (IOException exception) {
             exception.printStackTrace();
         }
-        diffReportDirName = new File(".").getAbsoluteFile().getParent() + "/DiffReport";
+        tester = new CheckstyleTester(testerPath, checkstyleRepoPath, checkstyleBranch,
+                baseConfigFile, patchConfigFile);
+        diffReportDir = new DiffReportDir(
+                new File(new File(".").getAbsoluteFile().getParent(), "DiffReport"),
+                getSimpleRepoName());
+        history = new CommitHistory(repository, null, null);
+    }
+
+    /**
+     * Setter to specify the number of threads that format patches. Patches are
+     * formatted from the trees of the commits in memory, ahead of the tester runs,
+     * which are the only step that needs the working tree.
+     *
+     * @param diffThreadCount number of threads, at least 1
+     * @throws IllegalArgumentException if diffThreadCount is less than 1
+     */
+    public void setDiffThreadCount(int diffThreadCount) {
+        this.diffThreadCount = requirePositive("diffThreadCount", diffThreadCount);
+    }
+
+    /**
+     * Setter to specify the number of tester runs at the same time. With more than
+     * one run, each commit is exported from its tree into a private workspace that
+     * has its own copy of checkstyle-tester, clone of checkstyle, list of projects,
+     * patch, reports directory and local Maven repository, and the working tree of
+     * the repository is never checked out. The project whose name is the name of
+     * the repository is tested on the exported sources as a {@code local} project.
+     *
+     * @param testerConcurrency number of tester runs at the same time, at least 1
+     * @throws IllegalArgumentException if testerConcurrency is less than 1
+     */
+    public void setTesterConcurrency(int testerConcurrency) {
+        this.testerConcurrency = requirePositive("testerConcurrency", testerConcurrency);
+    }
+
+    /**
+     * Setter to specify the number of commits that one tester run reports on. With
+     * more than one commit, the sources of all commits of a batch are exported first
+     * as snapshots named like their report directory, {@code repo-sha}, and the tester
+     * runs once on the list of snapshots with one patch whose paths start with the
+     * snapshot directories, so Groovy and JVM startup and the warm-up of checkstyle
+     * are paid once per batch. The report of each snapshot is then split into the
+     * directory of its commit. Batches run in private workspaces like concurrent
+     * tester runs.
+     *
+     * @param batchSize number of commits of one tester run, at least 1
+     * @throws IllegalArgumentException if batchSize is less than 1
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = requirePositive("batchSize", batchSize);
+    }
+
+    /**
+     * Setter to specify globs of the paths that patches are generated for, split by
+     * comma, for example {@code *.java,*.properties}. A glob without {@code /} is
+     * matched against the file name, like {@code includePaths} of the patch filters.
+     * Commits that change none of the paths are skipped without running the tester,
+     * and patches contain only the changes of these paths.
+     *
+     * @param includePaths globs of the paths to include, split by comma
+     */
+    public void setIncludePaths(String includePaths) {
+        this.includePaths = includePaths;
+        history = new CommitHistory(repository, includePaths, excludePaths);
+    }
+
+    /**
+     * Setter to specify globs of the paths that patches are never generated for,
+     * split by comma, for example generated sources. A glob without {@code /} is
+     * matched against the file name.
+     *
+     * @param excludePaths globs of the paths to exclude, split by comma
+     */
+    public void setExcludePaths(String excludePaths) {
+        this.excludePaths = excludePaths;
+        history = new CommitHistory(repository, includePaths, excludePaths);
+    }
+
+    /**
+     * Setter to specify how reports of checkstyle-tester are transferred into the
+     * diff report dir. {@link CopyMode#MOVE} is the cheapest, as checkstyle-tester
+     * writes a new report on every run, and {@link CopyMode#HARD_LINK} keeps the
+     * report of the last run in checkstyle-tester, which is deleted before each run
+     * so that linked files are never rewritten in place. Reports of private workspaces
+     * of concurrent tester runs are always moved.
+     *
+     * @param reportCopyMode how reports are transferred
+     */
+    public void setReportCopyMode(CopyMode reportCopyMode) {
+        this.reportCopyMode = reportCopyMode;
+    }
+
+    /**
+     * Setter to specify the number of threads that transfer the files of a report,
+     * which pays off for large report trees.
+     *
+     * @param copyThreadCount number of threads, at least 1
+     * @throws IllegalArgumentException if copyThreadCount is less than 1
+     */
+    public void setCopyThreadCount(int copyThreadCount) {
+        diffReportDir.setCopyThreadCount(requirePositive("copyThreadCount", copyThreadCount));
+    }
+
+    /**
+     * Setter to specify whether files of reports are deduplicated. Every distinct file
+     * is then kept once in the hidden directory {@code .objects} of the diff report
+     * dir, named by the SHA-256 hash of its content, and the directory of each commit
+     * is made of hard links to these files, so disk usage and copy time grow with the
+     * number of distinct files instead of the number of commits.
+     *
+     * @param deduplicateReports whether files of reports are deduplicated
+     */
+    public void setDeduplicateReports(boolean deduplicateReports) {
+        diffReportDir.setDeduplicateReports(deduplicateReports);
     }
 
     /**
-     * To generate patch file through jgit.
+     * To generate patch file through jgit. The first {@code runPatchNum - 1} commits
+     * of HEAD are reported, or with path filters the first ones that change an
+     * included path, and each commit is compared with its first parent. Reports
+     * that a previous run completed from the same commits, config files and patch
+     * branch are kept, other reports are generated again. HEAD is checked out again
+     * at the end.
      *
      * @param runPatchNum num of patch file between two commits
      * @throws Exception exception
@@ -159,255 +336,275 @@ public class GeneratePatchFile {
         if (runPatchNum <= 1) {
             throw new IllegalArgumentException("runPatchNum should be greater than 1");
         }
-        final List<RevCommit> commitList = getAllCommits();
-        for (int patchNum = 0; patchNum < runPatchNum - 1; patchNum++) {
-            generateTwoCommitDiffPatch(commitList.get(patchNum + 1), commitList.get(patchNum));
-        }
-        generateSummaryIndexHtml();
-        checkout(commitList.get(0).getId().getName());
+        final ObjectId head = repository.resolve(Constants.HEAD);
+        final List<CommitPair> commitPairs = history.getFirstCommitPairs(head, runPatchNum - 1);
+        System.out.println("Commit pair num: " + commitPairs.size());
+        startRun(JGIT_PATCH_FORMAT);
+        generateReports(commitPairs);
+        finishRun();
+        checkout(head.getName());
     }
 
     /**
-     * To generate patch file through jgit.
+     * To generate patch file through jgit. Each commit is compared with its first
+     * parent; commits that are not reachable from HEAD and root commits are skipped,
+     * as well as commits whose report is up to date.
      *
      * @param commits a set of commitIDs
      * @throws Exception exception
      */
     public void generatePatch(Set<String> commits) throws Exception {
-        final List<RevCommit> revisions = getAllCommits();
-        for (int revisionNumber = 0; revisionNumber < revisions.size() - 1; ++revisionNumber) {
-            final RevCommit rev = revisions.get(revisionNumber);
-            final String name = rev.getId().getName();
-            if (commits.contains(name)) {
-                final RevCommit prevRev = revisions.get(revisionNumber + 1);
-                generateTwoCommitDiffPatch(prevRev, rev);
-            }
-        }
-        generateSummaryIndexHtml();
-        checkout(revisions.get(0).getId().getName());
+        final ObjectId head = repository.resolve(Constants.HEAD);
+        final List<CommitPair> commitPairs = history.getCommitPairs(commits, head);
+        startRun(JGIT_PATCH_FORMAT);
+        generateReports(commitPairs);
+        finishRun();
+        checkout(head.getName());
     }
 
     /**
-     * To generate patch file through git command.
+     * To generate patch file in the formats of git commands. The patches of
+     * {@code HEAD~1..HEAD}, {@code HEAD~2..HEAD~1} and so on are produced in process
+     * by JGit in the format of {@code git show}, {@code git diff} or
+     * {@code git format-patch} and written straight to the patch file of the tester.
      *
      * @param runPatchNum num of patch file between two commits
      * @param patchFormat choose git command to create patch format
      * @throws Exception exception
+     * @throws IllegalArgumentException if patchFormat is not 'show', 'diff' or 'format'.
      */
     public void generatePatchWithGitCommand(int runPatchNum, String patchFormat) throws Exception {
-        final String headSha = getHeadSha();
-        for (int patchNum = 1; patchNum < runPatchNum; patchNum++) {
-            generateDiffPatchWithGitCommand(patchNum, patchFormat);
-            checkoutWithGitCommand();
+        if (!SHOW_PATCH_FORMAT.equals(patchFormat) && !DIFF_PATCH_FORMAT.equals(patchFormat)
+                && !MAIL_PATCH_FORMAT.equals(patchFormat)) {
+            throw new IllegalArgumentException("patchFormat should be 'show', 'diff' or 'format'");
         }
-        generateSummaryIndexHtml();
-        checkout(headSha);
-    }
-
-    private String getHeadSha() throws Exception {
-        runShellCommand("git rev-parse HEAD > HEAD_SHA");
-        final Path path = new File(repoPath, "HEAD_SHA").toPath();
-        final String headSha = Files.readAllLines(path).get(0);
-        Files.delete(path);
-        return headSha;
+        final List<RevCommit> commitList = history.getFirstParents(
+                repository.resolve(Constants.HEAD), runPatchNum);
+        startRun(patchFormat);
+        for (int patchNum = 1; patchNum < commitList.size(); patchNum++) {
+            final CommitPair commitPair = new CommitPair(commitList.get(patchNum),
+                    commitList.get(patchNum - 1));
+            final String subDirName = diffReportDir.getRepoName() + HEAD + patchNum;
+            if (!history.isChangingFilteredPaths(commitPair.getOldCommit(),
+                    commitPair.getNewCommit())) {
+                DiffReportDir.printSkip(subDirName, "no included path is changed");
+            }
+            else if (diffReportDir.isComplete(subDirName, commitPair)) {
+                DiffReportDir.printSkip(subDirName, DiffReportDir.UP_TO_DATE_REASON);
+            }
+            else {
+                generateDiffPatchWithGitCommand(patchNum, commitPair, patchFormat);
+            }
+        }
+        finishRun();
+        checkout(commitList.get(0).getName());
     }
 
-    private List<RevCommit> getAllCommits() throws Exception {
-        final Iterable<RevCommit> commits = git.log().add(repository.resolve("HEAD")).call();
-        int count = 0;
-        final List<RevCommit> commitList = new ArrayList<>();
-        for (RevCommit commit : commits) {
-            count++;
-            commitList.add(commit);
+    /**
+     * Generates the reports of commit pairs. The patches are formatted on a pool of
+     * threads from the trees of the commits, without touching the working tree, while
+     * the tester runs one commit after the other on the checked out commit.
+     *
+     * @param allCommitPairs pairs of commits to report, in the order of the reports
+     * @throws Exception exception
+     */
+    private void generateReports(List<CommitPair> allCommitPairs) throws Exception {
+        final List<CommitPair> commitPairs = diffReportDir.getStaleCommitPairs(allCommitPairs);
+        final ExecutorService executor = Executors.newFixedThreadPool(diffThreadCount);
+        try {
+            final List<Future<byte[]>> patches = history.formatPatches(commitPairs, executor,
+                    stageTimings, diffReportDir);
+            if (testerConcurrency > 1 || batchSize > 1) {
+                new TesterSlotPool(repository, tester, diffReportDir, stageTimings,
+                        testerConcurrency, batchSize).generateReports(commitPairs, patches);
+            }
+            else {
+                for (int index = 0; index < commitPairs.size(); index++) {
+                    generateTwoCommitDiffPatch(commitPairs.get(index),
+                            patches.get(index).get());
+                }
+            }
+        }
+        finally {
+            executor.shutdownNow();
         }
-        System.out.println("Commit num: " + count);
-        return commitList;
     }
 
-    private void generateTwoCommitDiffPatch(RevCommit commitOld, RevCommit commitNew)
+    private void generateTwoCommitDiffPatch(CommitPair commitPair, byte[] patch)
             throws Exception {
-        final int commitNameLength = 7;
-        final String subDirName = getSimpleRepoName() + "-"
-                + commitNew.getName().substring(0, commitNameLength);
-        final File destDirFile = createDestDirName(subDirName);
+        final String subDirName = diffReportDir.getCommitDirName(commitPair);
+        final File destDirFile = diffReportDir.createDestDirName(subDirName);
         final boolean succ = destDirFile.mkdirs();
         if (succ) {
-            final File patchFile = new File(diffReportDirName, PATCH_TXT);
-            final PrintStream ps = new PrintStream(new FileOutputStream(patchFile));
-            final DiffFormatter diffFormatter = new DiffFormatter(ps);
-            diffFormatter.setRepository(git.getRepository());
-            final ObjectReader reader = git.getRepository().newObjectReader();
-            final CanonicalTreeParser oldTreeIter = new CanonicalTreeParser();
-            oldTreeIter.reset(reader, commitOld.getTree());
-            final CanonicalTreeParser newTreeIter = new CanonicalTreeParser();
-            newTreeIter.reset(reader, commitNew.getTree());
-            final List<DiffEntry> entries = diffFormatter.scan(oldTreeIter, newTreeIter);
-            diffFormatter.format(entries);
-            diffFormatter.close();
-
-            checkout(commitNew.getName());
+            final File patchFile = new File(diffReportDir.getDir(), PATCH_TXT);
+            Files.write(patchFile.toPath(), patch);
+
+            final long checkoutStart = System.nanoTime();
+            checkout(commitPair.getNewCommit().getName());
+            stageTimings.record(subDirName, Stage.CHECKOUT, checkoutStart);
+            final long testerStart = System.nanoTime();
             final File reportDir = generate();
-            Utils.copyDir(reportDir, destDirFile);
+            stageTimings.record(subDirName, Stage.TESTER, testerStart);
+            final long copyStart = System.nanoTime();
+            diffReportDir.transferReport(reportDir, destDirFile, reportCopyMode);
+            stageTimings.record(subDirName, Stage.COPY, copyStart);
 
-            final String patchFileName = String.format(PATCH_FILE_FORMAT, getSimpleRepoName(),
-                    commitOld.getName().substring(0, commitNameLength),
-                    commitNew.getName().substring(0, commitNameLength));
+            final long renameStart = System.nanoTime();
+            final String patchFileName = diffReportDir.getPatchFileName(commitPair);
             if (!(patchFile.renameTo(new File(destDirFile.getAbsolutePath(), patchFileName)))) {
                 throw new IOException(MOVE_PATCH_FILE_ERROR_MESSAGE);
             }
+            stageTimings.record(subDirName, Stage.RENAME, renameStart);
+            diffReportDir.markComplete(subDirName, commitPair);
         }
     }
 
-    private void generateDiffPatchWithGitCommand(int headNum, String patchFormat) throws Exception {
-        if ("show".equals(patchFormat)) {
-            runShellCommand("git show > show.patch");
-        }
-        else if ("diff".equals(patchFormat)) {
-            runShellCommand("git diff HEAD~1 HEAD > show.patch");
-        }
-        else if ("format".equals(patchFormat)) {
-            runShellCommand("git format-patch -1");
-        }
-        else {
-            throw new IllegalArgumentException("patchFormat should be 'show', 'diff' or 'format'");
-        }
-        final File repoDir = new File(repoPath);
-        final File[] fileList = repoDir.listFiles((dir, name) -> name.endsWith(".patch"));
-        final String subDirName = getSimpleRepoName() + HEAD + headNum;
-        final File destDirFile = createDestDirName(subDirName);
+    private void generateDiffPatchWithGitCommand(int headNum, CommitPair commitPair,
+                                                 String patchFormat) throws Exception {
+        final String subDirName = diffReportDir.getRepoName() + HEAD + headNum;
+        final File destDirFile = diffReportDir.createDestDirName(subDirName);
         final boolean succ = destDirFile.mkdirs();
         if (succ) {
-            final File patchFile = new File(diffReportDirName, PATCH_TXT);
-            if (fileList != null && fileList[0] != null) {
-                if (!(fileList[0].renameTo(patchFile))) {
-                    throw new IOException(MOVE_PATCH_FILE_ERROR_MESSAGE);
+            final File patchFile = new File(diffReportDir.getDir(), PATCH_TXT);
+            final long diffStart = System.nanoTime();
+            try (OutputStream output = Files.newOutputStream(patchFile.toPath())) {
+                final RevCommit commit = commitPair.getNewCommit();
+                if (SHOW_PATCH_FORMAT.equals(patchFormat)) {
+                    output.write(CommitHeaders.formatShowHeader(commit)
+                            .getBytes(StandardCharsets.UTF_8));
+                }
+                else if (MAIL_PATCH_FORMAT.equals(patchFormat)) {
+                    output.write(CommitHeaders.formatMailHeader(commit)
+                            .getBytes(StandardCharsets.UTF_8));
                 }
+                output.write(history.formatPatch(commitPair));
             }
+            stageTimings.record(subDirName, Stage.DIFF, diffStart);
+            final long checkoutStart = System.nanoTime();
+            checkout(commitPair.getNewCommit().getName());
+            stageTimings.record(subDirName, Stage.CHECKOUT, checkoutStart);
+            final long testerStart = System.nanoTime();
             final File reportDir = generate();
-            Utils.copyDir(reportDir, destDirFile);
-            final DateFormat format = new SimpleDateFormat("yyyyMMddHHmmss", Locale.getDefault());
-            final String patchFileName = String.format(PATCH_FILE_FORMAT, getSimpleRepoName(),
-                    HEAD + headNum, format.format(new Date()));
+            stageTimings.record(subDirName, Stage.TESTER, testerStart);
+            final long copyStart = System.nanoTime();
+            diffReportDir.transferReport(reportDir, destDirFile, reportCopyMode);
+            stageTimings.record(subDirName, Stage.COPY, copyStart);
+            final long renameStart = System.nanoTime();
+            final String patchFileName = diffReportDir.getPatchFileName(HEAD + headNum,
+                    LocalDateTime.now().format(
+                            DateTimeFormatter.ofPattern("yyyyMMddHHmmss", Locale.getDefault())));
             System.out.println(destDirFile.getAbsolutePath());
             if (!(patchFile.renameTo(new File(destDirFile.getAbsolutePath(), patchFileName)))) {
                 throw new IOException(MOVE_PATCH_FILE_ERROR_MESSAGE);
             }
+            stageTimings.record(subDirName, Stage.RENAME, renameStart);
+            diffReportDir.markComplete(subDirName, commitPair);
         }
     }
 
-    private void runShellCommand(String command) throws Exception {
-        final List<String> cmds = new ArrayList<>();
-        cmds.add("sh");
-        cmds.add("-c");
-        cmds.add(command);
-        final Process process = new ProcessBuilder()
-                .directory(new File(repoPath))
-                .command(cmds)
-                .inheritIO()
-                .start();
-        final int code = process.waitFor();
-        if (code != 0) {
-            throw new IllegalStateException("an error occurred when running " + command);
+    /**
+     * Checks that a count option is at least 1.
+     *
+     * @param name name of the option
+     * @param value value of the option
+     * @return value
+     * @throws IllegalArgumentException if value is less than 1
+     */
+    private static int requirePositive(String name, int value) {
+        if (value < 1) {
+            throw new IllegalArgumentException(name + " should be at least 1, but is " + value);
         }
+        return value;
     }
 
-    private File createDestDirName(String subDirName) throws Exception {
-        final File destDirFile = new File(diffReportDirName, subDirName);
-        if (destDirFile.exists()) {
-            throw new IOException("commit dir exists, please delete");
-        }
-        return destDirFile;
+    /**
+     * Loads the manifest of completed reports, collects the inputs shared by all
+     * reports of a run and starts timing the run.
+     *
+     * @param patchFormat format of the patches of the run
+     * @throws IOException IO exception
+     */
+    private void startRun(String patchFormat) throws IOException {
+        diffReportDir.startRun(getRunInputs(patchFormat));
+        stageTimings = new StageTimings();
     }
 
-    private void checkoutWithGitCommand() throws Exception {
-        final Process process = new ProcessBuilder()
-                .directory(new File(repoPath))
-                .command(GIT, "checkout", "HEAD~1")
-                .inheritIO()
-                .start();
-        final int code = process.waitFor();
-        if (code != 0) {
-            throw new IllegalStateException("an error occurred when running git checkout HEAD~1");
+    /**
+     * Collects the inputs shared by all reports of a run: the patch format, the
+     * hashes of the config files, the path globs, the patch branch and the commits
+     * of the base branch, the patch branch and checkstyle-tester. Commits that can
+     * not be resolved are left out.
+     *
+     * @param patchFormat format of the patches of the run
+     * @return inputs of the run
+     * @throws IOException IO exception
+     */
+    Map<String, String> getRunInputs(String patchFormat) throws IOException {
+        final Map<String, String> inputs = new LinkedHashMap<>();
+        inputs.put("patchFormat", patchFormat);
+        inputs.put("baseConfig", Utils.sha256(baseConfigFile.toPath()));
+        inputs.put("patchConfig", Utils.sha256(patchConfigFile.toPath()));
+        inputs.put("patchBranch", checkstyleBranch);
+        inputs.put("includePaths", Objects.toString(includePaths, ""));
+        inputs.put("excludePaths", Objects.toString(excludePaths, ""));
+        putCommit(inputs, "baseBranchCommit", checkstyleRepoPath, CheckstyleTester.BASE_BRANCH);
+        putCommit(inputs, "patchBranchCommit", checkstyleRepoPath, checkstyleBranch);
+        putCommit(inputs, "testerCommit", testerPath, Constants.HEAD);
+        return inputs;
+    }
+
+    /**
+     * Resolves a revision in the git repository that contains a directory and puts
+     * the name of its commit into inputs.
+     *
+     * @param inputs inputs of a run
+     * @param name name of the input
+     * @param dir directory in the repository
+     * @param revision revision to resolve
+     * @throws IOException if the repository can not be read
+     */
+    private static void putCommit(Map<String, String> inputs, String name, String dir,
+                                  String revision) throws IOException {
+        final FileRepositoryBuilder builder = new FileRepositoryBuilder()
+                .findGitDir(new File(dir));
+        if (builder.getGitDir() != null) {
+            try (Repository dirRepository = builder.build()) {
+                final ObjectId commitId = dirRepository.resolve(revision);
+                if (commitId != null) {
+                    inputs.put(name, commitId.getName());
+                }
+            }
         }
     }
 
+    /**
+     * Generates the summary index page, with a summary of the timings of the run,
+     * and writes the timings per commit and stage next to it.
+     *
+     * @throws IOException IO exception
+     */
+    private void finishRun() throws IOException {
+        final long indexStart = System.nanoTime();
+        diffReportDir.generateSummaryIndexHtml(checkstyleBranch, stageTimings);
+        stageTimings.record("", Stage.INDEX, indexStart);
+        stageTimings.writeCsv(new File(diffReportDir.getDir(), StageTimings.FILE_NAME).toPath());
+    }
+
     private void checkout(String commitName) throws Exception {
         git.checkout().setName(commitName).call();
     }
 
     private File generate()
             throws InterruptedException, IOException {
-        final Process process = new ProcessBuilder()
-                .directory(new File(testerPath))
-                .command(
-                        "groovy", "diff.groovy",
-                        "-r", checkstyleRepoPath,
-                        "-b", "master",
-                        "-p", checkstyleBranch,
-                        "-bc", baseConfigFile.getAbsolutePath(),
-                        "-pc", patchConfigFile.getAbsolutePath(),
-                        "-l", "projects-to-test-on.properties"
-                )
-                .inheritIO()
-                .start();
-        final int code = process.waitFor();
-        if (code != 0) {
-            throw new IllegalStateException("an error occurred when running diff.groovy");
+        if (reportCopyMode == CopyMode.HARD_LINK) {
+            // files linked from the previous report must not be rewritten in place
+            tester.deleteReports();
         }
-        final File reportDir = new File(testerPath, "reports");
-        if (!reportDir.exists() || !reportDir.isDirectory()) {
-            throw new IOException("report does not exist or it is not a directory");
-        }
-        return reportDir;
+        return tester.generate();
     }
 
     private String getSimpleRepoName() {
         final String[] repoPaths = repoPath.split("/");
         return repoPaths[repoPaths.length - 1];
     }
-
-    private void generateSummaryIndexHtml() {
-        final File indexFile = new File(diffReportDirName, "index.html");
-        try (FileWriter out = new FileWriter(indexFile)) {
-            final String brLine = "<br />\n";
-            out.write("<html><head>\n");
-            out.write("<link rel=\"icon\" href=\"https://checkstyle.org/images/favicon.png\" "
-                    + "type=\"image/x-icon\" />\n");
-            out.write("<title>Checkstyle Tester Report Diff Summary</title>\n");
-            out.write("</head><body>\n<h3><span style=\"color: #ff0000;\">\n");
-            out.write("<strong>WARNING: Excludes are ignored by diff.groovy.</strong>\n");
-            out.write("</span></h3>\n");
-
-            out.write("<h2>\n");
-            out.write("Base branch: master");
-            out.write(brLine);
-            out.write("Patch branch: " + checkstyleBranch);
-            out.write(brLine + brLine);
-            final File diffReportDir = new File(diffReportDirName);
-            final String[] commitDirNameList =
-                    diffReportDir.list((dir, name) -> !name.endsWith(".html"));
-            final String simpleRepoName = getSimpleRepoName();
-            if (commitDirNameList != null) {
-                for (String commitDirName : commitDirNameList) {
-                    final String repoCommitInfo = String.format(
-                            "<a href='%s/diff/%s/index.html'>%s-diff</a>\n",
-                            commitDirName, simpleRepoName, commitDirName);
-                    out.write(repoCommitInfo);
-                    out.write(brLine);
-                    final File commitDir = new File(diffReportDirName, commitDirName);
-                    final String[] patchFileList =
-                            commitDir.list((dir, name) -> name.endsWith(".txt"));
-                    final String patchFileInfo = String.format("<a href='%s/%s'>%s-patch</a>\n",
-                            commitDirName, patchFileList[0], commitDirName);
-                    out.write(patchFileInfo);
-                    out.write(brLine);
-                }
-            }
-            out.write("</h2>\n</body></html>");
-
-        }
-        catch (IOException exception) {
-            exception.printStackTrace();
-        }
-    }
 }
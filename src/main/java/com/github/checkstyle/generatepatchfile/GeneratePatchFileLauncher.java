@@ -23,11 +23,78 @@ import java.io.File;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Callable;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
 
 /**
- * GeneratePatchFileWithGitCommandLauncher.
+ * GeneratePatchFileLauncher.
  */
-public final class GeneratePatchFileLauncher {
+@Command(name = "GeneratePatchFileLauncher",
+        description = "Generates patch-filter diff reports of the commits of a repository.")
+public final class GeneratePatchFileLauncher implements Callable<Integer> {
+
+    @Parameters(index = "0", description = "Repository checked by checkstyle.")
+    private String repoPath;
+
+    @Parameters(index = "1", description = "Path of checkstyle.")
+    private String checkstyleRepoPath;
+
+    @Parameters(index = "2", description = "Path of checkstyle-tester.")
+    private String testerPath;
+
+    @Parameters(index = "3", description = "Patch branch of checkstyle.")
+    private String checkstyleBranch;
+
+    @Parameters(index = "4", description = "Config file of the base branch.")
+    private File baseConfigFile;
+
+    @Parameters(index = "5", description = "Config file of the patch branch.")
+    private File patchConfigFile;
+
+    @Parameters(index = "6", description = "Number of first commits of HEAD, "
+            + "or commits split by comma.")
+    private String commitParam;
+
+    @Option(names = "--diff-threads", paramLabel = "<count>",
+            description = "Threads that format patches, by default the number of processors.")
+    private Integer diffThreadCount;
+
+    @Option(names = "--tester-concurrency", paramLabel = "<count>", defaultValue = "1",
+            description = "Tester runs at the same time, by default ${DEFAULT-VALUE}.")
+    private int testerConcurrency;
+
+    @Option(names = "--batch-size", paramLabel = "<count>", defaultValue = "1",
+            description = "Commits of one tester run, by default ${DEFAULT-VALUE}.")
+    private int batchSize;
+
+    @Option(names = "--copy-mode", paramLabel = "<mode>", defaultValue = "copy",
+            description = "How reports are transferred: copy, move or hard_link, "
+                    + "by default ${DEFAULT-VALUE}.")
+    private CopyMode reportCopyMode;
+
+    @Option(names = "--copy-threads", paramLabel = "<count>", defaultValue = "1",
+            description = "Threads that transfer the files of a report, "
+                    + "by default ${DEFAULT-VALUE}.")
+    private int copyThreadCount;
+
+    @Option(names = "--deduplicate-reports",
+            description = "Keep every distinct file of the reports once.")
+    private boolean deduplicateReports;
+
+    @Option(names = "--include-paths", paramLabel = "<globs>",
+            description = "Globs of the paths to report on, split by comma.")
+    private String includePaths;
+
+    @Option(names = "--exclude-paths", paramLabel = "<globs>",
+            description = "Globs of the paths never to report on, split by comma.")
+    private String excludePaths;
+
+    @Option(names = {"-h", "--help"}, usageHelp = true, description = "Show this help.")
+    private boolean help;
 
     private GeneratePatchFileLauncher() {
 
@@ -37,26 +104,40 @@ public final class GeneratePatchFileLauncher {
      * Main function.
      *
      * @param args parameters
-     * @throws Exception exception
      */
-    public static void main(String[] args) throws Exception {
-        final String repoPath = args[0];
-        final String checkstyleRepoPath = args[1];
-        final String testerPath = args[2];
-        final String checkstyleBranch = args[3];
-        final File baseConfigFile = new File(args[4]);
-        final File patchConfigFile = new File(args[5]);
+    public static void main(String... args) {
+        final CommandLine commandLine = new CommandLine(new GeneratePatchFileLauncher());
+        commandLine.setCaseInsensitiveEnumValuesAllowed(true);
+        System.exit(commandLine.execute(args));
+    }
+
+    @Override
+    public Integer call() throws Exception {
         final GeneratePatchFile generatePatchFile =
                 new GeneratePatchFile(repoPath, testerPath, checkstyleRepoPath,
                         checkstyleBranch, baseConfigFile, patchConfigFile);
-        final String commitParam = args[6];
+        if (diffThreadCount != null) {
+            generatePatchFile.setDiffThreadCount(diffThreadCount);
+        }
+        generatePatchFile.setTesterConcurrency(testerConcurrency);
+        generatePatchFile.setBatchSize(batchSize);
+        generatePatchFile.setReportCopyMode(reportCopyMode);
+        generatePatchFile.setCopyThreadCount(copyThreadCount);
+        generatePatchFile.setDeduplicateReports(deduplicateReports);
+        if (includePaths != null) {
+            generatePatchFile.setIncludePaths(includePaths);
+        }
+        if (excludePaths != null) {
+            generatePatchFile.setExcludePaths(excludePaths);
+        }
         if (commitParam.matches("(0|[1-9]\\d*)")) {
-            generatePatchFile.generatePatch(Integer.parseInt(args[6]));
+            generatePatchFile.generatePatch(Integer.parseInt(commitParam));
         }
         else {
             final String[] commitIds = commitParam.split(",");
             final Set<String> commitSet = new HashSet<>(Arrays.asList(commitIds));
             generatePatchFile.generatePatch(commitSet);
         }
+        return 0;
     }
 }
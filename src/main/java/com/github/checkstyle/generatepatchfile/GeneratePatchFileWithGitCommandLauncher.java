@@ -46,6 +46,12 @@ public final class GeneratePatchFileWithGitCommandLauncher {
         final GeneratePatchFile generatePatchFile =
                 new GeneratePatchFile(repoPath, testerPath, checkstyleRepoPath,
                         checkstyleBranch, baseConfigFile, patchConfigFile);
+        if (args.length > 8 && !args[8].isEmpty()) {
+            generatePatchFile.setIncludePaths(args[8]);
+        }
+        if (args.length > 9 && !args[9].isEmpty()) {
+            generatePatchFile.setExcludePaths(args[9]);
+        }
         generatePatchFile.generatePatchWithGitCommand(Integer.parseInt(args[6]), args[7]);
     }
 }
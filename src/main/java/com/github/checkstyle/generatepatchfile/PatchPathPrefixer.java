@@ -0,0 +1,188 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+
+package com.github.checkstyle.generatepatchfile;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Moves the paths of a patch formatted by jgit under a directory, as if the patch was
+ * formatted with the directory appended to the {@code a/} and {@code b/} prefixes.
+ * Only the lines of the file headers that carry these prefixes are rewritten, hunks
+ * are copied unchanged, so a patch is formatted once and can still be tested as part
+ * of a batch.
+ */
+final class PatchPathPrefixer {
+
+    /** Start of the first line of the header of a file. */
+    private static final byte[] DIFF_LINE = ascii("diff --git ");
+
+    /** Start of the line of the old path. */
+    private static final byte[] OLD_PATH_LINE = ascii("--- ");
+
+    /** Start of the line of the new path. */
+    private static final byte[] NEW_PATH_LINE = ascii("+++ ");
+
+    /** Start of the first line of a hunk, which ends the header of a file. */
+    private static final byte[] HUNK_LINE = ascii("@@");
+
+    /** New path of the first line of the header of a file. */
+    private static final byte[] NEW_PATH = ascii(" b/");
+
+    /** Quoted new path of the first line of the header of a file. */
+    private static final byte[] QUOTED_NEW_PATH = ascii(" \"b/");
+
+    /** Length of the {@code a/} and {@code b/} prefixes. */
+    private static final int PREFIX_LENGTH = 2;
+
+    /** Prevents instantiation. */
+    private PatchPathPrefixer() {
+    }
+
+    /**
+     * Moves the paths of a patch under a directory.
+     *
+     * @param patch patch formatted with the {@code a/} and {@code b/} prefixes
+     * @param directory directory, ending with a slash
+     * @return patch whose paths start with the directory
+     */
+    static byte[] addPathPrefix(byte[] patch, String directory) {
+        final byte[] prefix = directory.getBytes(StandardCharsets.UTF_8);
+        final ByteArrayOutputStream result = new ByteArrayOutputStream(patch.length);
+        boolean fileHeader = false;
+        int start = 0;
+        while (start < patch.length) {
+            final int end = getLineEnd(patch, start);
+            if (startsWith(patch, start, DIFF_LINE)) {
+                fileHeader = true;
+                final int oldPath = getPathStart(patch, start + DIFF_LINE.length);
+                final int newPath = getPathStart(patch, Math.max(
+                        lastIndexOf(patch, start, end, NEW_PATH),
+                        lastIndexOf(patch, start, end, QUOTED_NEW_PATH)) + 1);
+                result.write(patch, start, oldPath - start);
+                result.writeBytes(prefix);
+                result.write(patch, oldPath, newPath - oldPath);
+                result.writeBytes(prefix);
+                result.write(patch, newPath, end - newPath);
+            }
+            else if (fileHeader && (startsWith(patch, start, OLD_PATH_LINE)
+                    || startsWith(patch, start, NEW_PATH_LINE))) {
+                final int path = getPathStart(patch, start + OLD_PATH_LINE.length);
+                result.write(patch, start, path - start);
+                if (path - start > OLD_PATH_LINE.length) {
+                    result.writeBytes(prefix);
+                }
+                result.write(patch, path, end - path);
+            }
+            else {
+                fileHeader &= !startsWith(patch, start, HUNK_LINE);
+                result.write(patch, start, end - start);
+            }
+            start = end;
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     * Returns the position after the {@code a/} or {@code b/} prefix of a path, or
+     * the position of the path if it has no prefix, like {@code /dev/null}.
+     *
+     * @param patch patch
+     * @param position position of the path, which may be quoted
+     * @return position after the prefix
+     */
+    private static int getPathStart(byte[] patch, int position) {
+        int result = position;
+        if (result < patch.length && patch[result] == '"') {
+            result++;
+        }
+        if (result + 1 < patch.length && (patch[result] == 'a' || patch[result] == 'b')
+                && patch[result + 1] == '/') {
+            result += PREFIX_LENGTH;
+        }
+        else {
+            result = position;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the end of a line, after its line feed.
+     *
+     * @param patch patch
+     * @param start start of the line
+     * @return end of the line
+     */
+    private static int getLineEnd(byte[] patch, int start) {
+        int end = start;
+        while (end < patch.length && patch[end] != '\n') {
+            end++;
+        }
+        return Math.min(end + 1, patch.length);
+    }
+
+    /**
+     * Checks whether the bytes at a position start with a pattern.
+     *
+     * @param patch patch
+     * @param position position
+     * @param pattern pattern
+     * @return true if the bytes start with the pattern
+     */
+    private static boolean startsWith(byte[] patch, int position, byte[] pattern) {
+        boolean result = position + pattern.length <= patch.length;
+        for (int index = 0; result && index < pattern.length; index++) {
+            result = patch[position + index] == pattern[index];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the last position of a pattern in a line.
+     *
+     * @param patch patch
+     * @param start start of the line
+     * @param end end of the line
+     * @param pattern pattern
+     * @return last position of the pattern, or -1
+     */
+    private static int lastIndexOf(byte[] patch, int start, int end, byte[] pattern) {
+        int result = end - pattern.length;
+        while (result >= start && !startsWith(patch, result, pattern)) {
+            result--;
+        }
+        if (result < start) {
+            result = -1;
+        }
+        return result;
+    }
+
+    /**
+     * Encodes an ASCII string.
+     *
+     * @param text string
+     * @return bytes of the string
+     */
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+}
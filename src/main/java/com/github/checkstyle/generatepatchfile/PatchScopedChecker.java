@@ -0,0 +1,269 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.github.checkstyle.generatepatchfile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.patch.FileHeader;
+
+import com.puppycrawl.tools.checkstyle.AbstractAutomaticBean;
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.XMLLogger;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.filters.FilePatchSource;
+import com.puppycrawl.tools.checkstyle.filters.LoadPatchFileUtils;
+import com.puppycrawl.tools.checkstyle.filters.SuppressionJavaPatchFilter;
+import com.puppycrawl.tools.checkstyle.filters.SuppressionPatchFilter;
+
+/**
+ * Audits only the files touched by a patch, in parallel. The touched files are
+ * partitioned across a pool of {@code Checker} instances, one per thread, that all
+ * share one {@link SuppressionPatchFilter} and one {@link SuppressionJavaPatchFilter},
+ * which is attached to every {@code TreeWalker} of the configuration, so each
+ * compiled patch index is built once. Patch filters of the configuration are
+ * replaced by the shared ones, built with their configured properties. Results are
+ * merged into a single XML report ordered by file name, so the report does not depend
+ * on the number of threads or on scheduling.
+ *
+ * <p>Checks that correlate several files, like {@code UniqueProperties} across
+ * bundles or {@code Translation}, only see the files of their own partition.</p>
+ */
+public class PatchScopedChecker {
+
+    /** Path of the Checkstyle configuration. */
+    private final String configFile;
+
+    /** Patch file that defines the files to audit. */
+    private final File patchFile;
+
+    /** Directory the paths of the patch are relative to. */
+    private final File baseDir;
+
+    /** Number of Checkers that run in parallel. */
+    private final int threadCount;
+
+    /** Strategy of the shared patch filter. */
+    private final String strategy;
+
+    /**
+     * Creates a patch-scoped checker.
+     *
+     * @param configFile  path of the Checkstyle configuration.
+     * @param patchFile   patch file that defines the files to audit.
+     * @param baseDir     directory the paths of the patch are relative to.
+     * @param threadCount number of Checkers that run in parallel.
+     * @param strategy    strategy of the shared patch filter.
+     */
+    public PatchScopedChecker(String configFile, File patchFile, File baseDir,
+                              int threadCount, String strategy) {
+        this.configFile = configFile;
+        this.patchFile = patchFile;
+        this.baseDir = baseDir;
+        this.threadCount = threadCount;
+        this.strategy = strategy;
+    }
+
+    /**
+     * Audits the files touched by the patch and writes the merged XML report.
+     *
+     * @param report stream the XML report is written to, it is not closed.
+     * @return number of violations in the report.
+     * @throws CheckstyleException if the patch, the configuration or an audit fails.
+     */
+    public int check(OutputStream report) throws CheckstyleException {
+        final List<List<File>> partitions = partition(getTouchedFiles());
+        final Map<String, List<AuditEventCollector.Entry>> entries = new TreeMap<>();
+        if (!partitions.isEmpty()) {
+            final ExecutorService executor = Executors.newFixedThreadPool(partitions.size());
+            try (SharedPatchFilters sharedFilters =
+                         SharedPatchFilters.load(configFile, patchFile, strategy)) {
+                final List<Future<AuditEventCollector>> results = new ArrayList<>();
+                for (List<File> partition : partitions) {
+                    results.add(executor.submit(() -> audit(sharedFilters, partition)));
+                }
+                for (Future<AuditEventCollector> result : results) {
+                    entries.putAll(getResult(result).getEntries());
+                }
+            }
+            catch (IOException exception) {
+                throw new CheckstyleException("failed to close the patch filters", exception);
+            }
+            finally {
+                executor.shutdownNow();
+            }
+        }
+        return writeReport(entries, report);
+    }
+
+    /**
+     * Collects the existing files that the patch adds or modifies.
+     *
+     * @return touched files ordered by path.
+     * @throws CheckstyleException if the patch cannot be read.
+     */
+    private SortedSet<File> getTouchedFiles() throws CheckstyleException {
+        final SortedSet<File> files = new TreeSet<>();
+        try {
+            for (FileHeader fileHeader : LoadPatchFileUtils.loadFileHeaders(
+                    new FilePatchSource(patchFile.getPath()))) {
+                if (fileHeader.getChangeType() != DiffEntry.ChangeType.DELETE) {
+                    final File file = baseDir.toPath().resolve(fileHeader.getNewPath())
+                            .toAbsolutePath().normalize().toFile();
+                    if (file.isFile()) {
+                        files.add(file);
+                    }
+                }
+            }
+        }
+        // -@cs[IllegalCatch] jgit reports malformed patches with runtime exceptions.
+        catch (Exception exception) {
+            throw new CheckstyleException("an error occurred when loading patch file "
+                    + patchFile, exception);
+        }
+        return files;
+    }
+
+    /**
+     * Splits files into at most {@code threadCount} partitions of similar total size,
+     * assigning the largest files first to the partition with the least bytes.
+     *
+     * @param files files to split.
+     * @return non-empty partitions.
+     */
+    private List<List<File>> partition(SortedSet<File> files) {
+        final int partitionCount = Math.max(1, Math.min(threadCount, files.size()));
+        final List<List<File>> partitions = new ArrayList<>(partitionCount);
+        final long[] sizes = new long[partitionCount];
+        for (int index = 0; index < partitionCount; index++) {
+            partitions.add(new ArrayList<>());
+        }
+        final List<File> bySize = new ArrayList<>(files);
+        bySize.sort(Comparator.comparingLong(File::length).reversed());
+        for (File file : bySize) {
+            int smallest = 0;
+            for (int index = 1; index < partitionCount; index++) {
+                if (sizes[index] < sizes[smallest]) {
+                    smallest = index;
+                }
+            }
+            partitions.get(smallest).add(file);
+            sizes[smallest] += file.length();
+        }
+        partitions.removeIf(List::isEmpty);
+        for (List<File> partition : partitions) {
+            Collections.sort(partition);
+        }
+        return partitions;
+    }
+
+    /**
+     * Audits one partition with its own Checker.
+     *
+     * @param sharedFilters configuration and its shared patch filters.
+     * @param files         files of the partition.
+     * @return collected violations of the partition.
+     * @throws CheckstyleException if the audit fails.
+     */
+    private static AuditEventCollector audit(SharedPatchFilters sharedFilters,
+            List<File> files) throws CheckstyleException {
+        final AuditEventCollector collector = new AuditEventCollector();
+        final Checker checker = new Checker();
+        try {
+            final ClassLoader classLoader = Checker.class.getClassLoader();
+            checker.setModuleClassLoader(classLoader);
+            checker.setModuleFactory(sharedFilters.createModuleFactory(classLoader));
+            checker.configure(sharedFilters.getConfiguration());
+            checker.addListener(collector);
+            checker.process(files);
+        }
+        finally {
+            checker.destroy();
+        }
+        return collector;
+    }
+
+    /**
+     * Waits for the result of a partition.
+     *
+     * @param result pending result.
+     * @return collected violations of the partition.
+     * @throws CheckstyleException if the audit failed or the wait was interrupted.
+     */
+    private static AuditEventCollector getResult(Future<AuditEventCollector> result)
+            throws CheckstyleException {
+        try {
+            return result.get();
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new CheckstyleException("patch-scoped audit was interrupted", exception);
+        }
+        catch (ExecutionException exception) {
+            final Throwable cause = exception.getCause();
+            if (cause instanceof CheckstyleException) {
+                throw (CheckstyleException) cause;
+            }
+            throw new CheckstyleException("patch-scoped audit failed", cause);
+        }
+    }
+
+    /**
+     * Replays merged entries into an XML report.
+     *
+     * @param entries entries by file name, ordered by file name.
+     * @param report  stream the report is written to.
+     * @return number of violations in the report.
+     */
+    private int writeReport(Map<String, List<AuditEventCollector.Entry>> entries,
+                            OutputStream report) {
+        final XMLLogger logger =
+                new XMLLogger(report, AbstractAutomaticBean.OutputStreamOptions.NONE);
+        int violationCount = 0;
+        logger.auditStarted(new AuditEvent(this));
+        for (Map.Entry<String, List<AuditEventCollector.Entry>> file : entries.entrySet()) {
+            logger.fileStarted(new AuditEvent(this, file.getKey()));
+            for (AuditEventCollector.Entry entry : file.getValue()) {
+                entry.replay(logger);
+                if (!entry.isException()) {
+                    violationCount++;
+                }
+            }
+            logger.fileFinished(new AuditEvent(this, file.getKey()));
+        }
+        logger.auditFinished(new AuditEvent(this));
+        return violationCount;
+    }
+}
@@ -0,0 +1,62 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.github.checkstyle.generatepatchfile;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+/**
+ * PatchScopedCheckerLauncher.
+ */
+public final class PatchScopedCheckerLauncher {
+
+    private PatchScopedCheckerLauncher() {
+
+    }
+
+    /**
+     * Main function. Arguments are the Checkstyle configuration, the patch file,
+     * the directory the patch paths are relative to, the XML report file and
+     * optionally the number of threads and the patch filter strategy.
+     *
+     * @param args parameters
+     * @throws Exception exception
+     */
+    public static void main(String[] args) throws Exception {
+        final String configFile = args[0];
+        final File patchFile = new File(args[1]);
+        final File baseDir = new File(args[2]);
+        final File reportFile = new File(args[3]);
+        int threadCount = Runtime.getRuntime().availableProcessors();
+        if (args.length > 4) {
+            threadCount = Integer.parseInt(args[4]);
+        }
+        String strategy = "newline";
+        if (args.length > 5) {
+            strategy = args[5];
+        }
+        final PatchScopedChecker checker =
+                new PatchScopedChecker(configFile, patchFile, baseDir, threadCount, strategy);
+        try (OutputStream report = Files.newOutputStream(reportFile.toPath())) {
+            checker.check(report);
+        }
+    }
+}
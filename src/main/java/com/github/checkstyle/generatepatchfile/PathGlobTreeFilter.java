@@ -0,0 +1,66 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.github.checkstyle.generatepatchfile;
+
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import com.puppycrawl.tools.checkstyle.filters.PatchPathFilter;
+
+/**
+ * Tree filter that includes the files whose paths match the include and exclude globs
+ * of a {@link PatchPathFilter}. Subtrees are always entered, so the filter has to be
+ * used by recursive walks, and files are matched by their path in the repository.
+ */
+final class PathGlobTreeFilter extends TreeFilter {
+
+    /** Globs of the included and excluded paths. */
+    private final PatchPathFilter pathFilter;
+
+    /**
+     * Creates a tree filter.
+     *
+     * @param pathFilter globs of the included and excluded paths
+     */
+    PathGlobTreeFilter(PatchPathFilter pathFilter) {
+        this.pathFilter = pathFilter;
+    }
+
+    @Override
+    public boolean include(TreeWalk walker) {
+        return walker.isSubtree() || pathFilter.isIncluded(walker.getPathString());
+    }
+
+    @Override
+    public boolean shouldBeRecursive() {
+        return true;
+    }
+
+    // TreeFilter requires clone, and the filter has no state to copy
+    @Override
+    public TreeFilter clone() {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "PATH_GLOB";
+    }
+}
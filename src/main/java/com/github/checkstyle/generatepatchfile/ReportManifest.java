@@ -0,0 +1,155 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.github.checkstyle.generatepatchfile;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Manifest of the completed reports of the diff report dir, kept in its hidden file
+ * {@code .manifest.properties}. A report is recorded by the name of its directory
+ * with the inputs it was generated from, such as the commits and the hashes of the
+ * config files, so that a rerun skips the reports whose inputs did not change.
+ */
+final class ReportManifest {
+
+    /** Name of the manifest file in the diff report dir. */
+    static final String FILE_NAME = ".manifest.properties";
+
+    /** Diff report dir. */
+    private final Path diffReportDir;
+
+    /** Inputs of the completed reports, keyed by directory name and input name. */
+    private final Properties properties = new Properties();
+
+    /**
+     * Creates an empty manifest of the diff report dir.
+     *
+     * @param diffReportDir diff report dir
+     */
+    ReportManifest(Path diffReportDir) {
+        this.diffReportDir = diffReportDir;
+    }
+
+    /**
+     * Reads the manifest file, if it exists.
+     *
+     * @throws IOException IO exception
+     */
+    synchronized void load() throws IOException {
+        properties.clear();
+        final Path manifestFile = diffReportDir.resolve(FILE_NAME);
+        if (Files.exists(manifestFile)) {
+            try (Reader reader = Files.newBufferedReader(manifestFile, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the report of a directory was completed from the given inputs
+     * and its directory still exists.
+     *
+     * @param dirName name of the report directory
+     * @param inputs inputs of the report
+     * @return true if the report is up to date
+     */
+    synchronized boolean isComplete(String dirName, Map<String, String> inputs) {
+        boolean complete = Files.isDirectory(diffReportDir.resolve(dirName));
+        for (Map.Entry<String, String> input : inputs.entrySet()) {
+            complete &= input.getValue().equals(
+                    properties.getProperty(getKey(dirName, input.getKey())));
+        }
+        return complete;
+    }
+
+    /**
+     * Records that the report of a directory was completed from the given inputs.
+     *
+     * @param dirName name of the report directory
+     * @param inputs inputs of the report
+     * @throws IOException IO exception
+     */
+    synchronized void markComplete(String dirName, Map<String, String> inputs)
+            throws IOException {
+        removeEntry(dirName);
+        for (Map.Entry<String, String> input : inputs.entrySet()) {
+            properties.setProperty(getKey(dirName, input.getKey()), input.getValue());
+        }
+        save();
+    }
+
+    /**
+     * Forgets the report of a directory, before it is generated again.
+     *
+     * @param dirName name of the report directory
+     * @throws IOException IO exception
+     */
+    synchronized void markIncomplete(String dirName) throws IOException {
+        if (removeEntry(dirName)) {
+            save();
+        }
+    }
+
+    /**
+     * Removes the inputs of a report directory.
+     *
+     * @param dirName name of the report directory
+     * @return true if any input was removed
+     */
+    private boolean removeEntry(String dirName) {
+        final String prefix = getKey(dirName, "");
+        return properties.keySet().removeIf(key -> ((String) key).startsWith(prefix));
+    }
+
+    /**
+     * Writes the manifest file. The new content replaces the file by a rename, so an
+     * interrupted run never leaves a truncated manifest behind.
+     *
+     * @throws IOException IO exception
+     */
+    private void save() throws IOException {
+        Files.createDirectories(diffReportDir);
+        final Path tempFile = Files.createTempFile(diffReportDir, FILE_NAME, ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            properties.store(writer, "completed reports");
+        }
+        Files.move(tempFile, diffReportDir.resolve(FILE_NAME),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns the key of an input of a report directory.
+     *
+     * @param dirName name of the report directory
+     * @param inputName name of the input
+     * @return key of the input
+     */
+    private static String getKey(String dirName, String inputName) {
+        return dirName + "." + inputName;
+    }
+}
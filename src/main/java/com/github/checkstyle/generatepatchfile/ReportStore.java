@@ -0,0 +1,138 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.github.checkstyle.generatepatchfile;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Content-addressed store of report files. Every distinct file content is kept once
+ * as a blob named by its SHA-256 hash in a hidden directory of the diff report dir,
+ * and the report dir of a commit is made of hard links to the blobs. Files that can
+ * not be linked, for example across file systems, are copied.
+ */
+final class ReportStore {
+
+    /** Name of the hidden directory of blobs in the diff report dir. */
+    static final String OBJECTS_DIR = ".objects";
+
+    /** Number of hash characters of the directory a blob is put in. */
+    private static final int FAN_OUT_LENGTH = 2;
+
+    /** Directory of blobs. */
+    private final Path objectsDir;
+
+    /** Whether creating a hard link failed once, after which files are copied. */
+    private volatile boolean linkFailed;
+
+    /**
+     * Creates a store in the diff report dir.
+     *
+     * @param diffReportDir diff report dir
+     */
+    ReportStore(Path diffReportDir) {
+        objectsDir = diffReportDir.resolve(OBJECTS_DIR);
+    }
+
+    /**
+     * Stores the files of a report and recreates the report in dest dir from the blobs.
+     * The report dir is left untouched. Reports can be stored by several threads
+     * at the same time.
+     *
+     * @param reportDir report dir
+     * @param destDir dest dir
+     * @throws IOException IO exception
+     */
+    void store(Path reportDir, Path destDir) throws IOException {
+        Files.walkFileTree(reportDir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+                    throws IOException {
+                Files.createDirectories(destDir.resolve(reportDir.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+                    throws IOException {
+                final Path target = destDir.resolve(reportDir.relativize(file).toString());
+                if (attrs.isRegularFile()) {
+                    link(storeBlob(file), target);
+                }
+                else {
+                    Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING,
+                            LinkOption.NOFOLLOW_LINKS);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Stores a file as a blob, unless a blob with the same content exists.
+     *
+     * @param file file
+     * @return blob of the file content
+     * @throws IOException IO exception
+     */
+    private Path storeBlob(Path file) throws IOException {
+        final String hash = Utils.sha256(file);
+        final Path blob = objectsDir.resolve(hash.substring(0, FAN_OUT_LENGTH))
+                .resolve(hash.substring(FAN_OUT_LENGTH));
+        if (Files.notExists(blob)) {
+            Files.createDirectories(blob.getParent());
+            // blobs appear complete, even to reports stored at the same time
+            final Path temp = Files.createTempFile(blob.getParent(), "blob", ".tmp");
+            Files.copy(file, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return blob;
+    }
+
+    /**
+     * Creates a hard link to a blob, or a copy of it if linking is not possible.
+     *
+     * @param blob blob
+     * @param target file to create
+     * @throws IOException IO exception
+     */
+    private void link(Path blob, Path target) throws IOException {
+        Files.deleteIfExists(target);
+        boolean linked = false;
+        if (!linkFailed) {
+            try {
+                Files.createLink(target, blob);
+                linked = true;
+            }
+            catch (IOException | UnsupportedOperationException ex) {
+                linkFailed = true;
+            }
+        }
+        if (!linked) {
+            Files.copy(blob, target);
+        }
+    }
+}
@@ -0,0 +1,314 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.github.checkstyle.generatepatchfile;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import com.puppycrawl.tools.checkstyle.AbstractAutomaticBean;
+import com.puppycrawl.tools.checkstyle.ConfigurationLoader;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.ModuleFactory;
+import com.puppycrawl.tools.checkstyle.PackageNamesLoader;
+import com.puppycrawl.tools.checkstyle.PackageObjectFactory;
+import com.puppycrawl.tools.checkstyle.PropertiesExpander;
+import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
+import com.puppycrawl.tools.checkstyle.TreeWalkerFilter;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.Filter;
+import com.puppycrawl.tools.checkstyle.filters.SuppressionJavaPatchFilter;
+import com.puppycrawl.tools.checkstyle.filters.SuppressionPatchFilter;
+
+/**
+ * One {@link SuppressionPatchFilter} and one {@link SuppressionJavaPatchFilter} that
+ * several Checkers share. {@link #load(String, File, String)} takes the patch filters
+ * out of a configuration, builds each once with its configured properties, and
+ * replaces them with placeholders that the module factories of
+ * {@link #createModuleFactory(ClassLoader)} resolve to the shared filters. A
+ * configuration without these filters gets them with the default properties, the
+ * {@code SuppressionJavaPatchFilter} in every {@code TreeWalker}.
+ */
+final class SharedPatchFilters implements Closeable {
+
+    /** Name of the {@code TreeWalker} module in configurations. */
+    private static final String TREE_WALKER = "TreeWalker";
+
+    /** Name of the file property of the patch filters. */
+    private static final String FILE_PROPERTY = "file";
+
+    /** Name of the strategy property of the patch filters. */
+    private static final String STRATEGY_PROPERTY = "strategy";
+
+    /** Module name that the factory resolves to the shared patch filter. */
+    private static final String SHARED_FILTER =
+            SharedPatchFilters.class.getName() + ".SharedPatchFilter";
+
+    /** Module name that the factory resolves to the shared Java patch filter. */
+    private static final String SHARED_JAVA_FILTER =
+            SharedPatchFilters.class.getName() + ".SharedJavaPatchFilter";
+
+    /** Configuration with the placeholders of the shared filters. */
+    private final Configuration configuration;
+
+    /** Shared patch filter. */
+    private final SuppressionPatchFilter patchFilter;
+
+    /** Shared Java patch filter. */
+    private final SuppressionJavaPatchFilter javaPatchFilter;
+
+    /**
+     * Creates shared filters.
+     *
+     * @param configuration   configuration with the placeholders of the shared filters.
+     * @param patchFilter     shared patch filter.
+     * @param javaPatchFilter shared Java patch filter.
+     */
+    private SharedPatchFilters(Configuration configuration, SuppressionPatchFilter patchFilter,
+                               SuppressionJavaPatchFilter javaPatchFilter) {
+        this.configuration = configuration;
+        this.patchFilter = patchFilter;
+        this.javaPatchFilter = javaPatchFilter;
+    }
+
+    /**
+     * Loads a configuration, expanding system properties, and builds its patch filters
+     * once. The properties of the first configured filter of each kind are kept, its
+     * file is always the patch of the audit, and its strategy is the given one unless
+     * the filter sets it.
+     *
+     * @param configFile path of the Checkstyle configuration.
+     * @param patchFile  patch of the audit.
+     * @param strategy   strategy of filters that do not set one.
+     * @return shared filters of the configuration.
+     * @throws CheckstyleException if the configuration or the patch cannot be loaded.
+     */
+    static SharedPatchFilters load(String configFile, File patchFile, String strategy)
+            throws CheckstyleException {
+        final Configuration loaded = ConfigurationLoader.loadConfiguration(
+                configFile, new PropertiesExpander(System.getProperties()));
+        final Configuration[] filterConfigurations = new Configuration[2];
+        final DefaultConfiguration configuration =
+                replaceFilters(loaded, filterConfigurations);
+        if (filterConfigurations[0] == null) {
+            configuration.addChild(new DefaultConfiguration(SHARED_FILTER));
+        }
+        final SuppressionPatchFilter patchFilter = new SuppressionPatchFilter();
+        patchFilter.configure(createFilterConfiguration(filterConfigurations[0],
+                SuppressionPatchFilter.class, patchFile, strategy));
+        final SuppressionJavaPatchFilter javaPatchFilter = new SuppressionJavaPatchFilter();
+        javaPatchFilter.configure(createFilterConfiguration(filterConfigurations[1],
+                SuppressionJavaPatchFilter.class, patchFile, strategy));
+        return new SharedPatchFilters(configuration, patchFilter, javaPatchFilter);
+    }
+
+    /**
+     * Returns the configuration with the placeholders of the shared filters.
+     *
+     * @return configuration.
+     */
+    Configuration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Creates the module factory of one Checker, which resolves the placeholders to
+     * the shared filters and creates all other modules with Checkstyle's factory.
+     *
+     * @param classLoader class loader of the modules.
+     * @return module factory.
+     * @throws CheckstyleException if the package names of the modules cannot be loaded.
+     */
+    ModuleFactory createModuleFactory(ClassLoader classLoader) throws CheckstyleException {
+        final ModuleFactory delegate = new PackageObjectFactory(
+                PackageNamesLoader.getPackageNames(classLoader), classLoader);
+        final Filter sharedFilter = new SharedPatchFilter(patchFilter);
+        final TreeWalkerFilter sharedJavaFilter = new SharedJavaPatchFilter(javaPatchFilter);
+        return name -> {
+            final Object result;
+            if (SHARED_FILTER.equals(name)) {
+                result = sharedFilter;
+            }
+            else if (SHARED_JAVA_FILTER.equals(name)) {
+                result = sharedJavaFilter;
+            }
+            else {
+                result = delegate.createModule(name);
+            }
+            return result;
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        patchFilter.close();
+        javaPatchFilter.close();
+    }
+
+    /**
+     * Copies a configuration, replacing its patch filters with placeholders and adding
+     * a placeholder of the Java patch filter to every {@code TreeWalker} that has none.
+     *
+     * @param configuration        loaded configuration.
+     * @param filterConfigurations receives the first configuration of the patch filter
+     *                             and of the Java patch filter.
+     * @return copy of the configuration.
+     * @throws CheckstyleException if a property of the configuration cannot be read.
+     */
+    private static DefaultConfiguration replaceFilters(Configuration configuration,
+            Configuration[] filterConfigurations) throws CheckstyleException {
+        final DefaultConfiguration copy = new DefaultConfiguration(configuration.getName());
+        for (String propertyName : configuration.getPropertyNames()) {
+            copy.addProperty(propertyName, configuration.getProperty(propertyName));
+        }
+        for (Map.Entry<String, String> message : configuration.getMessages().entrySet()) {
+            copy.addMessage(message.getKey(), message.getValue());
+        }
+        boolean hasJavaFilter = false;
+        for (Configuration child : configuration.getChildren()) {
+            if (isModule(child, SuppressionPatchFilter.class)) {
+                copy.addChild(new DefaultConfiguration(SHARED_FILTER));
+                setFirst(filterConfigurations, 0, child);
+            }
+            else if (isModule(child, SuppressionJavaPatchFilter.class)) {
+                if (!hasJavaFilter) {
+                    copy.addChild(new DefaultConfiguration(SHARED_JAVA_FILTER));
+                }
+                hasJavaFilter = true;
+                setFirst(filterConfigurations, 1, child);
+            }
+            else {
+                copy.addChild(replaceFilters(child, filterConfigurations));
+            }
+        }
+        if (TREE_WALKER.equals(configuration.getName()) && !hasJavaFilter) {
+            copy.addChild(new DefaultConfiguration(SHARED_JAVA_FILTER));
+        }
+        return copy;
+    }
+
+    /**
+     * Keeps the first configuration found of a filter.
+     *
+     * @param filterConfigurations configurations of the filters.
+     * @param index                index of the filter.
+     * @param filterConfiguration  configuration found.
+     */
+    private static void setFirst(Configuration[] filterConfigurations, int index,
+                                 Configuration filterConfiguration) {
+        if (filterConfigurations[index] == null) {
+            filterConfigurations[index] = filterConfiguration;
+        }
+    }
+
+    /**
+     * Checks whether a configuration is of a module, by simple or full class name.
+     *
+     * @param configuration configuration.
+     * @param moduleClass   class of the module.
+     * @return true if the configuration is of the module.
+     */
+    private static boolean isModule(Configuration configuration, Class<?> moduleClass) {
+        final String name = configuration.getName();
+        return moduleClass.getSimpleName().equals(name) || moduleClass.getName().equals(name);
+    }
+
+    /**
+     * Creates the configuration a shared filter is built from.
+     *
+     * @param filterConfiguration configured filter, or null.
+     * @param filterClass         class of the filter.
+     * @param patchFile           patch of the audit.
+     * @param strategy            strategy if the filter does not set one.
+     * @return configuration of the shared filter.
+     * @throws CheckstyleException if a property of the configuration cannot be read.
+     */
+    private static Configuration createFilterConfiguration(Configuration filterConfiguration,
+            Class<? extends AbstractAutomaticBean> filterClass, File patchFile,
+            String strategy) throws CheckstyleException {
+        final DefaultConfiguration result = new DefaultConfiguration(filterClass.getName());
+        boolean hasStrategy = false;
+        if (filterConfiguration != null) {
+            for (String propertyName : filterConfiguration.getPropertyNames()) {
+                if (!FILE_PROPERTY.equals(propertyName)) {
+                    result.addProperty(propertyName,
+                            filterConfiguration.getProperty(propertyName));
+                    hasStrategy |= STRATEGY_PROPERTY.equals(propertyName);
+                }
+            }
+        }
+        result.addProperty(FILE_PROPERTY, patchFile.getPath());
+        if (!hasStrategy) {
+            result.addProperty(STRATEGY_PROPERTY, strategy);
+        }
+        return result;
+    }
+
+    /**
+     * Forwards to the shared patch filter. It is not a configurable module, so a
+     * {@code Checker} adds it without configuring, and so reloading, the filter.
+     */
+    private static final class SharedPatchFilter implements Filter {
+
+        /** Shared patch filter. */
+        private final SuppressionPatchFilter patchFilter;
+
+        /**
+         * Creates a forwarding filter.
+         *
+         * @param patchFilter shared patch filter.
+         */
+        private SharedPatchFilter(SuppressionPatchFilter patchFilter) {
+            this.patchFilter = patchFilter;
+        }
+
+        @Override
+        public boolean accept(AuditEvent event) {
+            return patchFilter.accept(event);
+        }
+    }
+
+    /**
+     * Forwards to the shared Java patch filter. It is not a configurable module, so
+     * a {@code TreeWalker} adds it without configuring, and so reloading, the filter.
+     */
+    private static final class SharedJavaPatchFilter implements TreeWalkerFilter {
+
+        /** Shared Java patch filter. */
+        private final SuppressionJavaPatchFilter javaPatchFilter;
+
+        /**
+         * Creates a forwarding filter.
+         *
+         * @param javaPatchFilter shared Java patch filter.
+         */
+        private SharedJavaPatchFilter(SuppressionJavaPatchFilter javaPatchFilter) {
+            this.javaPatchFilter = javaPatchFilter;
+        }
+
+        @Override
+        public boolean accept(TreeWalkerAuditEvent treeWalkerAuditEvent) {
+            return javaPatchFilter.accept(treeWalkerAuditEvent);
+        }
+    }
+}
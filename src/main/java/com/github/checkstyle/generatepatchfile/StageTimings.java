@@ -0,0 +1,267 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.github.checkstyle.generatepatchfile;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time spent in each stage of a run of {@link GeneratePatchFile}, per commit. Stages
+ * can be recorded by several threads at the same time.
+ */
+final class StageTimings {
+
+    /** Name of the timings file in the diff report dir. */
+    static final String FILE_NAME = "timings.csv";
+
+    /** Header of the timings file. */
+    private static final String CSV_HEADER = "commit,stage,start_ms,duration_ms";
+
+    /** Nanoseconds of a second. */
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /** Seconds of a minute. */
+    private static final long SECONDS_PER_MINUTE = TimeUnit.MINUTES.toSeconds(1);
+
+    /** Time the run started at, in nanoseconds. */
+    private final long runStart = System.nanoTime();
+
+    /** Recorded timings. */
+    private final List<Timing> timings = new ArrayList<>();
+
+    /**
+     * Stage of the report of a commit.
+     */
+    enum Stage {
+
+        /** Formatting the patch of a commit. */
+        DIFF,
+
+        /** Checking out or exporting the sources of a commit. */
+        CHECKOUT,
+
+        /** Running checkstyle-tester. */
+        TESTER,
+
+        /** Transferring the report into the diff report dir. */
+        COPY,
+
+        /** Moving the patch next to the report. */
+        RENAME,
+
+        /** Generating the summary index page. */
+        INDEX;
+
+        /**
+         * Returns the name of the stage in reports.
+         *
+         * @return lower case name
+         */
+        String getName() {
+            return name().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    /**
+     * Records a stage that started at a time and ends now.
+     *
+     * @param commit report directory of the commit, or an empty string for the whole run
+     * @param stage stage
+     * @param startNanos start of the stage, from {@link System#nanoTime()}
+     */
+    void record(String commit, Stage stage, long startNanos) {
+        recordShared(List.of(commit), stage, startNanos);
+    }
+
+    /**
+     * Records a stage that several commits shared, like the tester run of a batch,
+     * that started at a time and ends now. Each commit is recorded with an even share
+     * of the time, so the totals of the stage stay the time actually spent.
+     *
+     * @param commits report directories of the commits
+     * @param stage stage
+     * @param startNanos start of the stage, from {@link System#nanoTime()}
+     */
+    void recordShared(List<String> commits, Stage stage, long startNanos) {
+        final long shareNanos = (System.nanoTime() - startNanos) / commits.size();
+        synchronized (timings) {
+            for (String commit : commits) {
+                timings.add(new Timing(commit, stage, startNanos - runStart, shareNanos));
+            }
+        }
+    }
+
+    /**
+     * Writes the timings as CSV, one row per commit and stage, ordered by start.
+     *
+     * @param file timings file
+     * @throws IOException IO exception
+     */
+    void writeCsv(Path file) throws IOException {
+        final List<Timing> sortedTimings = getTimings();
+        sortedTimings.sort(Comparator.comparingLong(timing -> timing.startNanos));
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            for (Timing timing : sortedTimings) {
+                writer.write(String.format(Locale.ENGLISH, "%s,%s,%d,%d%n", timing.commit,
+                        timing.stage.getName(), toMillis(timing.startNanos),
+                        toMillis(timing.durationNanos)));
+            }
+        }
+    }
+
+    /**
+     * Writes a summary of the timings recorded so far as an HTML table: the number of
+     * records, total, mean and maximum time of each stage, the wall time of the run
+     * and the number of reports per minute.
+     *
+     * @param out writer of the page
+     * @throws IOException IO exception
+     */
+    void writeHtmlSummary(Writer out) throws IOException {
+        final Map<Stage, StageTotal> stageTotals = new EnumMap<>(Stage.class);
+        int reportCount = 0;
+        for (Timing timing : getTimings()) {
+            stageTotals.computeIfAbsent(timing.stage, stage -> new StageTotal())
+                    .add(timing.durationNanos);
+            if (timing.stage == Stage.RENAME) {
+                reportCount++;
+            }
+        }
+        final double wallSeconds = toSeconds(System.nanoTime() - runStart);
+        out.write("<h3>Timings</h3>\n<table border=\"1\">\n");
+        out.write("<tr><th>stage</th><th>count</th><th>total s</th><th>mean s</th>"
+                + "<th>max s</th></tr>\n");
+        for (Map.Entry<Stage, StageTotal> entry : stageTotals.entrySet()) {
+            final StageTotal total = entry.getValue();
+            out.write(String.format(Locale.ENGLISH,
+                    "<tr><td>%s</td><td>%d</td><td>%.3f</td><td>%.3f</td><td>%.3f</td></tr>%n",
+                    entry.getKey().getName(), total.count, toSeconds(total.totalNanos),
+                    toSeconds(total.totalNanos) / total.count, toSeconds(total.maxNanos)));
+        }
+        out.write("</table>\n");
+        out.write(String.format(Locale.ENGLISH,
+                "<p>%d reports in %.3f s, %.2f reports per minute, "
+                        + "<a href='%s'>timings per commit</a></p>%n",
+                reportCount, wallSeconds, reportCount * SECONDS_PER_MINUTE / wallSeconds,
+                FILE_NAME));
+    }
+
+    /**
+     * Returns a copy of the recorded timings.
+     *
+     * @return timings
+     */
+    private List<Timing> getTimings() {
+        synchronized (timings) {
+            return new ArrayList<>(timings);
+        }
+    }
+
+    /**
+     * Converts nanoseconds to milliseconds.
+     *
+     * @param nanos nanoseconds
+     * @return milliseconds
+     */
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * Converts nanoseconds to seconds.
+     *
+     * @param nanos nanoseconds
+     * @return seconds
+     */
+    private static double toSeconds(long nanos) {
+        return nanos / NANOS_PER_SECOND;
+    }
+
+    /**
+     * Time spent in one stage of one commit.
+     */
+    private static final class Timing {
+
+        /** Report directory of the commit. */
+        private final String commit;
+
+        /** Stage. */
+        private final Stage stage;
+
+        /** Start of the stage, relative to the start of the run. */
+        private final long startNanos;
+
+        /** Duration of the stage. */
+        private final long durationNanos;
+
+        /**
+         * Creates a timing.
+         *
+         * @param commit report directory of the commit
+         * @param stage stage
+         * @param startNanos start of the stage, relative to the start of the run
+         * @param durationNanos duration of the stage
+         */
+        private Timing(String commit, Stage stage, long startNanos, long durationNanos) {
+            this.commit = commit;
+            this.stage = stage;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+        }
+    }
+
+    /**
+     * Time spent in one stage over all commits.
+     */
+    private static final class StageTotal {
+
+        /** Number of records of the stage. */
+        private int count;
+
+        /** Total duration of the stage. */
+        private long totalNanos;
+
+        /** Maximum duration of one record of the stage. */
+        private long maxNanos;
+
+        /**
+         * Adds a record of the stage.
+         *
+         * @param durationNanos duration of the record
+         */
+        private void add(long durationNanos) {
+            count++;
+            totalNanos += durationNanos;
+            maxNanos = Math.max(maxNanos, durationNanos);
+        }
+    }
+}
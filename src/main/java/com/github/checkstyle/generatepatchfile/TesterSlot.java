@@ -0,0 +1,180 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.github.checkstyle.generatepatchfile;
+
+import java.nio.file.Path;
+
+/**
+ * Private workspace of one concurrent or batch tester run: a copy of checkstyle-tester,
+ * a clone of checkstyle, the exported sources of the commits under test, a list
+ * of projects pointing at them, the patch, a patch config that refers to it, the
+ * reports directory and a local Maven repository, so that the checkstyle builds
+ * that the tester installs never replace the ones of another slot. Only one run
+ * uses a slot at a time.
+ */
+final class TesterSlot {
+
+    /** Copy of checkstyle-tester. */
+    private final Path testerDir;
+
+    /** Clone of checkstyle. */
+    private final Path checkstyleDir;
+
+    /** Name of the project under test. */
+    private final String repoName;
+
+    /** Directory the sources of the commits under test are exported to. */
+    private final Path sourcesDir;
+
+    /** List of projects that points at the exported sources. */
+    private final Path projectsFile;
+
+    /** Patch of the commit under test. */
+    private final Path patchFile;
+
+    /** Patch config whose patch filters read the patch of the slot. */
+    private final Path patchConfigFile;
+
+    /** Directory the tester writes its reports to. */
+    private final Path reportDir;
+
+    /** Local Maven repository of the builds of the slot. */
+    private final Path mavenRepoDir;
+
+    /**
+     * Creates a slot in a directory.
+     *
+     * @param slotDir directory of the slot
+     * @param repoName name of the project under test
+     */
+    TesterSlot(Path slotDir, String repoName) {
+        testerDir = slotDir.resolve("tester");
+        checkstyleDir = slotDir.resolve("checkstyle");
+        this.repoName = repoName;
+        sourcesDir = slotDir.resolve("sources");
+        projectsFile = slotDir.resolve("projects-to-test-on.properties");
+        patchFile = slotDir.resolve("patch.txt");
+        patchConfigFile = slotDir.resolve("patchConfig.xml");
+        reportDir = slotDir.resolve("reports");
+        mavenRepoDir = slotDir.resolve("m2");
+    }
+
+    /**
+     * Returns the copy of checkstyle-tester.
+     *
+     * @return tester directory
+     */
+    Path getTesterDir() {
+        return testerDir;
+    }
+
+    /**
+     * Returns the clone of checkstyle.
+     *
+     * @return checkstyle directory
+     */
+    Path getCheckstyleDir() {
+        return checkstyleDir;
+    }
+
+    /**
+     * Returns the directory the sources of the commit under test are exported to.
+     *
+     * @return source directory
+     */
+    Path getSourceDir() {
+        return getSourceDir(repoName);
+    }
+
+    /**
+     * Returns the directory the sources of a project are exported to, such as a
+     * snapshot of the repository at one commit of a batch.
+     *
+     * @param projectName name of the project
+     * @return source directory
+     */
+    Path getSourceDir(String projectName) {
+        return sourcesDir.resolve(projectName);
+    }
+
+    /**
+     * Returns the directory the sources of all projects are exported to.
+     *
+     * @return sources directory
+     */
+    Path getSourcesDir() {
+        return sourcesDir;
+    }
+
+    /**
+     * Returns the name of the project under test.
+     *
+     * @return name of the project
+     */
+    String getRepoName() {
+        return repoName;
+    }
+
+    /**
+     * Returns the list of projects that points at the exported sources.
+     *
+     * @return projects file
+     */
+    Path getProjectsFile() {
+        return projectsFile;
+    }
+
+    /**
+     * Returns the patch of the commit under test.
+     *
+     * @return patch file
+     */
+    Path getPatchFile() {
+        return patchFile;
+    }
+
+    /**
+     * Returns the patch config whose patch filters read the patch of the slot.
+     *
+     * @return patch config file
+     */
+    Path getPatchConfigFile() {
+        return patchConfigFile;
+    }
+
+    /**
+     * Returns the directory the tester writes its reports to.
+     *
+     * @return report directory
+     */
+    Path getReportDir() {
+        return reportDir;
+    }
+
+    /**
+     * Returns the local Maven repository of the builds of the slot.
+     *
+     * @return local Maven repository
+     */
+    Path getMavenRepoDir() {
+        return mavenRepoDir;
+    }
+
+}
@@ -0,0 +1,376 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+
+package com.github.checkstyle.generatepatchfile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.treewalk.TreeWalk;
+
+import com.github.checkstyle.generatepatchfile.StageTimings.Stage;
+
+/**
+ * Pool of {@link TesterSlot}s that generates the reports of commit pairs in batches,
+ * with several tester runs at the same time, each in its own slot. The sources of the
+ * commits are exported from their trees, so the working tree of the repository is
+ * never checked out.
+ */
+final class TesterSlotPool {
+
+    /** Directory of the repositories cloned by checkstyle-tester. */
+    private static final String REPOSITORIES = "repositories";
+
+    /**
+     * Property that the patch filter configuration of the tester reads the location
+     * of the patch from.
+     */
+    private static final String PATCH_PROPERTY = "${checkstyle.patchfilter.patch}";
+
+    /**
+     * Index of the commit field of a project in the list of projects of checkstyle-tester.
+     */
+    private static final int PROJECT_COMMIT_FIELD = 3;
+
+    /** Directory of the diff reports of checkstyle-tester. */
+    private static final String DIFF_DIR = "diff";
+
+    /** Repository under test. */
+    private final Repository repository;
+
+    /** Tester to run in the slots. */
+    private final CheckstyleTester tester;
+
+    /** Diff report dir the reports are written to. */
+    private final DiffReportDir diffReportDir;
+
+    /** Time spent in each stage of the current run. */
+    private final StageTimings stageTimings;
+
+    /** Number of tester runs at the same time. */
+    private final int testerConcurrency;
+
+    /** Number of commits that one tester run reports on. */
+    private final int batchSize;
+
+    /**
+     * Creates a pool.
+     *
+     * @param repository repository under test
+     * @param tester tester to run in the slots
+     * @param diffReportDir diff report dir the reports are written to
+     * @param stageTimings time spent in each stage of the current run
+     * @param testerConcurrency number of tester runs at the same time
+     * @param batchSize number of commits that one tester run reports on
+     */
+    TesterSlotPool(Repository repository, CheckstyleTester tester, DiffReportDir diffReportDir,
+                   StageTimings stageTimings, int testerConcurrency, int batchSize) {
+        this.repository = repository;
+        this.tester = tester;
+        this.diffReportDir = diffReportDir;
+        this.stageTimings = stageTimings;
+        this.testerConcurrency = testerConcurrency;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Generates the reports of commit pairs. Reports are moved to their commit
+     * directories as soon as their run finishes.
+     *
+     * @param commitPairs pairs of commits to report
+     * @param patches patches of the pairs, in the same order
+     * @throws Exception exception
+     */
+    void generateReports(List<CommitPair> commitPairs, List<Future<byte[]>> patches)
+            throws Exception {
+        final Path workDir = Files.createTempDirectory("generate-patch-file");
+        final ExecutorService executor = Executors.newFixedThreadPool(testerConcurrency);
+        try {
+            final BlockingQueue<TesterSlot> slots = new LinkedBlockingQueue<>();
+            for (int index = 0; index < testerConcurrency; index++) {
+                slots.add(createTesterSlot(workDir.resolve("slot-" + index)));
+            }
+            final List<Future<?>> reports = new ArrayList<>(commitPairs.size());
+            for (int index = 0; index < commitPairs.size(); index += batchSize) {
+                final int end = Math.min(index + batchSize, commitPairs.size());
+                final List<CommitPair> batch = commitPairs.subList(index, end);
+                final List<Future<byte[]>> batchPatches = patches.subList(index, end);
+                reports.add(executor.submit(() -> {
+                    final TesterSlot slot = slots.take();
+                    try {
+                        if (batch.size() == 1) {
+                            generateTwoCommitDiffPatch(batch.get(0), batchPatches.get(0).get(),
+                                    slot);
+                        }
+                        else {
+                            generateBatchDiffPatch(batch, batchPatches, slot);
+                        }
+                    }
+                    finally {
+                        slots.add(slot);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> report : reports) {
+                report.get();
+            }
+        }
+        finally {
+            executor.shutdownNow();
+            Utils.deleteDir(workDir);
+        }
+    }
+
+    /**
+     * Creates the workspace of a concurrent or batch tester run. checkstyle-tester is
+     * copied without its reports and cloned repositories, checkstyle is cloned with all
+     * its branches and the list of projects is rewritten to test the repository on the
+     * sources exported to the slot.
+     *
+     * @param slotDir directory of the slot
+     * @return slot
+     * @throws Exception exception
+     */
+    TesterSlot createTesterSlot(Path slotDir) throws Exception {
+        final TesterSlot slot = new TesterSlot(slotDir, diffReportDir.getRepoName());
+        final File[] testerFiles = new File(tester.getTesterPath()).listFiles((dir, name) ->
+                !CheckstyleTester.REPORTS.equals(name) && !REPOSITORIES.equals(name));
+        Files.createDirectories(slot.getTesterDir());
+        if (testerFiles != null) {
+            for (File testerFile : testerFiles) {
+                Utils.copyDir(testerFile,
+                        slot.getTesterDir().resolve(testerFile.getName()).toFile());
+            }
+        }
+        Git.cloneRepository()
+                .setURI(new File(tester.getCheckstyleRepoPath()).toURI().toString())
+                .setDirectory(slot.getCheckstyleDir().toFile())
+                .setCloneAllBranches(true)
+                .call()
+                .close();
+        writeProjectsFile(slot, List.of(slot.getRepoName()));
+        writePatchConfig(slot);
+        return slot;
+    }
+
+    /**
+     * Writes the patch config of a slot: the patch config with the location of the
+     * patch replaced by the patch of the slot. The property is not passed to the
+     * tester, because checkstyle resolves it from the properties of the Maven build.
+     *
+     * @param slot slot
+     * @throws IOException IO exception
+     */
+    void writePatchConfig(TesterSlot slot) throws IOException {
+        final String patchLocation = slot.getPatchFile().toAbsolutePath().toString()
+                .replace("&", "&amp;").replace("<", "&lt;").replace("\"", "&quot;");
+        final String config = new String(
+                Files.readAllBytes(tester.getPatchConfigFile().toPath()), StandardCharsets.UTF_8);
+        Files.write(slot.getPatchConfigFile(),
+                config.replace(PATCH_PROPERTY, patchLocation).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the list of projects of a slot. Each project is a copy of the project of
+     * checkstyle-tester whose name is the name of the repository, renamed and tested
+     * as a {@code local} project on the sources exported to the slot under its name.
+     *
+     * @param slot slot
+     * @param projectNames names of the projects
+     * @throws IOException IO exception
+     */
+    void writeProjectsFile(TesterSlot slot, List<String> projectNames) throws IOException {
+        final List<String> projects = new ArrayList<>();
+        for (String project : Files.readAllLines(
+                new File(tester.getTesterPath(), CheckstyleTester.PROJECTS_FILE).toPath(),
+                StandardCharsets.UTF_8)) {
+            final String[] fields = project.split("\\|", -1);
+            if (!project.startsWith("#") && fields.length > 2
+                    && fields[0].equals(slot.getRepoName())) {
+                for (String projectName : projectNames) {
+                    fields[0] = projectName;
+                    fields[1] = "local";
+                    fields[2] = slot.getSourceDir(projectName).toAbsolutePath().toString();
+                    if (fields.length > PROJECT_COMMIT_FIELD) {
+                        fields[PROJECT_COMMIT_FIELD] = "";
+                    }
+                    projects.add(String.join("|", fields));
+                }
+            }
+        }
+        if (projects.isEmpty()) {
+            throw new IllegalStateException("project " + slot.getRepoName()
+                    + " is not listed in " + CheckstyleTester.PROJECTS_FILE);
+        }
+        Files.write(slot.getProjectsFile(), projects, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Exports the tree of a commit, replacing the content of a directory. Only
+     * regular and executable files are written, symbolic links and submodules
+     * are skipped.
+     *
+     * @param commit commit to export
+     * @param destDir directory to export to
+     * @throws IOException if the tree can not be read or written
+     */
+    void exportTree(RevCommit commit, Path destDir) throws IOException {
+        Utils.deleteDir(destDir);
+        Files.createDirectories(destDir);
+        try (TreeWalk treeWalk = new TreeWalk(repository)) {
+            treeWalk.addTree(commit.getTree());
+            treeWalk.setRecursive(true);
+            while (treeWalk.next()) {
+                final FileMode fileMode = treeWalk.getFileMode(0);
+                if (FileMode.REGULAR_FILE.equals(fileMode)
+                        || FileMode.EXECUTABLE_FILE.equals(fileMode)) {
+                    final Path file = destDir.resolve(treeWalk.getPathString());
+                    Files.createDirectories(file.getParent());
+                    try (OutputStream output = Files.newOutputStream(file)) {
+                        repository.open(treeWalk.getObjectId(0)).copyTo(output);
+                    }
+                }
+            }
+        }
+    }
+
+    private void generateTwoCommitDiffPatch(CommitPair commitPair, byte[] patch,
+                                            TesterSlot slot) throws Exception {
+        final String subDirName = diffReportDir.getCommitDirName(commitPair);
+        final File destDirFile = diffReportDir.createDestDirName(subDirName);
+        final boolean succ = destDirFile.mkdirs();
+        if (succ) {
+            Files.write(slot.getPatchFile(), patch);
+            final long checkoutStart = System.nanoTime();
+            exportTree(commitPair.getNewCommit(), slot.getSourceDir());
+            Utils.deleteDir(slot.getReportDir());
+            stageTimings.record(subDirName, Stage.CHECKOUT, checkoutStart);
+            final long testerStart = System.nanoTime();
+            final File reportDir = tester.generate(slot);
+            stageTimings.record(subDirName, Stage.TESTER, testerStart);
+            final long copyStart = System.nanoTime();
+            diffReportDir.transferReport(reportDir, destDirFile, CopyMode.MOVE);
+            stageTimings.record(subDirName, Stage.COPY, copyStart);
+
+            final long renameStart = System.nanoTime();
+            Files.move(slot.getPatchFile(),
+                    destDirFile.toPath().resolve(diffReportDir.getPatchFileName(commitPair)),
+                    StandardCopyOption.REPLACE_EXISTING);
+            stageTimings.record(subDirName, Stage.RENAME, renameStart);
+            diffReportDir.markComplete(subDirName, commitPair);
+        }
+    }
+
+    /**
+     * Generates the reports of a batch of commit pairs with one tester run. The
+     * commits are exported as snapshots named like their report directories and
+     * tested with one patch of all pairs whose paths are moved under the snapshot
+     * directories. The report of each snapshot is then moved to the directory of its
+     * commit as the report of the repository, next to a copy of the files the
+     * snapshots share, such as style sheets.
+     *
+     * @param batch pairs of commits to report
+     * @param patches patches of the pairs, in the same order
+     * @param slot slot to run the tester in
+     * @throws Exception exception
+     */
+    private void generateBatchDiffPatch(List<CommitPair> batch, List<Future<byte[]>> patches,
+                                        TesterSlot slot) throws Exception {
+        final List<String> snapshotNames = new ArrayList<>(batch.size());
+        Utils.deleteDir(slot.getSourcesDir());
+        try (OutputStream output = Files.newOutputStream(slot.getPatchFile())) {
+            for (int index = 0; index < batch.size(); index++) {
+                final String snapshotName = diffReportDir.getCommitDirName(batch.get(index));
+                snapshotNames.add(snapshotName);
+                final long checkoutStart = System.nanoTime();
+                exportTree(batch.get(index).getNewCommit(), slot.getSourceDir(snapshotName));
+                stageTimings.record(snapshotName, Stage.CHECKOUT, checkoutStart);
+                output.write(PatchPathPrefixer.addPathPrefix(patches.get(index).get(),
+                        snapshotName + '/'));
+            }
+        }
+        writeProjectsFile(slot, snapshotNames);
+        Utils.deleteDir(slot.getReportDir());
+        final long testerStart = System.nanoTime();
+        final File reportDir = tester.generate(slot);
+        stageTimings.recordShared(snapshotNames, Stage.TESTER, testerStart);
+        final File[] sharedFiles = Objects.requireNonNullElse(
+                reportDir.listFiles((dir, name) -> !DIFF_DIR.equals(name)), new File[0]);
+        final File diffDir = new File(reportDir, DIFF_DIR);
+        final File[] sharedDiffFiles = Objects.requireNonNullElse(
+                diffDir.listFiles((dir, name) -> !snapshotNames.contains(name)), new File[0]);
+        for (int index = 0; index < batch.size(); index++) {
+            final File destDirFile = diffReportDir.createDestDirName(snapshotNames.get(index));
+            if (destDirFile.mkdirs()) {
+                final long copyStart = System.nanoTime();
+                final File destDiffDir = new File(destDirFile, DIFF_DIR);
+                diffReportDir.transferReport(new File(diffDir, snapshotNames.get(index)),
+                        new File(destDiffDir, slot.getRepoName()), CopyMode.MOVE);
+                for (File sharedFile : sharedDiffFiles) {
+                    diffReportDir.transferReport(sharedFile,
+                            new File(destDiffDir, sharedFile.getName()), CopyMode.COPY);
+                }
+                for (File sharedFile : sharedFiles) {
+                    diffReportDir.transferReport(sharedFile,
+                            new File(destDirFile, sharedFile.getName()), CopyMode.COPY);
+                }
+                stageTimings.record(snapshotNames.get(index), Stage.COPY, copyStart);
+                writeBatchPatch(batch.get(index), patches.get(index).get(), destDirFile);
+            }
+        }
+    }
+
+    /**
+     * Writes the patch of a pair of a batch to the directory of its commit, with the
+     * paths of the repository, and completes the report.
+     *
+     * @param commitPair pair of commits
+     * @param patch patch of the pair
+     * @param destDirFile directory of the commit
+     * @throws IOException IO exception
+     */
+    private void writeBatchPatch(CommitPair commitPair, byte[] patch, File destDirFile)
+            throws IOException {
+        final long renameStart = System.nanoTime();
+        Files.write(new File(destDirFile, diffReportDir.getPatchFileName(commitPair)).toPath(),
+                patch);
+        stageTimings.record(destDirFile.getName(), Stage.RENAME, renameStart);
+        diffReportDir.markComplete(destDirFile.getName(), commitPair);
+    }
+
+}
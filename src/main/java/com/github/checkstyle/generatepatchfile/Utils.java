@@ -20,17 +20,37 @@
 package com.github.checkstyle.generatepatchfile;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Contains utility methods.
  */
 public final class Utils {
 
+    /** Size of the buffer that files are hashed through. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     /** Prevents instantiation. */
     private Utils() {
     }
@@ -43,30 +63,231 @@ public final class Utils {
      * @throws IOException IO exception.
      */
     public static void copyDir(File src, File dest) throws IOException {
-        if (src.isDirectory()) {
-            if (!dest.exists()) {
-                dest.mkdir();
+        copyDir(src.toPath(), dest.toPath(), CopyMode.COPY, 1);
+    }
+
+    /**
+     * Transfer all src dir to dest dir. Directories are created while the tree is
+     * walked, and the files are copied, moved or linked on a pool of threads when
+     * more than one thread is given. Existing files of dest dir are replaced.
+     *
+     * @param src src dir.
+     * @param dest dest dir.
+     * @param mode how files are transferred.
+     * @param threadCount number of threads that transfer files, at least 1.
+     * @throws IOException IO exception.
+     */
+    public static void copyDir(Path src, Path dest, CopyMode mode, int threadCount)
+            throws IOException {
+        final ExecutorService executor;
+        if (threadCount > 1) {
+            executor = Executors.newFixedThreadPool(threadCount);
+        }
+        else {
+            executor = null;
+        }
+        try {
+            final TreeCopier copier = new TreeCopier(src, dest, mode, executor);
+            Files.walkFileTree(src, copier);
+            copier.finish();
+        }
+        finally {
+            if (executor != null) {
+                executor.shutdownNow();
             }
-            final String[] files = src.list();
-            for (String file : files) {
-                final File srcFile = new File(src, file);
-                final File destFile = new File(dest, file);
-                copyDir(srcFile, destFile);
+        }
+    }
+
+    /**
+     * Delete a dir with all its content, if it exists.
+     *
+     * @param dir dir to delete.
+     * @throws IOException IO exception.
+     */
+    public static void deleteDir(Path dir) throws IOException {
+        if (Files.exists(dir)) {
+            final List<Path> paths;
+            try (Stream<Path> walk = Files.walk(dir)) {
+                paths = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+            }
+            for (Path path : paths) {
+                Files.delete(path);
             }
         }
-        else {
-            final InputStream inputStream = new FileInputStream(src);
-            final OutputStream outputStream = new FileOutputStream(dest);
-            final int size = 1024;
-            final byte[] buffer = new byte[size];
+    }
+
+    /**
+     * Computes the SHA-256 hash of a file.
+     *
+     * @param file file.
+     * @return hex string of the hash.
+     * @throws IOException IO exception.
+     */
+    public static String sha256(Path file) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not supported", ex);
+        }
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream input = Files.newInputStream(file)) {
+            int length = input.read(buffer);
+            while (length >= 0) {
+                digest.update(buffer, 0, length);
+                length = input.read(buffer);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Visits a source tree and transfers it to the dest dir.
+     */
+    private static final class TreeCopier extends SimpleFileVisitor<Path> {
+
+        /** Root of the source tree. */
+        private final Path src;
+
+        /** Root of the dest tree. */
+        private final Path dest;
+
+        /** How files are transferred. */
+        private final CopyMode mode;
 
-            int length;
+        /** Pool that transfers files, or null to transfer them on the walking thread. */
+        private final ExecutorService executor;
 
-            while ((length = inputStream.read(buffer)) > 0) {
-                outputStream.write(buffer, 0, length);
+        /** Pending file transfers. */
+        private final List<Future<Void>> transfers = new ArrayList<>();
+
+        /** Source directories to delete once their files are moved, deepest last. */
+        private final List<Path> movedDirs = new ArrayList<>();
+
+        /** Whether creating a hard link failed once, after which files are copied. */
+        private volatile boolean linkFailed;
+
+        /**
+         * Creates a visitor.
+         *
+         * @param src root of the source tree.
+         * @param dest root of the dest tree.
+         * @param mode how files are transferred.
+         * @param executor pool that transfers files, or null.
+         */
+        private TreeCopier(Path src, Path dest, CopyMode mode, ExecutorService executor) {
+            this.src = src;
+            this.dest = dest;
+            this.mode = mode;
+            this.executor = executor;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+                throws IOException {
+            final Path target = dest.resolve(src.relativize(dir).toString());
+            FileVisitResult result = FileVisitResult.CONTINUE;
+            if (mode == CopyMode.MOVE && Files.notExists(target) && tryRename(dir, target)) {
+                result = FileVisitResult.SKIP_SUBTREE;
+            }
+            else {
+                Files.createDirectories(target);
+                if (mode == CopyMode.MOVE) {
+                    movedDirs.add(dir);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+                throws IOException {
+            final Path target = dest.resolve(src.relativize(file).toString());
+            if (executor == null) {
+                transfer(file, target, attrs.isRegularFile());
+            }
+            else {
+                transfers.add(executor.submit(() -> {
+                    transfer(file, target, attrs.isRegularFile());
+                    return null;
+                }));
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        /**
+         * Waits for the pending transfers and deletes the moved source directories.
+         *
+         * @throws IOException if a transfer failed.
+         */
+        private void finish() throws IOException {
+            for (Future<Void> transfer : transfers) {
+                try {
+                    transfer.get();
+                }
+                catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("interrupted while copying " + src);
+                }
+                catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof IOException) {
+                        throw (IOException) ex.getCause();
+                    }
+                    throw new IOException("failed to copy " + src, ex.getCause());
+                }
+            }
+            for (int index = movedDirs.size() - 1; index >= 0; index--) {
+                Files.delete(movedDirs.get(index));
+            }
+        }
+
+        /**
+         * Transfers one file.
+         *
+         * @param file source file.
+         * @param target dest file.
+         * @param regularFile whether the source is a regular file.
+         * @throws IOException IO exception.
+         */
+        private void transfer(Path file, Path target, boolean regularFile) throws IOException {
+            if (mode == CopyMode.MOVE) {
+                Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            else if (mode == CopyMode.HARD_LINK && regularFile && !linkFailed) {
+                Files.deleteIfExists(target);
+                try {
+                    Files.createLink(target, file);
+                }
+                catch (IOException | UnsupportedOperationException ex) {
+                    linkFailed = true;
+                    Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING,
+                            LinkOption.NOFOLLOW_LINKS);
+                }
+            }
+            else {
+                Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING,
+                        LinkOption.NOFOLLOW_LINKS);
+            }
+        }
+
+        /**
+         * Renames a whole directory, which only works on the same file system.
+         *
+         * @param dir source directory.
+         * @param target dest directory, which does not exist.
+         * @return true if the directory was renamed.
+         */
+        private static boolean tryRename(Path dir, Path target) {
+            boolean renamed;
+            try {
+                Files.move(dir, target, StandardCopyOption.ATOMIC_MOVE);
+                renamed = true;
+            }
+            catch (IOException ex) {
+                renamed = false;
             }
-            inputStream.close();
-            outputStream.close();
+            return renamed;
         }
     }
 }
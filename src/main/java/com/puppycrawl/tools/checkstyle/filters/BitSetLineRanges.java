@@ -0,0 +1,74 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.util.BitSet;
+
+/**
+ * Line ranges of a densely changed file, kept as bit sets indexed by line.
+ * A point query reads a single word and an overlap query looks for the next
+ * boundary from the start of the span.
+ */
+final class BitSetLineRanges implements LineRanges {
+
+    /** Changed lines. */
+    private final BitSet lines;
+
+    /** First and last lines of the original ranges. */
+    private final BitSet boundaries;
+
+    /** Number of original ranges. */
+    private final int rangeCount;
+
+    /**
+     * Creates line ranges from bit sets.
+     *
+     * @param lines changed lines
+     * @param boundaries first and last lines of the original ranges
+     * @param rangeCount number of original ranges
+     */
+    BitSetLineRanges(BitSet lines, BitSet boundaries, int rangeCount) {
+        this.lines = lines;
+        this.boundaries = boundaries;
+        this.rangeCount = rangeCount;
+    }
+
+    @Override
+    public boolean containsLine(int line) {
+        return line >= 0 && lines.get(line);
+    }
+
+    @Override
+    public boolean hasBoundaryWithin(int startLine, int endLine) {
+        final int boundary = boundaries.nextSetBit(Math.max(startLine, 0));
+        return boundary >= 0 && boundary <= endLine;
+    }
+
+    @Override
+    public int getRangeCount() {
+        return rangeCount;
+    }
+
+    @Override
+    public LineRangesRepresentation getRepresentation() {
+        return LineRangesRepresentation.BITSET;
+    }
+
+}
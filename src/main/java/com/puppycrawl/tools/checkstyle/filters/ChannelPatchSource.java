@@ -0,0 +1,59 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Patch source that reads the patch from a readable channel, for example a
+ * socket or a pipe. A channel can be consumed only once, so a filter built
+ * from this source can not reload the patch. The channel is closed after
+ * loading.
+ */
+public final class ChannelPatchSource implements PatchSource {
+
+    /** Location reported for channel patches. */
+    private static final String LOCATION = "<channel>";
+
+    /** Channel to read the patch from. */
+    private final ReadableByteChannel channel;
+
+    /**
+     * Creates a source over the channel.
+     *
+     * @param channel channel to read the patch from
+     */
+    public ChannelPatchSource(ReadableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public InputStream openStream() {
+        return Channels.newInputStream(channel);
+    }
+
+    @Override
+    public String getLocation() {
+        return LOCATION;
+    }
+
+}
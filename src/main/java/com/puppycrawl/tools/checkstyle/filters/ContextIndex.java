@@ -0,0 +1,413 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+
+/**
+ * Inverted context index of one file: the identity set of the AST nodes whose
+ * subtree spans the first or last line of a changed range. All enclosing nodes are
+ * recorded, whatever their token type, because the context node of a violation can
+ * be the violation node itself, its parent or an ancestor like {@code SLIST},
+ * {@code CLASS_DEF} or {@code LITERAL_SWITCH}. The index is built in one pass over
+ * the tree and is confined to the thread that audits the file. It also memoizes the
+ * nearest context ancestor of the nodes that violations were reported on.
+ */
+final class ContextIndex {
+
+    /** Context rule of checks whose context is the violation node itself. */
+    static final BitSet SELF_CONTEXT = new BitSet();
+
+    /** Context rule of checks whose context is the parent of the violation node. */
+    static final BitSet PARENT_CONTEXT = new BitSet();
+
+    /** Initial depth of the traversal stacks. */
+    private static final int INITIAL_DEPTH = 64;
+
+    /**
+     * Number of node lookups in a file after which indexing all nodes by line is
+     * cheaper than further pruned searches. Files with a few violations, the common
+     * case for a patch, never pay for the full index.
+     */
+    private static final int FULL_INDEX_LOOKUPS = 8;
+
+    /** Nodes on no line. */
+    private static final DetailAST[] NO_NODES = new DetailAST[0];
+
+    /** Root of the indexed tree. */
+    private final DetailAST rootAst;
+
+    /** Changed lines the index was built for. */
+    private final LineRanges lineRanges;
+
+    /** Nodes whose subtree spans a boundary of a changed range. */
+    private final Set<DetailAST> changedNodes =
+            Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Nearest ancestor of every resolved node, by set of ancestor token types. Sets
+     * are the shared constants of the filter, so they are compared by identity.
+     */
+    private final Map<BitSet, Map<DetailAST, DetailAST>> nearestAncestors =
+            new IdentityHashMap<>();
+
+    /**
+     * Context verdicts of violation nodes, by context rule. Several checks often
+     * report on the same node, so each node and rule is resolved once per file.
+     */
+    private final Map<BitSet, Map<DetailAST, Boolean>> contextVerdicts =
+            new IdentityHashMap<>();
+
+    /** Nodes on the path of the current ancestor lookup. */
+    private DetailAST[] lookupPath = new DetailAST[INITIAL_DEPTH];
+
+    /** Number of node lookups in this file. */
+    private int nodeLookups;
+
+    /** Nodes by line number in preorder, {@code null} until the full index is built. */
+    private DetailAST[][] nodesByLine;
+
+    /**
+     * Builds the index of a tree.
+     *
+     * @param rootAst root of the tree, its siblings are indexed as well
+     * @param lineRanges changed lines of the file
+     */
+    ContextIndex(DetailAST rootAst, LineRanges lineRanges) {
+        this.rootAst = rootAst;
+        this.lineRanges = lineRanges;
+        indexChangedNodes();
+    }
+
+    /**
+     * Checks whether the index was built for a tree and changed lines.
+     *
+     * @param ast root of the tree
+     * @param ranges changed lines of the file
+     * @return true if the index can be used for them
+     */
+    boolean isIndexOf(DetailAST ast, LineRanges ranges) {
+        return rootAst == ast && lineRanges == ranges;
+    }
+
+    /**
+     * Checks whether the context node of a violation node encloses a changed range
+     * boundary. The context node is resolved by a rule: the node itself, its parent
+     * or its nearest ancestor of a set of token types.
+     *
+     * @param ast violation node of the indexed tree
+     * @param contextRule {@link #SELF_CONTEXT}, {@link #PARENT_CONTEXT} or a set of
+     *                    ancestor token types, compared by identity
+     * @return true if the context node encloses a changed range boundary
+     */
+    boolean isChangedContext(DetailAST ast, BitSet contextRule) {
+        final Map<DetailAST, Boolean> verdicts =
+                contextVerdicts.computeIfAbsent(contextRule, rule -> new IdentityHashMap<>());
+        Boolean verdict = verdicts.get(ast);
+        if (verdict == null) {
+            final DetailAST contextAst;
+            if (contextRule == SELF_CONTEXT) {
+                contextAst = ast;
+            }
+            else if (contextRule == PARENT_CONTEXT) {
+                contextAst = ast.getParent();
+            }
+            else {
+                contextAst = getNearestAncestor(ast, contextRule);
+            }
+            verdict = contextAst != null && changedNodes.contains(contextAst);
+            verdicts.put(ast, verdict);
+        }
+        return verdict;
+    }
+
+    /**
+     * Returns the first node in preorder with the given token type, line and column.
+     * The first lookups of a file use a search that skips every subtree ending before
+     * the line; after {@link #FULL_INDEX_LOOKUPS} lookups all nodes are indexed by
+     * line instead.
+     *
+     * @param tokenType token type of the node
+     * @param line line of the node
+     * @param column column of the node
+     * @return matching node, {@code null} if there is none
+     */
+    DetailAST findNode(int tokenType, int line, int column) {
+        final DetailAST result;
+        nodeLookups++;
+        if (nodeLookups > FULL_INDEX_LOOKUPS) {
+            if (nodesByLine == null) {
+                nodesByLine = indexNodesByLine();
+            }
+            result = findIndexedNode(tokenType, line, column);
+        }
+        else {
+            final DetailAST found = findNodePruned(tokenType, line, column);
+            if (found == null) {
+                result = findNodeFully(tokenType, line, column);
+            }
+            else {
+                result = found;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Searches the tree in preorder, skipping a subtree when its next sibling starts
+     * before the line, because the tokens of a subtree precede those of its next
+     * sibling.
+     *
+     * @param tokenType token type of the node
+     * @param line line of the node
+     * @param column column of the node
+     * @return matching node, {@code null} if it was not found
+     */
+    private DetailAST findNodePruned(int tokenType, int line, int column) {
+        DetailAST result = null;
+        DetailAST node = skipSubtreesBefore(rootAst, line);
+        while (node != null && result == null) {
+            if (isMatching(node, tokenType, line, column)) {
+                result = node;
+            }
+            DetailAST toVisit = skipSubtreesBefore(node.getFirstChild(), line);
+            while (node != null && toVisit == null) {
+                toVisit = skipSubtreesBefore(node.getNextSibling(), line);
+                node = node.getParent();
+            }
+            node = toVisit;
+        }
+        return result;
+    }
+
+    /**
+     * Skips the siblings whose subtree ends before a line.
+     *
+     * @param ast first sibling to consider, may be {@code null}
+     * @param line searched line
+     * @return first sibling whose subtree may contain the line
+     */
+    private static DetailAST skipSubtreesBefore(DetailAST ast, int line) {
+        DetailAST result = ast;
+        while (result != null && result.getNextSibling() != null
+                && result.getNextSibling().getLineNo() < line) {
+            result = result.getNextSibling();
+        }
+        return result;
+    }
+
+    /**
+     * Searches the whole tree in preorder.
+     *
+     * @param tokenType token type of the node
+     * @param line line of the node
+     * @param column column of the node
+     * @return matching node, {@code null} if there is none
+     */
+    private DetailAST findNodeFully(int tokenType, int line, int column) {
+        DetailAST result = null;
+        DetailAST node = rootAst;
+        while (node != null && result == null) {
+            if (isMatching(node, tokenType, line, column)) {
+                result = node;
+            }
+            DetailAST toVisit = node.getFirstChild();
+            while (node != null && toVisit == null) {
+                toVisit = node.getNextSibling();
+                node = node.getParent();
+            }
+            node = toVisit;
+        }
+        return result;
+    }
+
+    /**
+     * Looks a node up in the index by line.
+     *
+     * @param tokenType token type of the node
+     * @param line line of the node
+     * @param column column of the node
+     * @return matching node, {@code null} if there is none
+     */
+    private DetailAST findIndexedNode(int tokenType, int line, int column) {
+        DetailAST result = null;
+        if (line >= 0 && line < nodesByLine.length) {
+            final DetailAST[] nodes = nodesByLine[line];
+            for (int index = 0; index < nodes.length; index++) {
+                if (isMatching(nodes[index], tokenType, line, column)) {
+                    result = nodes[index];
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Groups all nodes of the tree by line, keeping preorder within a line.
+     *
+     * @return nodes by line number
+     */
+    private DetailAST[][] indexNodesByLine() {
+        int[] counts = new int[INITIAL_DEPTH];
+        for (DetailAST node = rootAst; node != null; node = nextInPreorder(node)) {
+            final int line = node.getLineNo();
+            if (line >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(line + 1, counts.length * 2));
+            }
+            counts[line]++;
+        }
+        final DetailAST[][] result = new DetailAST[counts.length][];
+        for (int line = 0; line < counts.length; line++) {
+            if (counts[line] == 0) {
+                result[line] = NO_NODES;
+            }
+            else {
+                result[line] = new DetailAST[counts[line]];
+            }
+            counts[line] = 0;
+        }
+        for (DetailAST node = rootAst; node != null; node = nextInPreorder(node)) {
+            final int line = node.getLineNo();
+            result[line][counts[line]] = node;
+            counts[line]++;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the node that follows a node in preorder.
+     *
+     * @param ast current node
+     * @return next node, {@code null} at the end of the tree
+     */
+    private static DetailAST nextInPreorder(DetailAST ast) {
+        DetailAST node = ast;
+        DetailAST toVisit = node.getFirstChild();
+        while (node != null && toVisit == null) {
+            toVisit = node.getNextSibling();
+            node = node.getParent();
+        }
+        return toVisit;
+    }
+
+    /**
+     * Check whether AST node matches event's node.
+     *
+     * @param ast DetailAST
+     * @param tokenType token type of the event
+     * @param line line of the event
+     * @param column column of the event
+     * @return true if it is matching.
+     */
+    private static boolean isMatching(DetailAST ast, int tokenType, int line, int column) {
+        return ast.getType() == tokenType
+                && ast.getLineNo() == line
+                && ast.getColumnNo() == column;
+    }
+
+    /**
+     * Returns the nearest strict ancestor of a node whose token type is in a set.
+     * Every node passed on the way up is memoized with the same answer, so later
+     * violations under the same method or switch resolve without climbing.
+     *
+     * @param ast node of the indexed tree
+     * @param tokenTypes set of ancestor token types, indexed by token type
+     * @return nearest ancestor of one of the types, {@code null} if there is none
+     */
+    private DetailAST getNearestAncestor(DetailAST ast, BitSet tokenTypes) {
+        final Map<DetailAST, DetailAST> memo =
+                nearestAncestors.computeIfAbsent(tokenTypes, types -> new IdentityHashMap<>());
+        DetailAST result = null;
+        int count = 0;
+        DetailAST node = ast;
+        boolean resolved = false;
+        while (!resolved) {
+            if (memo.containsKey(node)) {
+                result = memo.get(node);
+                resolved = true;
+            }
+            else {
+                if (count == lookupPath.length) {
+                    lookupPath = Arrays.copyOf(lookupPath, count * 2);
+                }
+                lookupPath[count] = node;
+                count++;
+                final DetailAST parent = node.getParent();
+                if (parent == null || tokenTypes.get(parent.getType())) {
+                    result = parent;
+                    resolved = true;
+                }
+                else {
+                    node = parent;
+                }
+            }
+        }
+        for (int index = 0; index < count; index++) {
+            memo.put(lookupPath[index], result);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the line span of every subtree in preorder and records the nodes
+     * whose span contains a changed range boundary.
+     */
+    private void indexChangedNodes() {
+        int[] spanStarts = new int[INITIAL_DEPTH];
+        int[] spanEnds = new int[INITIAL_DEPTH];
+        int depth = 0;
+        DetailAST node = rootAst;
+        while (node != null) {
+            if (depth == spanStarts.length) {
+                spanStarts = Arrays.copyOf(spanStarts, depth * 2);
+                spanEnds = Arrays.copyOf(spanEnds, depth * 2);
+            }
+            spanStarts[depth] = node.getLineNo();
+            spanEnds[depth] = node.getLineNo();
+            DetailAST toVisit = node.getFirstChild();
+            if (toVisit != null) {
+                depth++;
+            }
+            while (node != null && toVisit == null) {
+                if (lineRanges.hasBoundaryWithin(spanStarts[depth], spanEnds[depth])) {
+                    changedNodes.add(node);
+                }
+                if (depth > 0) {
+                    spanStarts[depth - 1] = Math.min(spanStarts[depth - 1], spanStarts[depth]);
+                    spanEnds[depth - 1] = Math.max(spanEnds[depth - 1], spanEnds[depth]);
+                }
+                toVisit = node.getNextSibling();
+                node = node.getParent();
+                if (toVisit == null) {
+                    depth--;
+                }
+            }
+            node = toVisit;
+        }
+    }
+}
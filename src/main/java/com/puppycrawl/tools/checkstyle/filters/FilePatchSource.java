@@ -0,0 +1,54 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Patch source that reads the patch from a file.
+ */
+public final class FilePatchSource implements PatchSource {
+
+    /** Name of the patch file. */
+    private final String fileName;
+
+    /**
+     * Creates a source for the patch file.
+     *
+     * @param fileName name of the patch file
+     */
+    public FilePatchSource(String fileName) {
+        this.fileName = fileName;
+    }
+
+    @Override
+    public InputStream openStream() throws IOException {
+        return Files.newInputStream(Paths.get(fileName));
+    }
+
+    @Override
+    public String getLocation() {
+        return fileName;
+    }
+
+}
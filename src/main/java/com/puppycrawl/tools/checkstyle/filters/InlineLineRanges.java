@@ -0,0 +1,84 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+/**
+ * Line ranges of a file with only a few changed ranges, kept in one array
+ * and scanned linearly, which is cheaper than a binary search for them.
+ */
+final class InlineLineRanges implements LineRanges {
+
+    /** First and last lines of the merged ranges, sorted and interleaved. */
+    private final int[] ranges;
+
+    /** Sorted first and last lines of the original ranges. */
+    private final int[] boundaries;
+
+    /** Number of original ranges. */
+    private final int rangeCount;
+
+    /**
+     * Creates line ranges from compiled arrays.
+     *
+     * @param ranges first and last lines of the merged ranges, interleaved
+     * @param boundaries sorted first and last lines of the original ranges
+     * @param rangeCount number of original ranges
+     */
+    InlineLineRanges(int[] ranges, int[] boundaries, int rangeCount) {
+        this.ranges = ranges;
+        this.boundaries = boundaries;
+        this.rangeCount = rangeCount;
+    }
+
+    @Override
+    public boolean containsLine(int line) {
+        boolean result = false;
+        for (int index = 0; index < ranges.length && line >= ranges[index]; index += 2) {
+            if (line <= ranges[index + 1]) {
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean hasBoundaryWithin(int startLine, int endLine) {
+        boolean result = false;
+        for (int boundary : boundaries) {
+            if (boundary >= startLine) {
+                result = boundary <= endLine;
+                break;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int getRangeCount() {
+        return rangeCount;
+    }
+
+    @Override
+    public LineRangesRepresentation getRepresentation() {
+        return LineRangesRepresentation.INLINE;
+    }
+
+}
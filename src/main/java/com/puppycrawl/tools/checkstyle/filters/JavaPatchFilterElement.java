@@ -20,12 +20,13 @@
 package com.puppycrawl.tools.checkstyle.filters;
 
 import java.io.File;
-import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
 import com.puppycrawl.tools.checkstyle.TreeWalkerFilter;
@@ -37,48 +38,39 @@ import com.puppycrawl.tools.checkstyle.api.TokenTypes;
  */
 public final class JavaPatchFilterElement implements TreeWalkerFilter {
     /**
-     * The key of minimum line in child ast lines.
+     * Mapping between a check and its ancestor token types, compiled into sets
+     * indexed by token type.
      */
-    private static final String MIN = "min";
-
-    /**
-     * The key of maximum line in child ast lines.
-     */
-    private static final String MAX = "max";
-
-    /**
-     * Mapping between a check and its ancestor token types.
-     */
-    private static final Map<String, List<Integer>> CHECK_TO_ANCESTOR_NODES_MAP = new HashMap<>();
+    private static final Map<String, BitSet> CHECK_TO_ANCESTOR_NODES_MAP = new HashMap<>();
 
     static {
         CHECK_TO_ANCESTOR_NODES_MAP.put("ArrayTrailingComma",
-                Arrays.asList(TokenTypes.ARRAY_INIT));
+                createTokenSet(TokenTypes.ARRAY_INIT));
         CHECK_TO_ANCESTOR_NODES_MAP.put("AvoidNestedBlocks",
-                Arrays.asList(TokenTypes.SLIST));
+                createTokenSet(TokenTypes.SLIST));
         CHECK_TO_ANCESTOR_NODES_MAP.put("CommentsIndentation",
-                Arrays.asList(TokenTypes.METHOD_DEF, TokenTypes.SLIST,
+                createTokenSet(TokenTypes.METHOD_DEF, TokenTypes.SLIST,
                         TokenTypes.CLASS_DEF, TokenTypes.INTERFACE_DEF,
                         TokenTypes.RECORD_DEF, TokenTypes.ENUM_DEF));
         CHECK_TO_ANCESTOR_NODES_MAP.put("DefaultComesLast",
-                Arrays.asList(TokenTypes.LITERAL_SWITCH));
+                createTokenSet(TokenTypes.LITERAL_SWITCH));
         CHECK_TO_ANCESTOR_NODES_MAP.put("DeclarationOrder",
-                Arrays.asList(TokenTypes.CLASS_DEF, TokenTypes.INTERFACE_DEF,
+                createTokenSet(TokenTypes.CLASS_DEF, TokenTypes.INTERFACE_DEF,
                         TokenTypes.ENUM_DEF));
         CHECK_TO_ANCESTOR_NODES_MAP.put("EqualsHashCode",
-                Arrays.asList(TokenTypes.CLASS_DEF));
+                createTokenSet(TokenTypes.CLASS_DEF));
         CHECK_TO_ANCESTOR_NODES_MAP.put("FinalLocalVariable",
-                Arrays.asList(TokenTypes.METHOD_DEF,
+                createTokenSet(TokenTypes.METHOD_DEF,
                 TokenTypes.VARIABLE_DEF, TokenTypes.CTOR_DEF));
         CHECK_TO_ANCESTOR_NODES_MAP.put("FallThrough",
-                Arrays.asList(TokenTypes.LITERAL_SWITCH));
+                createTokenSet(TokenTypes.LITERAL_SWITCH));
         CHECK_TO_ANCESTOR_NODES_MAP.put("InnerTypeLast",
-                Arrays.asList(TokenTypes.CLASS_DEF, TokenTypes.INTERFACE_DEF,
+                createTokenSet(TokenTypes.CLASS_DEF, TokenTypes.INTERFACE_DEF,
                         TokenTypes.RECORD_DEF, TokenTypes.ENUM_DEF));
         CHECK_TO_ANCESTOR_NODES_MAP.put("RightCurly",
-                Arrays.asList(TokenTypes.LITERAL_TRY, TokenTypes.LITERAL_IF));
+                createTokenSet(TokenTypes.LITERAL_TRY, TokenTypes.LITERAL_IF));
         CHECK_TO_ANCESTOR_NODES_MAP.put("VariableDeclarationUsageDistance",
-                Arrays.asList(TokenTypes.SLIST));
+                createTokenSet(TokenTypes.SLIST));
     }
 
     /**
@@ -101,8 +93,8 @@ public final class JavaPatchFilterElement implements TreeWalkerFilter {
     /** The String of file names. */
     private final String fileName;
 
-    /** The list of line range. */
-    private final List<List<Integer>> lineRangeList;
+    /** The changed lines of the file. */
+    private final LineRanges lineRanges;
 
     /**
      * Set has user defined Checks to never suppress if files are touched.
@@ -114,6 +106,19 @@ public final class JavaPatchFilterElement implements TreeWalkerFilter {
      */
     private final Strategy strategy;
 
+    /**
+     * Rules of the checks that reported to this element, by source name of the
+     * check. Check names are resolved once, so that accepting an event allocates
+     * nothing.
+     */
+    private final Map<String, CheckRule> checkRules = new ConcurrentHashMap<>();
+
+    /**
+     * Context index of the file that the current thread audits. It is shared by the
+     * elements of one filter, which resets it after every file.
+     */
+    private final ThreadLocal<ContextIndex> currentContextIndex;
+
     /**
      * Constructs a {@code SuppressPatchFilterElement} for a
      * file name pattern.
@@ -142,8 +147,79 @@ public final class JavaPatchFilterElement implements TreeWalkerFilter {
                                    Set<String> checkNamesForContextStrategyByTokenOrAncestorSet,
                                    Set<String> supportContextStrategyChecks,
                                    Set<String> neverSuppressedChecks) {
+        this(fileName, LineRangesIndexBuilder.compile(lineRangeList, true), strategy,
+                checkNamesForContextStrategyByTokenOrParentSet,
+                checkNamesForContextStrategyByTokenOrAncestorSet,
+                supportContextStrategyChecks, neverSuppressedChecks);
+    }
+
+    /**
+     * Constructs a {@code SuppressPatchFilterElement} for a
+     * file name pattern and compiled line ranges.
+     *
+     * @param fileName                                         names of filtered files
+     * @param lineRanges                                       changed lines for line number
+     *                                                         filtering
+     * @param strategy                                         strategy that used
+     * @param checkNamesForContextStrategyByTokenOrParentSet   user defined Checks that need modify
+     *                                                         violation nodes to their parent
+     *                                                         abstract nodes to get their child
+     *                                                         nodes
+     * @param checkNamesForContextStrategyByTokenOrAncestorSet user defined Checks that need modify
+     *                                                         violation nodes to their ancestor
+     *                                                         abstract nodes to get their child
+     *                                                         nodes
+     * @param supportContextStrategyChecks                     user defined Checks that support
+     *                                                         context strategy
+     * @param neverSuppressedChecks                            set has user defined Checks to never
+     *                                                         suppress if files are touched
+     */
+    public JavaPatchFilterElement(String fileName,
+                                   LineRanges lineRanges,
+                                   Strategy strategy,
+                                   Set<String> checkNamesForContextStrategyByTokenOrParentSet,
+                                   Set<String> checkNamesForContextStrategyByTokenOrAncestorSet,
+                                   Set<String> supportContextStrategyChecks,
+                                   Set<String> neverSuppressedChecks) {
+        this(fileName, lineRanges, strategy, checkNamesForContextStrategyByTokenOrParentSet,
+                checkNamesForContextStrategyByTokenOrAncestorSet, supportContextStrategyChecks,
+                neverSuppressedChecks, new ThreadLocal<>());
+    }
+
+    /**
+     * Constructs a {@code SuppressPatchFilterElement} that shares the context index
+     * of the current thread with the other elements of a filter.
+     *
+     * @param fileName                                         names of filtered files
+     * @param lineRanges                                       changed lines for line number
+     *                                                         filtering
+     * @param strategy                                         strategy that used
+     * @param checkNamesForContextStrategyByTokenOrParentSet   user defined Checks that need modify
+     *                                                         violation nodes to their parent
+     *                                                         abstract nodes to get their child
+     *                                                         nodes
+     * @param checkNamesForContextStrategyByTokenOrAncestorSet user defined Checks that need modify
+     *                                                         violation nodes to their ancestor
+     *                                                         abstract nodes to get their child
+     *                                                         nodes
+     * @param supportContextStrategyChecks                     user defined Checks that support
+     *                                                         context strategy
+     * @param neverSuppressedChecks                            set has user defined Checks to never
+     *                                                         suppress if files are touched
+     * @param currentContextIndex                              context index of the file that the
+     *                                                         current thread audits
+     */
+    JavaPatchFilterElement(String fileName,
+                           LineRanges lineRanges,
+                           Strategy strategy,
+                           Set<String> checkNamesForContextStrategyByTokenOrParentSet,
+                           Set<String> checkNamesForContextStrategyByTokenOrAncestorSet,
+                           Set<String> supportContextStrategyChecks,
+                           Set<String> neverSuppressedChecks,
+                           ThreadLocal<ContextIndex> currentContextIndex) {
+        this.currentContextIndex = currentContextIndex;
         this.fileName = fileName;
-        this.lineRangeList = lineRangeList;
+        this.lineRanges = lineRanges;
         this.strategy = strategy;
         if (checkNamesForContextStrategyByTokenOrParentSet != null) {
             this.checkNamesForContextStrategyByTokenOrParentSet.addAll(
@@ -185,16 +261,26 @@ public final class JavaPatchFilterElement implements TreeWalkerFilter {
      * @return true if it is matching
      */
     private boolean isFileNameMatching(TreeWalkerAuditEvent event) {
-        String eventFileName = event.fileName();
-        boolean result = eventFileName != null;
+        return isFileNameMatching(event.fileName());
+    }
+
+    /**
+     * Is matching by file name.
+     *
+     * @param eventFileName name of the audited file, may be {@code null}
+     * @return true if it is matching
+     */
+    boolean isFileNameMatching(String eventFileName) {
+        String normalizedFileName = eventFileName;
+        boolean result = normalizedFileName != null;
 
         if (result) {
             // git always displays paths with '/', even on windows
             if (File.separatorChar != '/') {
-                eventFileName = eventFileName.replace(File.separatorChar, '/');
+                normalizedFileName = normalizedFileName.replace(File.separatorChar, '/');
             }
 
-            result = eventFileName.endsWith(fileName);
+            result = normalizedFileName.endsWith(fileName);
         }
 
         return result;
@@ -207,14 +293,9 @@ public final class JavaPatchFilterElement implements TreeWalkerFilter {
      * @return true if it is matching
      */
     private boolean isNeverSuppressCheck(TreeWalkerAuditEvent event) {
-        boolean result = false;
-        if (neverSuppressedChecks != null) {
-            if (containsShortName(neverSuppressedChecks, event)
-                    || neverSuppressedChecks.contains(event.getModuleId())) {
-                result = true;
-            }
-        }
-        return result;
+        return neverSuppressedChecks != null
+                && (getCheckRule(event).isNeverSuppressed()
+                || neverSuppressedChecks.contains(event.getModuleId()));
     }
 
     /**
@@ -232,46 +313,83 @@ public final class JavaPatchFilterElement implements TreeWalkerFilter {
     }
 
     private boolean lineMatching(int currentLine) {
-        boolean result = false;
-        for (List<Integer> singleLineRangeList : lineRangeList) {
-            final int startLine = singleLineRangeList.get(0) + 1;
-            final int endLine = singleLineRangeList.get(1) + 1;
-            if (startLine == endLine) {
-                result = currentLine == startLine;
+        return lineRanges.containsLine(currentLine);
+    }
+
+    /**
+     * Check whether a changed line lies between two lines, which holds if a
+     * changed range contains the start line or begins or ends before the end line.
+     *
+     * @param startLine first line, inclusive
+     * @param endLine   last line, inclusive
+     * @return true if a changed line lies between startLine and endLine.
+     */
+    boolean hasChangedLineWithin(int startLine, int endLine) {
+        return lineRanges.containsLine(startLine)
+                || lineRanges.hasBoundaryWithin(startLine, endLine);
+    }
+
+    /**
+     * Returns the nodes a check has to visit so that none of its violations that
+     * this element accepts is lost.
+     *
+     * @param checkName simple class name of the check
+     * @param moduleId  id of the check, may be {@code null}
+     * @return scope of the nodes to visit
+     */
+    VisitScope getVisitScope(String checkName, String moduleId) {
+        final String checkShortName = getCheckShortName(checkName);
+        final VisitScope result;
+        if (neverSuppressedChecks != null
+                && (containsName(neverSuppressedChecks, checkName, checkShortName)
+                || neverSuppressedChecks.contains(moduleId))) {
+            result = VisitScope.ALL_NODES;
+        }
+        else if (Strategy.CONTEXT == strategy && containsName(
+                checkNamesForContextStrategyByTokenOrAncestorSet, checkName, checkShortName)) {
+            if (CHECK_TO_ANCESTOR_NODES_MAP.containsKey(checkShortName)) {
+                result = VisitScope.CHANGED_ANCESTORS;
             }
             else {
-                result = currentLine >= startLine && currentLine < endLine;
-            }
-            if (result) {
-                break;
+                result = VisitScope.CHANGED_PARENTS;
             }
         }
+        else if (Strategy.CONTEXT == strategy && containsName(
+                checkNamesForContextStrategyByTokenOrParentSet, checkName, checkShortName)) {
+            result = VisitScope.CHANGED_PARENTS;
+        }
+        else {
+            result = VisitScope.CHANGED_NODES;
+        }
         return result;
     }
 
     /**
-     * Check whether at least one line from lineRangeList is between
-     * event ast node's child nodes' min and max line number.
+     * Returns the token types of the ancestors that are the context of a check's
+     * violations.
      *
-     * @param childAstStartLine event ast node's child nodes' min line number
-     * @param childAstEndLine   event ast node's child nodes' max line number
-     * @return true if one line is between childAstStartLine and childAstEndLine line number.
+     * @param checkName simple class name of the check
+     * @return set of token types, empty if the check has no context ancestors
      */
-    private boolean lineMatching(int childAstStartLine, int childAstEndLine) {
-        boolean result = false;
-        for (List<Integer> singleLineRangeList : lineRangeList) {
-            final int startLine = singleLineRangeList.get(0) + 1;
-            int endLine = singleLineRangeList.get(1) + 1;
-            if (startLine == endLine) {
-                endLine++;
-            }
-
-            result = childAstStartLine <= startLine && startLine <= childAstEndLine
-                    || childAstStartLine <= endLine - 1 && endLine - 1 <= childAstEndLine;
+    static BitSet getContextAncestorTypes(String checkName) {
+        final BitSet result = new BitSet();
+        final BitSet tokenTypes = CHECK_TO_ANCESTOR_NODES_MAP.get(getCheckShortName(checkName));
+        if (tokenTypes != null) {
+            result.or(tokenTypes);
+        }
+        return result;
+    }
 
-            if (result) {
-                break;
-            }
+    /**
+     * Creates a set of token types indexed by token type.
+     *
+     * @param tokenTypes token types of the set
+     * @return set of token types
+     */
+    private static BitSet createTokenSet(int... tokenTypes) {
+        final BitSet result = new BitSet();
+        for (int tokenType : tokenTypes) {
+            result.set(tokenType);
         }
         return result;
     }
@@ -284,147 +402,129 @@ public final class JavaPatchFilterElement implements TreeWalkerFilter {
      */
     private boolean isMatchingByContextStrategy(TreeWalkerAuditEvent event) {
         boolean result = false;
-        if (containsShortName(supportContextStrategyChecks, event)
-                || containsShortName(checkNamesForContextStrategyByTokenOrParentSet, event)
-                || containsShortName(checkNamesForContextStrategyByTokenOrAncestorSet, event)) {
-            final DetailAST eventAst = getAncestorAst(event);
+        final BitSet contextRule = getCheckRule(event).getContextRule();
+        if (contextRule != null) {
+            final ContextIndex contextIndex = getContextIndex(event.rootAst());
+            final DetailAST eventAst = contextIndex.findNode(event.getTokenType(),
+                    event.getLine(), event.getColumnCharIndex());
 
             if (eventAst != null) {
-                final Map<String, Integer> childAstLineNoMap = getChildAstLineNo(eventAst);
-                final int childAstStartLine = childAstLineNoMap.get(MIN);
-                final int childAstEndLine = childAstLineNoMap.get(MAX);
-                result = lineMatching(childAstStartLine, childAstEndLine);
+                result = contextIndex.isChangedContext(eventAst, contextRule);
             }
         }
         return result;
     }
 
-    private DetailAST getAncestorAst(TreeWalkerAuditEvent event) {
-        DetailAST eventAst = getEventAst(event);
-        if (containsShortName(checkNamesForContextStrategyByTokenOrAncestorSet, event)) {
-            if (eventAst != null) {
-                eventAst = eventAst.getParent();
-                final List<Integer> checkAncestorNodesList =
-                        CHECK_TO_ANCESTOR_NODES_MAP.get(getCheckShortName(event));
-                while (eventAst != null && checkAncestorNodesList != null
-                        && !checkAncestorNodesList.contains(eventAst.getType())) {
-                    eventAst = eventAst.getParent();
-                }
-            }
-        }
-        else if (containsShortName(checkNamesForContextStrategyByTokenOrParentSet, event)) {
-            if (eventAst != null) {
-                eventAst = eventAst.getParent();
-            }
+    /**
+     * Returns the rule of the check that reported an event.
+     *
+     * @param event {@code TreeWalkerAuditEvent} object
+     * @return rule of the check
+     */
+    private CheckRule getCheckRule(TreeWalkerAuditEvent event) {
+        final String sourceName = event.violation().getSourceName();
+        CheckRule result = checkRules.get(sourceName);
+        if (result == null) {
+            result = createCheckRule(sourceName);
+            checkRules.putIfAbsent(sourceName, result);
         }
-        return eventAst;
+        return result;
     }
 
     /**
-     * Check whether checkNameSet contains event's check.
+     * Resolves the rule of a check from the sets of check names of this element.
      *
-     * @param checkNameSet Set of check names
-     * @param event {@code TreeWalkerAuditEvent} object
-     * @return true if set contains event's check.
+     * @param sourceName fully qualified class name of the check
+     * @return rule of the check
      */
-    private static boolean containsShortName(Set<String> checkNameSet,
-                                      TreeWalkerAuditEvent event) {
-        final String checkName = getCheckName(event);
-        final String checkShortName = getCheckShortName(event);
-        return checkNameSet.contains(checkName)
-                || checkNameSet.contains(checkShortName);
-
+    private CheckRule createCheckRule(String sourceName) {
+        final String checkName = sourceName.substring(sourceName.lastIndexOf('.') + 1);
+        final String checkShortName = getCheckShortName(checkName);
+        final boolean neverSuppressed = neverSuppressedChecks != null
+                && containsName(neverSuppressedChecks, checkName, checkShortName);
+        BitSet contextRule = null;
+        if (containsName(checkNamesForContextStrategyByTokenOrAncestorSet,
+                checkName, checkShortName)) {
+            contextRule = CHECK_TO_ANCESTOR_NODES_MAP.getOrDefault(checkShortName,
+                    ContextIndex.PARENT_CONTEXT);
+        }
+        else if (containsName(checkNamesForContextStrategyByTokenOrParentSet,
+                checkName, checkShortName)) {
+            contextRule = ContextIndex.PARENT_CONTEXT;
+        }
+        else if (containsName(supportContextStrategyChecks, checkName, checkShortName)) {
+            contextRule = ContextIndex.SELF_CONTEXT;
+        }
+        return new CheckRule(neverSuppressed, contextRule);
     }
 
-    private static String getCheckName(TreeWalkerAuditEvent event) {
-        final String[] checkNames = event.violation().getSourceName().split("\\.");
-        return checkNames[checkNames.length - 1];
+    private static boolean containsName(Set<String> checkNameSet, String checkName,
+                                        String checkShortName) {
+        return checkNameSet.contains(checkName)
+                || checkNameSet.contains(checkShortName);
     }
 
-    private static String getCheckShortName(TreeWalkerAuditEvent event) {
-        return getCheckName(event).replaceAll("Check", "");
+    private static String getCheckShortName(String checkName) {
+        return checkName.replace("Check", "");
     }
 
     /**
-     * Return event's corresponding ast node using iterative algorithm.
+     * Returns the context index of a tree for the changed lines of this element,
+     * building it the first time a context-supported check reports on the file.
+     * The index is cached per thread and replaced when another file is audited.
      *
-     * @param event {@code TreeWalkerAuditEvent} object
-     * @return DetailAST event's corresponding ast node
+     * @param rootAst root of the audited tree
+     * @return context index of the tree
      */
-    private static DetailAST getEventAst(TreeWalkerAuditEvent event) {
-        DetailAST curNode = event.rootAst();
-        DetailAST eventAst = null;
-        while (curNode != null) {
-            if (isMatchingAst(curNode, event)) {
-                eventAst = curNode;
-                break;
-            }
-            DetailAST toVisit = curNode.getFirstChild();
-            while (curNode != null && toVisit == null) {
-                toVisit = curNode.getNextSibling();
-                curNode = curNode.getParent();
-            }
-            curNode = toVisit;
+    private ContextIndex getContextIndex(DetailAST rootAst) {
+        ContextIndex result = currentContextIndex.get();
+        if (result == null || !result.isIndexOf(rootAst, lineRanges)) {
+            result = new ContextIndex(rootAst, lineRanges);
+            currentContextIndex.set(result);
         }
-        return eventAst;
+        return result;
     }
 
     /**
-     * Find min and max line numbers from AST node and its children.
-     *
-     * @param ast DetailAST event's corresponding ast node
-     * @return Map contains ast node's all child nodes' max and min line number
+     * How the filter treats the violations of one check.
      */
-    private static Map<String, Integer> getChildAstLineNo(DetailAST ast) {
-        final Map<String, Integer> childAstLineNoMap = new HashMap<>();
-        DetailAST curNode = ast;
-        childAstLineNoMap.put(MIN, curNode.getLineNo());
-        childAstLineNoMap.put(MAX, curNode.getLineNo());
-        while (curNode != null && curNode != ast.getNextSibling()) {
-            DetailAST toVisit = curNode.getFirstChild();
-            setChildAstLineNo(childAstLineNoMap, curNode);
-            setChildAstLineNo(childAstLineNoMap, toVisit);
-            while (curNode != null && toVisit == null && curNode != ast.getParent()) {
-                toVisit = curNode.getNextSibling();
-                curNode = curNode.getParent();
-            }
-            if (curNode == ast.getParent()) {
-                break;
-            }
-            curNode = toVisit;
+    private static final class CheckRule {
+
+        /** Whether the check is never suppressed in touched files. */
+        private final boolean neverSuppressed;
+
+        /** Context rule of the check, {@code null} if it does not support context. */
+        private final BitSet contextRule;
+
+        /**
+         * Creates a new {@code CheckRule} instance.
+         *
+         * @param neverSuppressed whether the check is never suppressed
+         * @param contextRule context rule of the check, may be {@code null}
+         */
+        private CheckRule(boolean neverSuppressed, BitSet contextRule) {
+            this.neverSuppressed = neverSuppressed;
+            this.contextRule = contextRule;
         }
-        return childAstLineNoMap;
-    }
 
-    /**
-     * Update childAstLineNoMap if line number of ast is smaller
-     * or larger than current min and max value.
-     *
-     * @param childAstLineNoMap Map contains ast node's all child nodes' max and min line number
-     * @param ast DetailAST event's ast node's child node
-     */
-    private static void setChildAstLineNo(Map<String, Integer> childAstLineNoMap, DetailAST ast) {
-        if (ast != null) {
-            final int lineNo = ast.getLineNo();
-            if (lineNo < childAstLineNoMap.get(MIN)) {
-                childAstLineNoMap.put(MIN, lineNo);
-            }
-            else if (lineNo > childAstLineNoMap.get(MAX)) {
-                childAstLineNoMap.put(MAX, lineNo);
-            }
+        /**
+         * Whether the check is never suppressed in touched files.
+         *
+         * @return true if the check is never suppressed
+         */
+        private boolean isNeverSuppressed() {
+            return neverSuppressed;
         }
-    }
 
-    /**
-     * Check whether AST node matches event's node.
-     *
-     * @param ast DetailAST
-     * @param event {@code TreeWalkerAuditEvent} object
-     * @return true if it is matching.
-     */
-    private static boolean isMatchingAst(DetailAST ast, TreeWalkerAuditEvent event) {
-        return ast.getType() == event.getTokenType()
-                && ast.getLineNo() == event.getLine()
-                && ast.getColumnNo() == event.getColumnCharIndex();
+        /**
+         * Returns the rule that resolves the context node of the check's violations.
+         *
+         * @return {@link ContextIndex#SELF_CONTEXT}, {@link ContextIndex#PARENT_CONTEXT},
+         *         a set of ancestor token types or {@code null} if the check
+         *         does not support context
+         */
+        private BitSet getContextRule() {
+            return contextRule;
+        }
     }
 }
@@ -0,0 +1,62 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+/**
+ * Changed lines of a single file of a patch, compiled for lookups.
+ * Line numbers are 1-based, like the line numbers of violations.
+ * Implementations are immutable and can be queried from any thread.
+ */
+public interface LineRanges {
+
+    /**
+     * Checks whether the line belongs to one of the changed ranges.
+     *
+     * @param line line number
+     * @return true if the line is changed
+     */
+    boolean containsLine(int line);
+
+    /**
+     * Checks whether the first or the last line of one of the changed ranges
+     * lies between {@code startLine} and {@code endLine}, both inclusive.
+     * This is the overlap test of the context strategy.
+     *
+     * @param startLine first line of the span
+     * @param endLine last line of the span
+     * @return true if a boundary of a changed range lies within the span
+     */
+    boolean hasBoundaryWithin(int startLine, int endLine);
+
+    /**
+     * Returns the number of changed ranges.
+     *
+     * @return number of changed ranges
+     */
+    int getRangeCount();
+
+    /**
+     * Returns the representation of these ranges.
+     *
+     * @return representation of the ranges
+     */
+    LineRangesRepresentation getRepresentation();
+
+}
@@ -0,0 +1,484 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles the edit ranges of the files of a patch into {@link LineRanges}.
+ * While the estimated heap size of the index stays within the memory budget,
+ * the ranges are kept on the heap. Once the budget is exceeded, the ranges of
+ * all files are written to a binary spill file instead, which is memory-mapped
+ * and searched in place when the index is built.
+ *
+ * <p>
+ * Ranges kept on the heap get a representation chosen per file by the shape of
+ * its changes: a few ranges are kept inline and scanned linearly, densely changed
+ * files are kept as bit sets over lines and all other files as sorted arrays.
+ * Files whose density of changed lines reaches the dense line threshold are
+ * always kept as bitmaps over lines, run-length encoded if that is smaller.
+ * </p>
+ */
+final class LineRangesIndexBuilder {
+
+    /** Estimated heap size of the element and the ranges object of a file. */
+    private static final long BYTES_PER_FILE = 256;
+
+    /** Estimated heap size of a range: first and last line, merged and as boundaries. */
+    private static final long BYTES_PER_RANGE = 16;
+
+    /** Number of bits to shift the first line of a range when packing it. */
+    private static final int FIRST_LINE_SHIFT = 32;
+
+    /** Mask of the last line of a packed range. */
+    private static final long LAST_LINE_MASK = 0xFFFF_FFFFL;
+
+    /**
+     * Maximum number of values of the spill file. The file is mapped as a whole,
+     * so its size in bytes can not exceed the maximum size of a mapped buffer.
+     */
+    private static final long MAX_SPILL_VALUES = Integer.MAX_VALUE / Integer.BYTES;
+
+    /** Message of the failure to map a spill file that is too large. */
+    private static final String TOO_LARGE_MESSAGE = "patch index is too large to be mapped";
+
+    /** Size of the buffer of the spill file. */
+    private static final int SPILL_BUFFER_SIZE = 64 * 1024;
+
+    /** Maximum number of ranges of a file that are kept inline. */
+    private static final int MAX_INLINE_RANGES = 4;
+
+    /**
+     * A file is dense if at least one in this many of the lines up to its last
+     * changed line is changed. Its bit sets then take at most as many bytes as
+     * it has changed lines.
+     */
+    private static final int DENSE_LINE_RATIO = 4;
+
+    /**
+     * Run-length encoded bitmaps are used only if they take at most the size of
+     * plain bit sets divided by this factor.
+     */
+    private static final int RUN_LENGTH_GAIN = 2;
+
+    /** Memory budget of the index in bytes. */
+    private final long maxIndexMemory;
+
+    /**
+     * Minimum density of changed lines at which the lines of a file are always
+     * kept as a bitmap.
+     */
+    private final double denseLineThreshold;
+
+    /**
+     * Whether an empty range, the position of deleted lines, matches the line
+     * that follows the deletion. Otherwise empty ranges are dropped.
+     */
+    private final boolean emptyRangeMatchesNextLine;
+
+    /** Names of the added files. */
+    private final List<String> fileNames = new ArrayList<>();
+
+    /** Representations of the built ranges, by file name. */
+    private final Map<String, LineRangesRepresentation> fileRepresentations =
+            new LinkedHashMap<>();
+
+    /** Ranges kept on the heap, before the index is spilled. */
+    private final List<SortedLineRanges> heapRanges = new ArrayList<>();
+
+    /** Offsets of the records of the files in the spill file, in values. */
+    private int[] spillOffsets = new int[0];
+
+    /** Spill file, if the index is spilled. */
+    private Path spillFile;
+
+    /** Output of the spill file, if the index is spilled. */
+    private DataOutputStream spillOutput;
+
+    /** Number of files written to the spill file. */
+    private int spilledFileCount;
+
+    /** Number of values written to the spill file. */
+    private long spillSize;
+
+    /** Number of added files. */
+    private int fileCount;
+
+    /** Number of added ranges. */
+    private long rangeCount;
+
+    /** Estimated heap size of the index. */
+    private long estimatedBytes;
+
+    /**
+     * Creates a builder.
+     *
+     * @param maxIndexMemory memory budget of the index in bytes
+     * @param denseLineThreshold minimum density of changed lines of a file, up to its
+     *                           last changed line, at which its lines are kept as a
+     *                           bitmap; values above 1 disable it
+     * @param emptyRangeMatchesNextLine whether an empty range matches the next line
+     */
+    LineRangesIndexBuilder(long maxIndexMemory, double denseLineThreshold,
+                           boolean emptyRangeMatchesNextLine) {
+        this.maxIndexMemory = maxIndexMemory;
+        this.denseLineThreshold = denseLineThreshold;
+        this.emptyRangeMatchesNextLine = emptyRangeMatchesNextLine;
+    }
+
+    /**
+     * Adds the edit ranges of the next file.
+     *
+     * @param fileName name of the file
+     * @param editRanges pairs of 0-based begin (inclusive) and end (exclusive) lines
+     * @throws IOException if the spill file can not be written, the spill file is
+     *                     deleted then
+     */
+    void add(String fileName, int[] editRanges) throws IOException {
+        final SortedLineRanges ranges = compile(editRanges, emptyRangeMatchesNextLine);
+        fileNames.add(fileName);
+        fileCount++;
+        rangeCount += ranges.getRangeCount();
+        estimatedBytes += BYTES_PER_FILE + BYTES_PER_RANGE * ranges.getRangeCount();
+        boolean added = false;
+        try {
+            if (spillOutput == null && estimatedBytes > maxIndexMemory) {
+                startSpill();
+            }
+            if (spillOutput == null) {
+                heapRanges.add(ranges);
+            }
+            else {
+                spill(ranges);
+            }
+            added = true;
+        }
+        finally {
+            if (!added) {
+                deleteSpillFile();
+            }
+        }
+    }
+
+    /**
+     * Builds the line ranges of all added files, in the order they were added.
+     *
+     * @return line ranges of the files
+     * @throws IOException if the spill file can not be mapped, the spill file is
+     *                     deleted then
+     */
+    List<LineRanges> build() throws IOException {
+        final List<LineRanges> result = new ArrayList<>(fileCount);
+        if (spillOutput == null) {
+            for (SortedLineRanges ranges : heapRanges) {
+                result.add(adapt(ranges, denseLineThreshold));
+            }
+        }
+        else {
+            final IntBuffer buffer;
+            boolean mapped = false;
+            try {
+                spillOutput.close();
+                buffer = mapSpillFile();
+                mapped = true;
+            }
+            finally {
+                if (!mapped) {
+                    deleteSpillFile();
+                }
+            }
+            for (int index = 0; index < fileCount; index++) {
+                result.add(new MappedLineRanges(buffer, spillOffsets[index]));
+            }
+        }
+        for (int index = 0; index < fileCount; index++) {
+            fileRepresentations.put(fileNames.get(index),
+                    result.get(index).getRepresentation());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the statistics of the built index.
+     *
+     * @return statistics of the index
+     */
+    PatchIndexStatistics getStatistics() {
+        final IndexRepresentation representation;
+        if (spillOutput == null) {
+            representation = IndexRepresentation.HEAP;
+        }
+        else {
+            representation = IndexRepresentation.MAPPED;
+        }
+        return new PatchIndexStatistics(fileCount, rangeCount, estimatedBytes, representation,
+                Collections.unmodifiableMap(fileRepresentations));
+    }
+
+    /**
+     * Compiles edit ranges into sorted line ranges.
+     *
+     * @param editRanges pairs of 0-based begin (inclusive) and end (exclusive) lines
+     * @param emptyRangeMatchesNextLine whether an empty range matches the next line
+     * @return compiled line ranges
+     */
+    static SortedLineRanges compile(int[] editRanges, boolean emptyRangeMatchesNextLine) {
+        final long[] packed = new long[editRanges.length / 2];
+        int count = 0;
+        for (int index = 0; index < editRanges.length; index += 2) {
+            final int begin = editRanges[index];
+            final int end = editRanges[index + 1];
+            if (begin < end) {
+                packed[count] = pack(begin + 1, end);
+                count++;
+            }
+            else if (emptyRangeMatchesNextLine) {
+                packed[count] = pack(begin + 1, begin + 1);
+                count++;
+            }
+        }
+        final long[] ranges = Arrays.copyOf(packed, count);
+        Arrays.sort(ranges);
+
+        final int[] boundaries = new int[count * 2];
+        final int[] starts = new int[count];
+        final int[] ends = new int[count];
+        int mergedCount = 0;
+        for (int index = 0; index < count; index++) {
+            final int first = (int) (ranges[index] >>> FIRST_LINE_SHIFT);
+            final int last = (int) (ranges[index] & LAST_LINE_MASK);
+            boundaries[index * 2] = first;
+            boundaries[index * 2 + 1] = last;
+            if (mergedCount > 0 && first <= ends[mergedCount - 1] + 1) {
+                ends[mergedCount - 1] = Math.max(ends[mergedCount - 1], last);
+            }
+            else {
+                starts[mergedCount] = first;
+                ends[mergedCount] = last;
+                mergedCount++;
+            }
+        }
+        Arrays.sort(boundaries);
+        return new SortedLineRanges(Arrays.copyOf(starts, mergedCount),
+                Arrays.copyOf(ends, mergedCount), boundaries, count);
+    }
+
+    /**
+     * Compiles boxed edit ranges into line ranges of the representation that
+     * fits their shape.
+     *
+     * @param lineRangeList list of 0-based begin (inclusive) and end (exclusive) lines
+     * @param emptyRangeMatchesNextLine whether an empty range matches the next line
+     * @return compiled line ranges
+     */
+    static LineRanges compile(List<List<Integer>> lineRangeList,
+                              boolean emptyRangeMatchesNextLine) {
+        final int[] editRanges = new int[lineRangeList.size() * 2];
+        for (int index = 0; index < lineRangeList.size(); index++) {
+            editRanges[index * 2] = lineRangeList.get(index).get(0);
+            editRanges[index * 2 + 1] = lineRangeList.get(index).get(1);
+        }
+        return adapt(compile(editRanges, emptyRangeMatchesNextLine), Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Chooses the representation of the ranges of a file by its number of ranges
+     * and the density of its changed lines.
+     *
+     * @param ranges compiled line ranges
+     * @param denseLineThreshold minimum density of changed lines at which the lines
+     *                           are kept as a bitmap
+     * @return line ranges of the chosen representation
+     */
+    static LineRanges adapt(SortedLineRanges ranges, double denseLineThreshold) {
+        final int[] starts = ranges.getStarts();
+        final int[] ends = ranges.getEnds();
+        final LineRanges result;
+        if (starts.length > 0 && (double) countChangedLines(starts, ends)
+                / ends[ends.length - 1] >= denseLineThreshold) {
+            result = createBitmapRanges(ranges);
+        }
+        else if (ranges.getRangeCount() <= MAX_INLINE_RANGES) {
+            final int[] inlineRanges = new int[starts.length * 2];
+            for (int index = 0; index < starts.length; index++) {
+                inlineRanges[index * 2] = starts[index];
+                inlineRanges[index * 2 + 1] = ends[index];
+            }
+            result = new InlineLineRanges(inlineRanges, ranges.getBoundaries(),
+                    ranges.getRangeCount());
+        }
+        else if (countChangedLines(starts, ends) * DENSE_LINE_RATIO >= ends[ends.length - 1]) {
+            result = createBitSetRanges(ranges);
+        }
+        else {
+            result = ranges;
+        }
+        return result;
+    }
+
+    /**
+     * Counts the changed lines of merged ranges.
+     *
+     * @param starts first lines of the merged ranges
+     * @param ends last lines of the merged ranges
+     * @return number of changed lines
+     */
+    private static long countChangedLines(int[] starts, int[] ends) {
+        long result = 0;
+        for (int index = 0; index < starts.length; index++) {
+            result += ends[index] - starts[index] + 1;
+        }
+        return result;
+    }
+
+    /**
+     * Keeps the ranges as plain bit sets over lines.
+     *
+     * @param ranges compiled line ranges, not empty
+     * @return line ranges backed by bit sets
+     */
+    private static BitSetLineRanges createBitSetRanges(SortedLineRanges ranges) {
+        return new BitSetLineRanges(createLineSet(ranges), createBoundarySet(ranges),
+                ranges.getRangeCount());
+    }
+
+    /**
+     * Keeps the ranges as bitmaps over lines, run-length encoded if that is
+     * considerably smaller than plain bit sets.
+     *
+     * @param ranges compiled line ranges, not empty
+     * @return line ranges backed by bitmaps
+     */
+    private static LineRanges createBitmapRanges(SortedLineRanges ranges) {
+        final BitSet lines = createLineSet(ranges);
+        final BitSet boundaries = createBoundarySet(ranges);
+        final RunLengthBitmap lineRuns = RunLengthBitmap.of(lines);
+        final RunLengthBitmap boundaryRuns = RunLengthBitmap.of(boundaries);
+        final long bitSetBytes = (long) (lines.length() + boundaries.length()) / Byte.SIZE;
+        final LineRanges result;
+        if ((lineRuns.getSizeInBytes() + boundaryRuns.getSizeInBytes()) * RUN_LENGTH_GAIN
+                <= bitSetBytes) {
+            result = new RunLengthLineRanges(lineRuns, boundaryRuns, ranges.getRangeCount());
+        }
+        else {
+            result = new BitSetLineRanges(lines, boundaries, ranges.getRangeCount());
+        }
+        return result;
+    }
+
+    private static BitSet createLineSet(SortedLineRanges ranges) {
+        final int[] starts = ranges.getStarts();
+        final int[] ends = ranges.getEnds();
+        final BitSet result = new BitSet(ends[ends.length - 1] + 1);
+        for (int index = 0; index < starts.length; index++) {
+            result.set(starts[index], ends[index] + 1);
+        }
+        return result;
+    }
+
+    private static BitSet createBoundarySet(SortedLineRanges ranges) {
+        final int[] ends = ranges.getEnds();
+        final BitSet result = new BitSet(ends[ends.length - 1] + 1);
+        for (int boundary : ranges.getBoundaries()) {
+            result.set(boundary);
+        }
+        return result;
+    }
+
+    private static long pack(int first, int last) {
+        return (long) first << FIRST_LINE_SHIFT | last;
+    }
+
+    private void startSpill() throws IOException {
+        spillFile = Files.createTempFile("patch-index", ".bin");
+        spillOutput = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(spillFile), SPILL_BUFFER_SIZE));
+        spillOffsets = new int[Math.max(fileCount, 1) * 2];
+        for (SortedLineRanges ranges : heapRanges) {
+            spill(ranges);
+        }
+        heapRanges.clear();
+    }
+
+    private void spill(SortedLineRanges ranges) throws IOException {
+        if (spilledFileCount == spillOffsets.length) {
+            spillOffsets = Arrays.copyOf(spillOffsets, spilledFileCount * 2);
+        }
+        spillOffsets[spilledFileCount] = (int) spillSize;
+        spilledFileCount++;
+        spillSize += ranges.writeTo(spillOutput);
+        if (spillSize > MAX_SPILL_VALUES) {
+            throw new IOException(TOO_LARGE_MESSAGE);
+        }
+    }
+
+    private IntBuffer mapSpillFile() throws IOException {
+        final IntBuffer buffer;
+        try (FileChannel channel = FileChannel.open(spillFile, StandardOpenOption.READ)) {
+            if (channel.size() > MAX_SPILL_VALUES * Integer.BYTES) {
+                throw new IOException(TOO_LARGE_MESSAGE);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.BIG_ENDIAN).asIntBuffer();
+        }
+        deleteSpillFile();
+        return buffer;
+    }
+
+    /**
+     * Closes the output of the spill file and deletes the file. A mapped spill
+     * file stays readable until its buffer is released.
+     */
+    private void deleteSpillFile() {
+        if (spillOutput != null) {
+            try {
+                spillOutput.close();
+            }
+            catch (IOException exception) {
+                // the file is deleted anyway
+            }
+        }
+        if (spillFile != null) {
+            try {
+                Files.deleteIfExists(spillFile);
+            }
+            catch (IOException exception) {
+                // some platforms do not allow deleting a mapped file
+                spillFile.toFile().deleteOnExit();
+            }
+        }
+    }
+
+}
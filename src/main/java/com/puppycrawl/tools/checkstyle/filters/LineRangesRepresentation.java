@@ -0,0 +1,53 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+/**
+ * Representation chosen for the changed lines of a single file of a patch.
+ */
+public enum LineRangesRepresentation {
+    /**
+     * A few ranges kept in one small array that is scanned linearly.
+     */
+    INLINE,
+
+    /**
+     * Ranges kept in sorted arrays that are searched with binary search.
+     */
+    SORTED,
+
+    /**
+     * Changed lines and range boundaries kept as bit sets indexed by line,
+     * used for files whose lines are densely changed.
+     */
+    BITSET,
+
+    /**
+     * Changed lines and range boundaries kept as run-length encoded bitmaps,
+     * used for large densely changed files when they are smaller than bit sets.
+     */
+    RUN_LENGTH,
+
+    /**
+     * Ranges kept in a memory-mapped spill file, see
+     * {@link IndexRepresentation#MAPPED}.
+     */
+    MAPPED
+}
@@ -19,19 +19,38 @@
 
 package com.puppycrawl.tools.checkstyle.filters;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import org.eclipse.jgit.diff.Edit;
-import org.eclipse.jgit.diff.EditList;
 import org.eclipse.jgit.patch.FileHeader;
 import org.eclipse.jgit.patch.HunkHeader;
+import org.eclipse.jgit.patch.Patch;
 
 /**
  * A utils class to help load patch file.
  */
 public class LoadPatchFileUtils {
+    /**
+     * Size of the buffers used while reading and decompressing patch files.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Initial capacity of the array of edit ranges of a file.
+     */
+    private static final int INITIAL_EDIT_RANGES_SIZE = 16;
+
+    /**
+     * Magic bytes that start a xz stream.
+     */
+    private static final byte[] XZ_MAGIC = {(byte) 0xFD, '7', 'z', 'X', 'Z', 0};
+
     /**
      * FileHeader to load.
      */
@@ -53,6 +72,60 @@ public class LoadPatchFileUtils {
         this.strategy = strategy;
     }
 
+    /**
+     * Wraps the raw patch stream into the stream that is handed to the JGit parser.
+     * Gzip-compressed patches are detected by their magic bytes and decompressed
+     * on the fly, so the decompressed content never has to be written to disk.
+     * CR characters are filtered out of the result.
+     *
+     * @param input raw patch content, which is closed when the result is closed
+     * @return stream of the uncompressed patch text
+     * @throws IOException if the stream can not be read or is xz-compressed
+     */
+    public static InputStream openPatchStream(InputStream input) throws IOException {
+        final BufferedInputStream buffered = new BufferedInputStream(input, BUFFER_SIZE);
+        buffered.mark(XZ_MAGIC.length);
+        final byte[] magic = buffered.readNBytes(XZ_MAGIC.length);
+        buffered.reset();
+        final InputStream patchStream;
+        if (isGzipMagic(magic)) {
+            patchStream = new GZIPInputStream(buffered, BUFFER_SIZE);
+        }
+        else if (Arrays.equals(magic, XZ_MAGIC)) {
+            throw new IOException("xz-compressed patch files are not supported, "
+                    + "please use gzip compression");
+        }
+        else {
+            patchStream = buffered;
+        }
+        return new CrFilterInputStream(patchStream);
+    }
+
+    /**
+     * Parses the patch provided by the source.
+     *
+     * @param patchSource source of the patch
+     * @return file headers of the patch
+     * @throws IOException if the patch can not be read
+     */
+    public static List<? extends FileHeader> loadFileHeaders(PatchSource patchSource)
+            throws IOException {
+        try (InputStream sourceStream = patchSource.openStream();
+             InputStream is = openPatchStream(sourceStream)) {
+            final Patch patch = new Patch();
+            patch.parse(is);
+            return patch.getFiles();
+        }
+    }
+
+    private static boolean isGzipMagic(byte[] magic) {
+        final int byteMask = 0xFF;
+        final int bitsInByte = 8;
+        return magic.length >= 2
+                && ((magic[1] & byteMask) << bitsInByte | magic[0] & byteMask)
+                    == GZIPInputStream.GZIP_MAGIC;
+    }
+
     /**
      * Get file name from FileHeader.
      *
@@ -68,50 +141,55 @@ public class LoadPatchFileUtils {
      * @return List
      */
     public List<List<Integer>> getLineRangeList() {
-        final List<List<Integer>> lineRangeList = new ArrayList<>();
-        if (!"RENAME".equals(fileHeader.getChangeType().name())) {
+        final int[] editRanges = getEditRanges();
+        final List<List<Integer>> lineRangeList = new ArrayList<>(editRanges.length / 2);
+        for (int index = 0; index < editRanges.length; index += 2) {
+            lineRangeList.add(Arrays.asList(editRanges[index], editRanges[index + 1]));
+        }
+        return lineRangeList;
+    }
+
+    /**
+     * Get the line ranges of the edits accepted by the strategy from FileHeader,
+     * without boxing. Ranges are stored as pairs of 0-based begin (inclusive)
+     * and end (exclusive) lines of the new file. Binary files have no ranges, their
+     * hunks are not decoded.
+     *
+     * @return flat array of begin and end lines
+     */
+    public int[] getEditRanges() {
+        int[] editRanges = new int[INITIAL_EDIT_RANGES_SIZE];
+        int size = 0;
+        if (fileHeader.getPatchType() == FileHeader.PatchType.UNIFIED
+                && !"RENAME".equals(fileHeader.getChangeType().name())) {
             for (HunkHeader hunkHeader : fileHeader.getHunks()) {
-                final EditList edits = hunkHeader.toEditList();
-                for (Edit edit : edits) {
-                    addSingleLineRange(lineRangeList, edit);
+                for (Edit edit : hunkHeader.toEditList()) {
+                    if (isAccepted(edit.getType())) {
+                        if (size == editRanges.length) {
+                            editRanges = Arrays.copyOf(editRanges, size * 2);
+                        }
+                        editRanges[size] = edit.getBeginB();
+                        editRanges[size + 1] = edit.getEndB();
+                        size += 2;
+                    }
                 }
             }
         }
-        return lineRangeList;
+        return Arrays.copyOf(editRanges, size);
     }
 
-    private void addSingleLineRange(List<List<Integer>> lineRangeList, Edit edit) {
+    private boolean isAccepted(Edit.Type type) {
+        final boolean result;
         if (Strategy.NEWLINE == strategy) {
-            final List<Integer> lineRange = getLineRange(edit,
-                    Arrays.asList(Edit.Type.INSERT));
-            if (lineRange != null) {
-                lineRangeList.add(lineRange);
-            }
+            result = type == Edit.Type.INSERT;
         }
         else if (Strategy.PATCHEDLINE == strategy) {
-            final List<Integer> lineRange = getLineRange(edit,
-                    Arrays.asList(Edit.Type.INSERT, Edit.Type.REPLACE));
-            if (lineRange != null) {
-                lineRangeList.add(lineRange);
-            }
+            result = type == Edit.Type.INSERT || type == Edit.Type.REPLACE;
         }
         else {
-            final List<Integer> lineRange = getLineRange(edit,
-                    Arrays.asList(Edit.Type.INSERT, Edit.Type.REPLACE,
-                            Edit.Type.DELETE));
-            if (lineRange != null) {
-                lineRangeList.add(lineRange);
-            }
-        }
-    }
-
-    private static List<Integer> getLineRange(Edit edit, List<Edit.Type> typeList) {
-        List<Integer> lineRange = null;
-        if (typeList.contains(edit.getType())) {
-            lineRange = new ArrayList<>();
-            lineRange.add(edit.getBeginB());
-            lineRange.add(edit.getEndB());
+            result = type == Edit.Type.INSERT || type == Edit.Type.REPLACE
+                    || type == Edit.Type.DELETE;
         }
-        return lineRange;
+        return result;
     }
 }
@@ -0,0 +1,114 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.nio.IntBuffer;
+
+/**
+ * Line ranges stored in a memory-mapped spill file, used when the index of a
+ * patch would not fit into the configured memory budget. The record of a file
+ * starts at {@code offset} and consists of the number of merged ranges, the
+ * number of boundaries, the number of original ranges, the first lines and
+ * the last lines of the merged ranges and the sorted boundaries.
+ */
+final class MappedLineRanges implements LineRanges {
+
+    /** Number of header values at the start of a record. */
+    static final int HEADER_SIZE = 3;
+
+    /** Mapped content of the spill file. */
+    private final IntBuffer buffer;
+
+    /** Index of the first value of the record of the file. */
+    private final int offset;
+
+    /** Number of merged ranges. */
+    private final int mergedCount;
+
+    /** Number of boundaries. */
+    private final int boundaryCount;
+
+    /** Number of original ranges. */
+    private final int rangeCount;
+
+    /**
+     * Creates line ranges over a record of the spill file.
+     *
+     * @param buffer mapped content of the spill file
+     * @param offset index of the first value of the record
+     */
+    MappedLineRanges(IntBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        mergedCount = buffer.get(offset);
+        boundaryCount = buffer.get(offset + 1);
+        rangeCount = buffer.get(offset + 2);
+    }
+
+    @Override
+    public boolean containsLine(int line) {
+        final int startsOffset = offset + HEADER_SIZE;
+        final int previous = upperBound(startsOffset, mergedCount, line) - 1;
+        return previous >= 0
+                && line <= buffer.get(startsOffset + mergedCount + previous);
+    }
+
+    @Override
+    public boolean hasBoundaryWithin(int startLine, int endLine) {
+        final int boundariesOffset = offset + HEADER_SIZE + 2 * mergedCount;
+        final int index = upperBound(boundariesOffset, boundaryCount, startLine - 1);
+        return index < boundaryCount && buffer.get(boundariesOffset + index) <= endLine;
+    }
+
+    @Override
+    public int getRangeCount() {
+        return rangeCount;
+    }
+
+    @Override
+    public LineRangesRepresentation getRepresentation() {
+        return LineRangesRepresentation.MAPPED;
+    }
+
+    /**
+     * Finds the number of values in the sorted section that are less than or
+     * equal to the key.
+     *
+     * @param sectionOffset index of the first value of the section
+     * @param length number of values in the section
+     * @param key value to search
+     * @return index of the first value greater than the key
+     */
+    private int upperBound(int sectionOffset, int length, int key) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            final int middle = low + high >>> 1;
+            if (buffer.get(sectionOffset + middle) <= key) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+}
@@ -0,0 +1,191 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+
+/**
+ * Watches a patch file and rebuilds the index of a filter when the file changes.
+ * The watcher runs on a daemon thread. Change events are confirmed by comparing
+ * the modification time and the size of the file with the values seen at the
+ * last load, so that spurious events do not trigger a rebuild. If the rebuild
+ * fails, for example because the file is still being written, the failure is
+ * logged and the filter keeps its previous index until the next change.
+ */
+final class PatchFileWatcher implements Closeable, Runnable {
+
+    /**
+     * Time to wait for further events before reloading, so that a file written
+     * in several chunks is loaded once.
+     */
+    private static final long SETTLE_MILLIS = 100;
+
+    /** Logger of failed reloads. */
+    private static final Logger LOG = Logger.getLogger(PatchFileWatcher.class.getName());
+
+    /** Watched patch file. */
+    private final Path patchFile;
+
+    /** Rebuilds the index of the filter. */
+    private final Reloader reloader;
+
+    /** Service that reports changes in the directory of the patch file. */
+    private final WatchService watchService;
+
+    /** Modification time of the patch file at the last load. */
+    private long lastModified;
+
+    /** Size of the patch file at the last load. */
+    private long size;
+
+    /**
+     * Registers a watcher for the patch file and records its current state.
+     * The watcher does not run until {@link #start()} is called.
+     *
+     * @param fileName name of the patch file
+     * @param reloader rebuilds the index of the filter
+     * @throws IOException if the directory of the patch file can not be watched
+     */
+    PatchFileWatcher(String fileName, Reloader reloader) throws IOException {
+        patchFile = Paths.get(fileName).toAbsolutePath();
+        this.reloader = reloader;
+        watchService = FileSystems.getDefault().newWatchService();
+        patchFile.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        isChanged();
+    }
+
+    /**
+     * Starts watching on a daemon thread.
+     */
+    void start() {
+        final Thread thread = new Thread(this, "patch-file-watcher-" + patchFile.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                final WatchKey key = watchService.take();
+                boolean relevant = containsPatchFileEvent(key);
+                key.reset();
+                WatchKey nextKey = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                while (nextKey != null) {
+                    relevant |= containsPatchFileEvent(nextKey);
+                    nextKey.reset();
+                    nextKey = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                if (relevant && isChanged()) {
+                    reload();
+                }
+            }
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        catch (ClosedWatchServiceException exception) {
+            // the watcher was closed, nothing more to do
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private void reload() {
+        try {
+            reloader.reload();
+        }
+        catch (CheckstyleException exception) {
+            // the previous index stays in use until the next change of the file
+            LOG.log(Level.WARNING, "Failed to reload patch file " + patchFile
+                    + ", keeping the previous index", exception);
+            size = -1;
+        }
+    }
+
+    private boolean containsPatchFileEvent(WatchKey key) {
+        boolean result = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || patchFile.getFileName().equals(event.context())) {
+                result = true;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compares the modification time and the size of the patch file with the
+     * values recorded at the previous call, and records the current ones.
+     *
+     * @return true if the file exists and differs from the recorded state
+     */
+    private boolean isChanged() {
+        boolean result = false;
+        try {
+            final long currentModified = Files.getLastModifiedTime(patchFile).toMillis();
+            final long currentSize = Files.size(patchFile);
+            result = currentModified != lastModified || currentSize != size;
+            lastModified = currentModified;
+            size = currentSize;
+        }
+        catch (IOException exception) {
+            // the file is missing or being replaced, wait for the next event
+            lastModified = 0;
+            size = -1;
+        }
+        return result;
+    }
+
+    /**
+     * Rebuilds the index of a filter from the patch file.
+     */
+    @FunctionalInterface
+    interface Reloader {
+
+        /**
+         * Rebuilds the index and publishes it to the filter.
+         *
+         * @throws CheckstyleException if the patch file can not be loaded
+         */
+        void reload() throws CheckstyleException;
+
+    }
+
+}
@@ -19,8 +19,10 @@
 
 package com.puppycrawl.tools.checkstyle.filters;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
@@ -28,18 +30,42 @@ import com.puppycrawl.tools.checkstyle.api.Filter;
 
 /**
  * A filter set applies filters to AuditEvents.
+ * The set is copy-on-write: modifications replace the backing array, so
+ * {@link #accept(AuditEvent)} can be called from any number of threads
+ * without locking while the set is being modified.
  */
 public final class PatchFilterSet implements Filter {
-    /** Filter set. */
-    private final Set<Filter> filters = new HashSet<>();
+    /** Empty filter array. */
+    private static final Filter[] NO_FILTERS = new Filter[0];
+
+    /** Filter set, replaced as a whole on every modification. */
+    private volatile Filter[] filters;
+
+    /** Creates an empty filter set. */
+    public PatchFilterSet() {
+        filters = NO_FILTERS;
+    }
+
+    /**
+     * Creates a filter set holding the given filters.
+     *
+     * @param filters the Filters of the set.
+     */
+    public PatchFilterSet(Collection<? extends Filter> filters) {
+        this.filters = new LinkedHashSet<Filter>(filters).toArray(NO_FILTERS);
+    }
 
     /**
      * Adds a Filter to the set.
      *
      * @param filter the Filter to add.
      */
-    public void addFilter(Filter filter) {
-        filters.add(filter);
+    public synchronized void addFilter(Filter filter) {
+        if (indexOf(filter) < 0) {
+            final Filter[] newFilters = Arrays.copyOf(filters, filters.length + 1);
+            newFilters[filters.length] = filter;
+            filters = newFilters;
+        }
     }
 
     /**
@@ -47,8 +73,15 @@ public final class PatchFilterSet implements Filter {
      *
      * @param filter filter to remove.
      */
-    public void removeFilter(Filter filter) {
-        filters.remove(filter);
+    public synchronized void removeFilter(Filter filter) {
+        final int index = indexOf(filter);
+        if (index >= 0) {
+            final Filter[] newFilters = new Filter[filters.length - 1];
+            System.arraycopy(filters, 0, newFilters, 0, index);
+            System.arraycopy(filters, index + 1, newFilters, index,
+                    filters.length - index - 1);
+            filters = newFilters;
+        }
     }
 
     /**
@@ -57,12 +90,12 @@ public final class PatchFilterSet implements Filter {
      * @return the Filters of the filter set.
      */
     public Set<Filter> getFilters() {
-        return Collections.unmodifiableSet(filters);
+        return Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(filters)));
     }
 
     @Override
     public String toString() {
-        return filters.toString();
+        return Arrays.toString(filters);
     }
 
     /**
@@ -77,8 +110,9 @@ public final class PatchFilterSet implements Filter {
      */
     @Override
     public boolean accept(AuditEvent event) {
+        final Filter[] currentFilters = filters;
         boolean result = false;
-        for (Filter filter : filters) {
+        for (Filter filter : currentFilters) {
             if (filter.accept(event)) {
                 result = true;
                 break;
@@ -88,8 +122,19 @@ public final class PatchFilterSet implements Filter {
     }
 
     /** Clears the FilterSet. */
-    public void clear() {
-        filters.clear();
+    public synchronized void clear() {
+        filters = NO_FILTERS;
+    }
+
+    private int indexOf(Filter filter) {
+        int result = -1;
+        for (int index = 0; index < filters.length; index++) {
+            if (filters[index].equals(filter)) {
+                result = index;
+                break;
+            }
+        }
+        return result;
     }
 
 }
@@ -0,0 +1,68 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+/**
+ * Immutable compiled state of a patch filter: the filters built from the patch
+ * together with the statistics of the load that produced them. A filter keeps
+ * a single volatile reference to its snapshot, so a reload publishes the new
+ * filters and statistics atomically, and threads calling {@code accept}
+ * concurrently always work on one consistent snapshot without locking.
+ *
+ * @param <T> type of the compiled filters
+ */
+final class PatchIndexSnapshot<T> {
+
+    /** Compiled filters, never modified after construction. */
+    private final T filters;
+
+    /** Statistics of the load. */
+    private final PatchIndexStatistics statistics;
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param filters compiled filters, must not be modified afterwards
+     * @param statistics statistics of the load
+     */
+    PatchIndexSnapshot(T filters, PatchIndexStatistics statistics) {
+        this.filters = filters;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Returns the compiled filters.
+     *
+     * @return compiled filters
+     */
+    T getFilters() {
+        return filters;
+    }
+
+    /**
+     * Returns the statistics of the load.
+     *
+     * @return statistics of the load
+     */
+    PatchIndexStatistics getStatistics() {
+        return statistics;
+    }
+
+}
@@ -0,0 +1,119 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.util.Map;
+
+/**
+ * Statistics of the last load of a patch index.
+ */
+public final class PatchIndexStatistics {
+
+    /** Statistics of a filter that has not loaded a patch. */
+    static final PatchIndexStatistics EMPTY =
+            new PatchIndexStatistics(0, 0, 0, IndexRepresentation.HEAP, Map.of());
+
+    /** Number of indexed files. */
+    private final int fileCount;
+
+    /** Number of indexed line ranges. */
+    private final long rangeCount;
+
+    /** Estimated heap size of the index if it was kept on the heap. */
+    private final long estimatedBytes;
+
+    /** Representation chosen for the index. */
+    private final IndexRepresentation representation;
+
+    /** Representations of the line ranges of the indexed files, by file name. */
+    private final Map<String, LineRangesRepresentation> fileRepresentations;
+
+    /**
+     * Creates statistics.
+     *
+     * @param fileCount number of indexed files
+     * @param rangeCount number of indexed line ranges
+     * @param estimatedBytes estimated heap size of the index
+     * @param representation representation chosen for the index
+     * @param fileRepresentations representations of the line ranges by file name
+     */
+    PatchIndexStatistics(int fileCount, long rangeCount, long estimatedBytes,
+                         IndexRepresentation representation,
+                         Map<String, LineRangesRepresentation> fileRepresentations) {
+        this.fileCount = fileCount;
+        this.rangeCount = rangeCount;
+        this.estimatedBytes = estimatedBytes;
+        this.representation = representation;
+        this.fileRepresentations = fileRepresentations;
+    }
+
+    /**
+     * Returns the number of indexed files.
+     *
+     * @return number of indexed files
+     */
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    /**
+     * Returns the number of indexed line ranges.
+     *
+     * @return number of indexed line ranges
+     */
+    public long getRangeCount() {
+        return rangeCount;
+    }
+
+    /**
+     * Returns the estimated heap size of the index if it was kept on the heap.
+     *
+     * @return estimated size in bytes
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Returns the representation chosen for the index.
+     *
+     * @return representation of the index
+     */
+    public IndexRepresentation getRepresentation() {
+        return representation;
+    }
+
+    /**
+     * Returns the representations chosen for the line ranges of the indexed
+     * files, by file name in the order of the patch.
+     *
+     * @return unmodifiable map of the representations
+     */
+    public Map<String, LineRangesRepresentation> getFileRepresentations() {
+        return fileRepresentations;
+    }
+
+    @Override
+    public String toString() {
+        return "files=" + fileCount + ", ranges=" + rangeCount
+                + ", estimatedBytes=" + estimatedBytes + ", representation=" + representation;
+    }
+
+}
@@ -0,0 +1,164 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jgit.patch.FileHeader;
+
+/**
+ * Decides at load time which files of a patch are indexed. Files are matched
+ * once per {@code FileHeader} against include and exclude globs. A glob
+ * without {@code /} is matched against the file name only, other globs against
+ * the whole path of the file in the patch. The same globs can select the paths
+ * of commits that patches are generated for.
+ */
+public final class PatchPathFilter {
+
+    /** Separator of directories in patch paths. */
+    private static final String SEPARATOR = "/";
+
+    /** Matchers of the included paths, empty to include all paths. */
+    private final List<Matcher> includes;
+
+    /** Matchers of the excluded paths. */
+    private final List<Matcher> excludes;
+
+    /**
+     * Creates a filter.
+     *
+     * @param includeGlobs globs of included paths, null or empty to include all paths
+     * @param excludeGlobs globs of excluded paths, may be null
+     */
+    public PatchPathFilter(List<String> includeGlobs, List<String> excludeGlobs) {
+        includes = createMatchers(includeGlobs);
+        excludes = createMatchers(excludeGlobs);
+    }
+
+    /**
+     * Checks whether the file of the header has to be indexed.
+     *
+     * @param fileHeader header of a file in the patch
+     * @return true if the file is included and not excluded
+     */
+    boolean isIndexed(FileHeader fileHeader) {
+        return isIncluded(fileHeader.getNewPath());
+    }
+
+    /**
+     * Checks whether a path is included and not excluded.
+     *
+     * @param path path with {@code /} separators, relative to the repository
+     * @return true if the path is included and not excluded
+     */
+    public boolean isIncluded(String path) {
+        boolean result;
+        try {
+            final Path matchedPath = Paths.get(path);
+            result = (includes.isEmpty() || matchesAny(includes, matchedPath))
+                    && !matchesAny(excludes, matchedPath);
+        }
+        catch (InvalidPathException exception) {
+            // a path that is not valid on this platform matches no glob
+            result = includes.isEmpty();
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the filter includes every path.
+     *
+     * @return true if there is neither an include nor an exclude glob
+     */
+    public boolean isIncludingAll() {
+        return includes.isEmpty() && excludes.isEmpty();
+    }
+
+    private static boolean matchesAny(List<Matcher> matchers, Path path) {
+        boolean result = false;
+        for (Matcher matcher : matchers) {
+            if (matcher.matches(path)) {
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static List<Matcher> createMatchers(List<String> globs) {
+        final List<Matcher> matchers = new ArrayList<>();
+        if (globs != null) {
+            final FileSystem fileSystem = FileSystems.getDefault();
+            for (String glob : globs) {
+                final String trimmedGlob = glob.trim();
+                if (!trimmedGlob.isEmpty()) {
+                    matchers.add(new Matcher(
+                            fileSystem.getPathMatcher("glob:" + trimmedGlob),
+                            !trimmedGlob.contains(SEPARATOR)));
+                }
+            }
+        }
+        return Collections.unmodifiableList(matchers);
+    }
+
+    /**
+     * Glob matcher that remembers whether it applies to file names only.
+     */
+    private static final class Matcher {
+
+        /** Matcher of the glob. */
+        private final PathMatcher pathMatcher;
+
+        /** Whether only the file name is matched. */
+        private final boolean fileNameOnly;
+
+        /**
+         * Creates a matcher.
+         *
+         * @param pathMatcher matcher of the glob
+         * @param fileNameOnly whether only the file name is matched
+         */
+        private Matcher(PathMatcher pathMatcher, boolean fileNameOnly) {
+            this.pathMatcher = pathMatcher;
+            this.fileNameOnly = fileNameOnly;
+        }
+
+        private boolean matches(Path path) {
+            final Path matchedPath;
+            if (fileNameOnly) {
+                matchedPath = path.getFileName();
+            }
+            else {
+                matchedPath = path;
+            }
+            return matchedPath != null && pathMatcher.matches(matchedPath);
+        }
+
+    }
+
+}
@@ -0,0 +1,49 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Source of patch content that the patch filters load their index from.
+ * Implementations exist for files, byte arrays, readable channels and
+ * standard input, so that filters can be built programmatically without
+ * writing the patch to a temporary file first.
+ */
+public interface PatchSource {
+
+    /**
+     * Opens a new stream over the raw patch content. The content may be
+     * gzip-compressed, it is decompressed by the loader.
+     *
+     * @return stream over the patch content, closed by the caller
+     * @throws IOException if the patch content can not be opened
+     */
+    InputStream openStream() throws IOException;
+
+    /**
+     * Returns a human readable location of the patch, used in error messages.
+     *
+     * @return location of the patch
+     */
+    String getLocation();
+
+}
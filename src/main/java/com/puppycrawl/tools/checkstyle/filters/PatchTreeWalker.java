@@ -0,0 +1,912 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.puppycrawl.tools.checkstyle.AbstractAutomaticBean;
+import com.puppycrawl.tools.checkstyle.DefaultContext;
+import com.puppycrawl.tools.checkstyle.Definitions;
+import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
+import com.puppycrawl.tools.checkstyle.JavaParser;
+import com.puppycrawl.tools.checkstyle.ModuleFactory;
+import com.puppycrawl.tools.checkstyle.StatelessCheck;
+import com.puppycrawl.tools.checkstyle.TreeWalker;
+import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
+import com.puppycrawl.tools.checkstyle.TreeWalkerFilter;
+import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.Context;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.ExternalResourceHolder;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
+
+/**
+ * {@code TreeWalker} variant that notifies checks only about the AST nodes near the
+ * lines changed by a patch. It uses the compiled index of its
+ * {@code SuppressionJavaPatchFilter} child and the context rules of the filter's
+ * strategy to skip subtrees that cannot produce a violation the filter accepts:
+ * a check visits the nodes whose subtree spans a changed line, the children of
+ * such nodes if its context is the parent node, and the whole subtree of a changed
+ * context ancestor if it is configured for the ancestor context.
+ *
+ * <p>Checks that are not annotated as {@code StatelessCheck} keep state across the
+ * file, so they visit every node, like never suppressed checks and the checks
+ * listed in {@code fullWalkChecks}. The span of a node includes the Javadoc before
+ * it, so a patch that only changes a Javadoc still reaches the checks of the
+ * documented node. Files that the patch does not touch are not parsed at all.
+ * Without a {@code SuppressionJavaPatchFilter} child every check visits every node,
+ * as in {@code TreeWalker}.</p>
+ */
+@FileStatefulCheck
+public final class PatchTreeWalker extends AbstractFileSetCheck
+        implements ExternalResourceHolder {
+
+    /** Initial capacity of the per-node arrays. */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** Maps from token id to ordinary checks. */
+    private final Map<Integer, Set<CheckEntry>> tokenToOrdinaryChecks = new HashMap<>();
+
+    /** Maps from token id to comment checks. */
+    private final Map<Integer, Set<CheckEntry>> tokenToCommentChecks = new HashMap<>();
+
+    /** Registered ordinary checks, that don't use comment nodes. */
+    private final Set<CheckEntry> ordinaryChecks = createNewCheckSortedSet();
+
+    /** Registered comment checks. */
+    private final Set<CheckEntry> commentChecks = createNewCheckSortedSet();
+
+    /** The ast filters. */
+    private final Set<TreeWalkerFilter> filters = new HashSet<>();
+
+    /** The sorted set of violations. */
+    private final SortedSet<Violation> violations = new TreeSet<>();
+
+    /** Checks that visit every node although they could be restricted. */
+    private final Set<String> fullWalkChecks = new HashSet<>();
+
+    /** Checks of the current walk that expand below changed context ancestors. */
+    private final List<CheckEntry> ancestorScopedChecks = new ArrayList<>();
+
+    /** Patch filter whose index restricts the walk, {@code null} if there is none. */
+    private SuppressionJavaPatchFilter patchFilter;
+
+    /** Elements of the patch filter that match the current file. */
+    private List<JavaPatchFilterElement> fileElements;
+
+    /** Context of child components. */
+    private Context childContext;
+
+    /** A factory for creating submodules (i.e. the Checks). */
+    private ModuleFactory moduleFactory;
+
+    /** Control whether to skip files with Java parsing exceptions. */
+    private boolean skipFileOnJavaParseException;
+
+    /** Specify severity Level to log Java parsing exceptions when they are skipped. */
+    private SeverityLevel javaParseExceptionSeverity = SeverityLevel.ERROR;
+
+    /** First line of the subtree of every node, by preorder index. */
+    private int[] spanStarts = new int[INITIAL_CAPACITY];
+
+    /** Last line of the subtree of every node, by preorder index. */
+    private int[] spanEnds = new int[INITIAL_CAPACITY];
+
+    /** Number of nodes in the subtree of every node, by preorder index. */
+    private int[] subtreeSizes = new int[INITIAL_CAPACITY];
+
+    /** Whether the subtree of a node spans a changed line, by preorder index. */
+    private boolean[] changedNodes = new boolean[INITIAL_CAPACITY];
+
+    /** Whether a node has a next sibling, by preorder index. */
+    private boolean[] hasNextSibling = new boolean[INITIAL_CAPACITY];
+
+    /** Preorder indexes of the nodes on the path from the root, by depth. */
+    private int[] pathIndexes = new int[INITIAL_CAPACITY];
+
+    /** Number of checks of the current walk that are below a changed context ancestor. */
+    private int activeExpansions;
+
+    /**
+     * Creates a new {@code PatchTreeWalker} instance.
+     */
+    public PatchTreeWalker() {
+        setFileExtensions("java");
+    }
+
+    /**
+     * Sets the module factory for creating child modules (Checks).
+     *
+     * @param moduleFactory the factory
+     */
+    public void setModuleFactory(ModuleFactory moduleFactory) {
+        this.moduleFactory = moduleFactory;
+    }
+
+    /**
+     * Setter to control whether to skip files with Java parsing exceptions.
+     *
+     * @param skipFileOnJavaParseException whether to skip files with Java parsing errors.
+     */
+    public void setSkipFileOnJavaParseException(boolean skipFileOnJavaParseException) {
+        this.skipFileOnJavaParseException = skipFileOnJavaParseException;
+    }
+
+    /**
+     * Setter to specify the severity level to log Java parsing exceptions when they are skipped.
+     *
+     * @param javaParseExceptionSeverity severity level to log parsing exceptions
+     *      when they are skipped.
+     */
+    public void setJavaParseExceptionSeverity(SeverityLevel javaParseExceptionSeverity) {
+        this.javaParseExceptionSeverity = javaParseExceptionSeverity;
+    }
+
+    /**
+     * Setter to specify checks, by name or id, that visit every node although their
+     * violations are filtered by the patch, for example checks that report violations
+     * outside of the node they visit.
+     *
+     * @param fullWalkChecks names or ids of the checks
+     */
+    public void setFullWalkChecks(String... fullWalkChecks) {
+        this.fullWalkChecks.addAll(Arrays.asList(fullWalkChecks));
+    }
+
+    @Override
+    public void finishLocalSetup() {
+        final DefaultContext checkContext = new DefaultContext();
+        checkContext.add("severity", getSeverity());
+        checkContext.add("tabWidth", String.valueOf(getTabWidth()));
+        childContext = checkContext;
+    }
+
+    @Override
+    public void setupChild(Configuration childConf)
+            throws CheckstyleException {
+        final String name = childConf.getName();
+        final Object module;
+
+        try {
+            module = moduleFactory.createModule(name);
+            if (module instanceof AbstractAutomaticBean bean) {
+                bean.contextualize(childContext);
+                bean.configure(childConf);
+            }
+        }
+        catch (final CheckstyleException exc) {
+            throw new CheckstyleException("cannot initialize module " + name, exc);
+        }
+        if (module instanceof AbstractCheck check) {
+            check.init();
+            registerCheck(check);
+        }
+        else if (module instanceof TreeWalkerFilter filter) {
+            if (patchFilter == null && filter instanceof SuppressionJavaPatchFilter) {
+                patchFilter = (SuppressionJavaPatchFilter) filter;
+            }
+            filters.add(filter);
+        }
+        else {
+            throw new CheckstyleException(
+                "PatchTreeWalker is not allowed as a parent of " + name);
+        }
+    }
+
+    @Override
+    protected void processFiltered(File file, FileText fileText) throws CheckstyleException {
+        if (!ordinaryChecks.isEmpty() || !commentChecks.isEmpty()) {
+            final String fileName = file.getAbsolutePath();
+            fileElements = null;
+            if (patchFilter != null) {
+                fileElements = patchFilter.getMatchingElements(fileName);
+            }
+            if (fileElements == null || !fileElements.isEmpty()) {
+                updateVisitScopes(fileElements);
+                try {
+                    processTree(fileName);
+                }
+                finally {
+                    if (patchFilter != null) {
+                        patchFilter.resetContextIndex();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses the file and walks its tree like {@code TreeWalker}.
+     *
+     * @param fileName absolute name of the file
+     * @throws CheckstyleException if the file cannot be parsed
+     */
+    private void processTree(String fileName) throws CheckstyleException {
+        final FileContents contents = getFileContents();
+        DetailAST rootAST = null;
+        // whether skip the procedure after parsing Java files.
+        boolean skip = false;
+        try {
+            rootAST = JavaParser.parse(contents);
+        }
+        // -@cs[IllegalCatch] There is no other way to obey skipFileOnJavaParseException field
+        catch (Exception exc) {
+            if (!skipFileOnJavaParseException) {
+                throw exc;
+            }
+            skip = true;
+            violations.add(new Violation(1, Definitions.CHECKSTYLE_BUNDLE,
+                    TreeWalker.PARSE_EXCEPTION_MSG, new Object[] {exc.getMessage()},
+                    javaParseExceptionSeverity, null, getClass(), null));
+            addViolations(violations);
+        }
+
+        if (!skip) {
+            if (!ordinaryChecks.isEmpty()) {
+                walk(rootAST, contents, AstState.ORDINARY);
+            }
+            if (!commentChecks.isEmpty()) {
+                final DetailAST astWithComments = JavaParser.appendHiddenCommentNodes(rootAST);
+                walk(astWithComments, contents, AstState.WITH_COMMENTS);
+            }
+            if (filters.isEmpty()) {
+                addViolations(violations);
+            }
+            else {
+                final SortedSet<Violation> filteredViolations =
+                        getFilteredViolations(fileName, contents, rootAST);
+                addViolations(filteredViolations);
+            }
+        }
+        violations.clear();
+    }
+
+    /**
+     * Updates the nodes every check has to visit in the current file. The elements
+     * of one filter share their context settings, so the first one decides.
+     *
+     * @param elements elements matching the file, {@code null} to visit every node
+     */
+    private void updateVisitScopes(List<JavaPatchFilterElement> elements) {
+        for (CheckEntry entry : ordinaryChecks) {
+            entry.scope = getVisitScope(entry, elements);
+        }
+        for (CheckEntry entry : commentChecks) {
+            entry.scope = getVisitScope(entry, elements);
+        }
+    }
+
+    /**
+     * Returns the nodes a check has to visit in the current file.
+     *
+     * @param entry registered check
+     * @param elements elements matching the file, {@code null} to visit every node
+     * @return scope of the nodes to visit
+     */
+    private VisitScope getVisitScope(CheckEntry entry, List<JavaPatchFilterElement> elements) {
+        VisitScope result = VisitScope.ALL_NODES;
+        if (elements != null && entry.stateless
+                && !fullWalkChecks.contains(entry.checkName)
+                && !fullWalkChecks.contains(entry.checkShortName)
+                && !fullWalkChecks.contains(entry.check.getId())) {
+            result = elements.get(0).getVisitScope(entry.checkName, entry.check.getId());
+        }
+        return result;
+    }
+
+    /**
+     * Returns filtered set of {@link Violation}.
+     *
+     * @param fileName path to the file
+     * @param fileContents the contents of the file
+     * @param rootAST root AST element {@link DetailAST} of the file
+     * @return filtered set of violations
+     */
+    private SortedSet<Violation> getFilteredViolations(
+            String fileName, FileContents fileContents, DetailAST rootAST) {
+        final SortedSet<Violation> result = new TreeSet<>(violations);
+        for (Violation element : violations) {
+            final TreeWalkerAuditEvent event =
+                    new TreeWalkerAuditEvent(fileContents, fileName, element, rootAST);
+            for (TreeWalkerFilter filter : filters) {
+                if (!filter.accept(event)) {
+                    result.remove(element);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Register a check for a given configuration.
+     *
+     * @param check the check to register
+     * @throws CheckstyleException if an error occurs
+     */
+    private void registerCheck(AbstractCheck check) throws CheckstyleException {
+        final CheckEntry entry = new CheckEntry(check);
+        final int[] tokens;
+        final Set<String> checkTokens = check.getTokenNames();
+        if (checkTokens.isEmpty()) {
+            tokens = check.getDefaultTokens();
+        }
+        else {
+            tokens = check.getRequiredTokens();
+
+            // register configured tokens
+            final int[] acceptableTokens = check.getAcceptableTokens();
+            Arrays.sort(acceptableTokens);
+            for (String token : checkTokens) {
+                final int tokenId = TokenUtil.getTokenId(token);
+                if (Arrays.binarySearch(acceptableTokens, tokenId) >= 0) {
+                    registerCheck(tokenId, entry);
+                }
+                else {
+                    final String message = String.format(Locale.ROOT, "Token \"%s\" was "
+                            + "not found in Acceptable tokens list in check %s",
+                            token, check.getClass().getName());
+                    throw new CheckstyleException(message);
+                }
+            }
+        }
+        for (int element : tokens) {
+            registerCheck(element, entry);
+        }
+        if (check.isCommentNodesRequired()) {
+            commentChecks.add(entry);
+        }
+        else {
+            ordinaryChecks.add(entry);
+        }
+    }
+
+    /**
+     * Register a check for a specified token id.
+     *
+     * @param tokenId the id of the token
+     * @param entry the check to register
+     * @throws CheckstyleException if Check is misconfigured
+     */
+    private void registerCheck(int tokenId, CheckEntry entry) throws CheckstyleException {
+        if (entry.check.isCommentNodesRequired()) {
+            tokenToCommentChecks.computeIfAbsent(tokenId, empty -> createNewCheckSortedSet())
+                    .add(entry);
+        }
+        else if (TokenUtil.isCommentType(tokenId)) {
+            final String message = String.format(Locale.ROOT, "Check '%s' waits for comment type "
+                    + "token ('%s') and should override 'isCommentNodesRequired()' "
+                    + "method to return 'true'", entry.check.getClass().getName(),
+                    TokenUtil.getTokenName(tokenId));
+            throw new CheckstyleException(message);
+        }
+        else {
+            tokenToOrdinaryChecks.computeIfAbsent(tokenId, empty -> createNewCheckSortedSet())
+                    .add(entry);
+        }
+    }
+
+    /**
+     * Initiates the walk of an AST.
+     *
+     * @param ast the root AST
+     * @param contents the contents of the file the AST was generated for.
+     * @param astState state of AST.
+     */
+    private void walk(DetailAST ast, FileContents contents, AstState astState) {
+        final Set<CheckEntry> checks = getChecks(astState);
+        notifyBegin(ast, contents, checks);
+        boolean restricted = false;
+        boolean visitAll = false;
+        ancestorScopedChecks.clear();
+        for (CheckEntry entry : checks) {
+            if (entry.scope == VisitScope.ALL_NODES) {
+                visitAll = true;
+            }
+            else {
+                restricted = true;
+                if (entry.scope == VisitScope.CHANGED_ANCESTORS) {
+                    entry.expansionDepth = -1;
+                    ancestorScopedChecks.add(entry);
+                }
+            }
+        }
+        if (restricted) {
+            computeChangedNodes(ast, contents, fileElements);
+            activeExpansions = 0;
+            processChangedIter(ast, astState, visitAll);
+        }
+        else {
+            processIter(ast, astState);
+        }
+        notifyEnd(ast, checks);
+    }
+
+    /**
+     * Returns the checks of an AST state.
+     *
+     * @param astState state of AST.
+     * @return checks of the state
+     */
+    private Set<CheckEntry> getChecks(AstState astState) {
+        final Set<CheckEntry> checks;
+        if (astState == AstState.WITH_COMMENTS) {
+            checks = commentChecks;
+        }
+        else {
+            checks = ordinaryChecks;
+        }
+        return checks;
+    }
+
+    /**
+     * Notify checks that we are about to begin walking a tree.
+     *
+     * @param rootAST the root of the tree.
+     * @param contents the contents of the file the AST was generated for.
+     * @param checks checks to notify.
+     */
+    private static void notifyBegin(DetailAST rootAST, FileContents contents,
+            Set<CheckEntry> checks) {
+        for (CheckEntry entry : checks) {
+            entry.check.setFileContents(contents);
+            entry.check.clearViolations();
+            entry.check.beginTree(rootAST);
+        }
+    }
+
+    /**
+     * Notify checks that we have finished walking a tree.
+     *
+     * @param rootAST the root of the tree.
+     * @param checks checks to notify.
+     */
+    private void notifyEnd(DetailAST rootAST, Set<CheckEntry> checks) {
+        for (CheckEntry entry : checks) {
+            entry.check.finishTree(rootAST);
+            violations.addAll(entry.check.getViolations());
+        }
+    }
+
+    /**
+     * Computes the line span of every subtree in preorder and marks the nodes whose
+     * subtree spans a changed line. The span of a node starts at the Javadoc before
+     * its first line, as checks like {@code JavadocStyleCheck} read that Javadoc from
+     * the file contents and log on its lines.
+     *
+     * @param root the root of the tree.
+     * @param contents the contents of the file the AST was generated for.
+     * @param elements elements matching the file
+     */
+    private void computeChangedNodes(DetailAST root, FileContents contents,
+            List<JavaPatchFilterElement> elements) {
+        int count = 0;
+        int depth = 0;
+        int lastLine = 0;
+        int lastStart = 0;
+        DetailAST node = root;
+        while (node != null) {
+            ensureCapacity(Math.max(count, depth) + 1);
+            if (node.getLineNo() != lastLine) {
+                lastLine = node.getLineNo();
+                lastStart = getSpanStart(contents, lastLine);
+            }
+            spanStarts[count] = lastStart;
+            spanEnds[count] = node.getLineNo();
+            pathIndexes[depth] = count;
+            count++;
+            DetailAST toVisit = node.getFirstChild();
+            if (toVisit != null) {
+                depth++;
+            }
+            while (node != null && toVisit == null) {
+                final int nodeIndex = pathIndexes[depth];
+                subtreeSizes[nodeIndex] = count - nodeIndex;
+                changedNodes[nodeIndex] =
+                        isChanged(elements, spanStarts[nodeIndex], spanEnds[nodeIndex]);
+                if (depth > 0) {
+                    final int parentIndex = pathIndexes[depth - 1];
+                    spanStarts[parentIndex] =
+                            Math.min(spanStarts[parentIndex], spanStarts[nodeIndex]);
+                    spanEnds[parentIndex] = Math.max(spanEnds[parentIndex], spanEnds[nodeIndex]);
+                }
+                toVisit = node.getNextSibling();
+                hasNextSibling[nodeIndex] = toVisit != null;
+                node = node.getParent();
+                if (toVisit == null) {
+                    depth--;
+                }
+            }
+            node = toVisit;
+        }
+    }
+
+    /**
+     * Returns the first line of the Javadoc before a line, or the line itself.
+     *
+     * @param contents the contents of the file
+     * @param lineNo the line of a node
+     * @return first line of the span of a node on the line
+     */
+    private static int getSpanStart(FileContents contents, int lineNo) {
+        return Optional.ofNullable(contents.getJavadocBefore(lineNo))
+                .map(javadoc -> javadoc.getStartLineNo())
+                .orElse(lineNo);
+    }
+
+    /**
+     * Checks whether one of the elements has a changed line within a span.
+     *
+     * @param elements elements matching the file
+     * @param startLine first line of the span
+     * @param endLine last line of the span
+     * @return true if a changed line lies within the span
+     */
+    private static boolean isChanged(List<JavaPatchFilterElement> elements,
+            int startLine, int endLine) {
+        boolean result = false;
+        for (int index = 0; index < elements.size(); index++) {
+            if (elements.get(index).hasChangedLineWithin(startLine, endLine)) {
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Grows the per-node arrays to hold at least the given number of nodes.
+     *
+     * @param capacity required capacity
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > spanStarts.length) {
+            final int newCapacity = Math.max(capacity, spanStarts.length * 2);
+            spanStarts = Arrays.copyOf(spanStarts, newCapacity);
+            spanEnds = Arrays.copyOf(spanEnds, newCapacity);
+            subtreeSizes = Arrays.copyOf(subtreeSizes, newCapacity);
+            changedNodes = Arrays.copyOf(changedNodes, newCapacity);
+            hasNextSibling = Arrays.copyOf(hasNextSibling, newCapacity);
+            pathIndexes = Arrays.copyOf(pathIndexes, newCapacity);
+        }
+    }
+
+    /**
+     * Processes a node calling interested checks at each node, descending only into
+     * subtrees that one of the checks has to visit.
+     *
+     * @param root the root of tree for process
+     * @param astState state of AST.
+     * @param visitAll whether a check visits every node
+     */
+    private void processChangedIter(DetailAST root, AstState astState, boolean visitAll) {
+        DetailAST node = root;
+        int depth = 0;
+        int index = 0;
+        while (node != null) {
+            pathIndexes[depth] = index;
+            notifyChangedVisit(node, astState, index, depth);
+            DetailAST toVisit = null;
+            if (visitAll || changedNodes[index] || activeExpansions > 0) {
+                toVisit = node.getFirstChild();
+            }
+            if (toVisit != null) {
+                depth++;
+                index++;
+            }
+            while (node != null && toVisit == null) {
+                final int nodeIndex = pathIndexes[depth];
+                notifyChangedLeave(node, astState, nodeIndex, depth);
+                index = nodeIndex + subtreeSizes[nodeIndex];
+                toVisit = node.getNextSibling();
+                node = node.getParent();
+                if (toVisit == null) {
+                    depth--;
+                }
+            }
+            node = toVisit;
+        }
+    }
+
+    /**
+     * Notify interested checks that visiting a node.
+     *
+     * @param ast the node to notify for.
+     * @param astState state of AST.
+     * @param index preorder index of the node
+     * @param depth depth of the node
+     */
+    private void notifyChangedVisit(DetailAST ast, AstState astState, int index, int depth) {
+        if (changedNodes[index]) {
+            for (int position = 0; position < ancestorScopedChecks.size(); position++) {
+                final CheckEntry entry = ancestorScopedChecks.get(position);
+                if (entry.expansionDepth < 0
+                        && entry.contextAncestorTypes.get(ast.getType())) {
+                    entry.expansionDepth = depth;
+                    activeExpansions++;
+                }
+            }
+        }
+        final Collection<CheckEntry> visitors = getListOfChecks(ast, astState);
+        if (visitors != null) {
+            for (CheckEntry entry : visitors) {
+                if (isVisiting(entry, index, depth)) {
+                    entry.check.visitToken(ast);
+                }
+            }
+        }
+    }
+
+    /**
+     * Notify interested checks that leaving a node.
+     *
+     * @param ast the node to notify for
+     * @param astState state of AST.
+     * @param index preorder index of the node
+     * @param depth depth of the node
+     */
+    private void notifyChangedLeave(DetailAST ast, AstState astState, int index, int depth) {
+        final Collection<CheckEntry> visitors = getListOfChecks(ast, astState);
+        if (visitors != null) {
+            for (CheckEntry entry : visitors) {
+                if (isVisiting(entry, index, depth)) {
+                    entry.check.leaveToken(ast);
+                }
+            }
+        }
+        for (int position = 0; position < ancestorScopedChecks.size(); position++) {
+            final CheckEntry entry = ancestorScopedChecks.get(position);
+            if (entry.expansionDepth == depth) {
+                entry.expansionDepth = -1;
+                activeExpansions--;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a check has to visit a node.
+     *
+     * @param entry registered check
+     * @param index preorder index of the node
+     * @param depth depth of the node
+     * @return true if the check has to visit the node
+     */
+    private boolean isVisiting(CheckEntry entry, int index, int depth) {
+        final boolean result;
+        switch (entry.scope) {
+            case ALL_NODES:
+                result = true;
+                break;
+            case CHANGED_PARENTS:
+                result = isChangedNode(index)
+                        || depth > 0 && changedNodes[pathIndexes[depth - 1]];
+                break;
+            case CHANGED_ANCESTORS:
+                result = isChangedNode(index) || entry.expansionDepth >= 0;
+                break;
+            default:
+                result = isChangedNode(index);
+                break;
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the subtree of a node or of its next sibling spans a changed
+     * line. Checks like {@code EmptyLineSeparator} or {@code FallThrough} report the
+     * violation of a node while visiting its previous sibling.
+     *
+     * @param index preorder index of the node
+     * @return true if the node or its next sibling is changed
+     */
+    private boolean isChangedNode(int index) {
+        return changedNodes[index] || hasNextSibling[index]
+                && changedNodes[index + subtreeSizes[index]];
+    }
+
+    /**
+     * Notify interested checks that visiting a node.
+     *
+     * @param ast the node to notify for.
+     * @param astState state of AST.
+     */
+    private void notifyVisit(DetailAST ast, AstState astState) {
+        final Collection<CheckEntry> visitors = getListOfChecks(ast, astState);
+
+        if (visitors != null) {
+            for (CheckEntry entry : visitors) {
+                entry.check.visitToken(ast);
+            }
+        }
+    }
+
+    /**
+     * Notify interested checks that leaving a node.
+     *
+     * @param ast the node to notify for
+     * @param astState state of AST.
+     */
+    private void notifyLeave(DetailAST ast, AstState astState) {
+        final Collection<CheckEntry> visitors = getListOfChecks(ast, astState);
+
+        if (visitors != null) {
+            for (CheckEntry entry : visitors) {
+                entry.check.leaveToken(ast);
+            }
+        }
+    }
+
+    /**
+     * Method returns list of checks.
+     *
+     * @param ast the node to notify for
+     * @param astState state of AST.
+     * @return list of visitors
+     */
+    private Collection<CheckEntry> getListOfChecks(DetailAST ast, AstState astState) {
+        final Collection<CheckEntry> visitors;
+        final int tokenId = ast.getType();
+
+        if (astState == AstState.WITH_COMMENTS) {
+            visitors = tokenToCommentChecks.get(tokenId);
+        }
+        else {
+            visitors = tokenToOrdinaryChecks.get(tokenId);
+        }
+        return visitors;
+    }
+
+    @Override
+    public void destroy() {
+        ordinaryChecks.forEach(entry -> entry.check.destroy());
+        commentChecks.forEach(entry -> entry.check.destroy());
+        super.destroy();
+    }
+
+    @Override
+    public Set<String> getExternalResourceLocations() {
+        return Stream.concat(filters.stream(),
+                Stream.concat(ordinaryChecks.stream(), commentChecks.stream())
+                        .map(entry -> entry.check))
+            .filter(ExternalResourceHolder.class::isInstance)
+            .flatMap(resource -> {
+                return ((ExternalResourceHolder) resource)
+                        .getExternalResourceLocations().stream();
+            })
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Processes a node calling interested checks at each node.
+     * Uses iterative algorithm.
+     *
+     * @param root the root of tree for process
+     * @param astState state of AST.
+     */
+    private void processIter(DetailAST root, AstState astState) {
+        DetailAST curNode = root;
+        while (curNode != null) {
+            notifyVisit(curNode, astState);
+            DetailAST toVisit = curNode.getFirstChild();
+            while (curNode != null && toVisit == null) {
+                notifyLeave(curNode, astState);
+                toVisit = curNode.getNextSibling();
+                curNode = curNode.getParent();
+            }
+            curNode = toVisit;
+        }
+    }
+
+    /**
+     * Creates a new {@link SortedSet} with a deterministic order based on the
+     * Check's name before the default ordering.
+     *
+     * @return The new {@link SortedSet}.
+     */
+    private static SortedSet<CheckEntry> createNewCheckSortedSet() {
+        return new TreeSet<>(
+                Comparator.<CheckEntry, String>comparing(entry -> entry.check.getClass().getName())
+                        .thenComparing(entry -> entry.check.getId(),
+                                Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparingInt(entry -> entry.check.hashCode()));
+    }
+
+    /**
+     * State of AST.
+     * Indicates whether tree contains certain nodes.
+     */
+    private enum AstState {
+
+        /**
+         * Ordinary tree.
+         */
+        ORDINARY,
+
+        /**
+         * AST contains comment nodes.
+         */
+        WITH_COMMENTS,
+
+    }
+
+    /**
+     * Registered check with the nodes it visits in the current file.
+     */
+    private static final class CheckEntry {
+
+        /** The check. */
+        private final AbstractCheck check;
+
+        /** Class name of the check without the package. */
+        private final String checkName;
+
+        /** Class name of the check without the {@code Check} suffix. */
+        private final String checkShortName;
+
+        /** Whether the check keeps no state between the nodes it visits. */
+        private final boolean stateless;
+
+        /** Token types of the ancestors that are the context of the check's violations. */
+        private final BitSet contextAncestorTypes;
+
+        /** Nodes the check visits in the current file. */
+        private VisitScope scope = VisitScope.ALL_NODES;
+
+        /** Depth of the changed context ancestor being walked, -1 if there is none. */
+        private int expansionDepth = -1;
+
+        /**
+         * Creates an entry.
+         *
+         * @param check the check
+         */
+        private CheckEntry(AbstractCheck check) {
+            this.check = check;
+            final String className = check.getClass().getName();
+            checkName = className.substring(className.lastIndexOf('.') + 1);
+            checkShortName = checkName.replaceAll("Check", "");
+            stateless = check.getClass().isAnnotationPresent(StatelessCheck.class);
+            contextAncestorTypes = JavaPatchFilterElement.getContextAncestorTypes(checkName);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Immutable bitmap whose 64-bit words are run-length encoded: consecutive equal
+ * words, typically all zeros between changes or all ones inside a rewritten
+ * region, are stored once. A bit is read with a binary search over the runs.
+ */
+final class RunLengthBitmap {
+
+    /** Number of bits of a word. */
+    private static final int WORD_BITS = 64;
+
+    /** Shift that turns a bit index into a word index. */
+    private static final int WORD_SHIFT = 6;
+
+    /** Heap size of a run: its first word index and its word. */
+    private static final int RUN_BYTES = Integer.BYTES + Long.BYTES;
+
+    /** Index of the first word of each run, sorted, starting with zero. */
+    private final int[] runStarts;
+
+    /** Word repeated over each run. */
+    private final long[] runWords;
+
+    /** Number of words covered by the runs; all later bits are clear. */
+    private final int wordCount;
+
+    /**
+     * Creates a bitmap from encoded runs.
+     *
+     * @param runStarts index of the first word of each run
+     * @param runWords word of each run
+     * @param wordCount number of covered words
+     */
+    private RunLengthBitmap(int[] runStarts, long[] runWords, int wordCount) {
+        this.runStarts = runStarts;
+        this.runWords = runWords;
+        this.wordCount = wordCount;
+    }
+
+    /**
+     * Encodes a bit set.
+     *
+     * @param bits bit set to encode
+     * @return encoded bitmap
+     */
+    static RunLengthBitmap of(BitSet bits) {
+        final long[] words = bits.toLongArray();
+        final int[] starts = new int[words.length];
+        final long[] values = new long[words.length];
+        int count = 0;
+        for (int index = 0; index < words.length; index++) {
+            if (count == 0 || values[count - 1] != words[index]) {
+                starts[count] = index;
+                values[count] = words[index];
+                count++;
+            }
+        }
+        return new RunLengthBitmap(Arrays.copyOf(starts, count),
+                Arrays.copyOf(values, count), words.length);
+    }
+
+    /**
+     * Returns the heap size of the encoded runs.
+     *
+     * @return size in bytes
+     */
+    long getSizeInBytes() {
+        return (long) runStarts.length * RUN_BYTES;
+    }
+
+    /**
+     * Returns the value of a bit.
+     *
+     * @param bit index of the bit
+     * @return true if the bit is set
+     */
+    boolean get(int bit) {
+        final int word = bit >>> WORD_SHIFT;
+        return bit >= 0 && word < wordCount
+                && (runWords[findRun(word)] & 1L << bit) != 0;
+    }
+
+    /**
+     * Returns the index of the first set bit at or after a bit.
+     *
+     * @param fromBit index to start from, negative values start at zero
+     * @return index of the next set bit, -1 if there is none
+     */
+    int nextSetBit(int fromBit) {
+        final int from = Math.max(fromBit, 0);
+        final int word = from >>> WORD_SHIFT;
+        int result = -1;
+        if (word < wordCount) {
+            int run = findRun(word);
+            final long firstWord = runWords[run] & -1L << from;
+            if (firstWord != 0) {
+                result = word * WORD_BITS + Long.numberOfTrailingZeros(firstWord);
+            }
+            else if (runWords[run] != 0 && word + 1 < getRunEnd(run)) {
+                result = (word + 1) * WORD_BITS + Long.numberOfTrailingZeros(runWords[run]);
+            }
+            else {
+                run++;
+                while (run < runStarts.length && runWords[run] == 0) {
+                    run++;
+                }
+                if (run < runStarts.length) {
+                    result = runStarts[run] * WORD_BITS
+                            + Long.numberOfTrailingZeros(runWords[run]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the run that covers a word.
+     *
+     * @param word index of a covered word
+     * @return index of the run
+     */
+    private int findRun(int word) {
+        final int index = Arrays.binarySearch(runStarts, word);
+        final int result;
+        if (index >= 0) {
+            result = index;
+        }
+        else {
+            result = -index - 2;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the word after the last word of a run.
+     *
+     * @param run index of the run
+     * @return end of the run, exclusive
+     */
+    private int getRunEnd(int run) {
+        final int result;
+        if (run + 1 < runStarts.length) {
+            result = runStarts[run + 1];
+        }
+        else {
+            result = wordCount;
+        }
+        return result;
+    }
+
+}
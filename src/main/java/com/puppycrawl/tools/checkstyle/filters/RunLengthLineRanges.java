@@ -0,0 +1,72 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+/**
+ * Line ranges of a large, densely changed file, kept as run-length encoded
+ * bitmaps indexed by line. Long unchanged or rewritten regions take a single
+ * run, so the bitmaps stay small where plain bit sets would not.
+ */
+final class RunLengthLineRanges implements LineRanges {
+
+    /** Changed lines. */
+    private final RunLengthBitmap lines;
+
+    /** First and last lines of the original ranges. */
+    private final RunLengthBitmap boundaries;
+
+    /** Number of original ranges. */
+    private final int rangeCount;
+
+    /**
+     * Creates line ranges from bitmaps.
+     *
+     * @param lines changed lines
+     * @param boundaries first and last lines of the original ranges
+     * @param rangeCount number of original ranges
+     */
+    RunLengthLineRanges(RunLengthBitmap lines, RunLengthBitmap boundaries, int rangeCount) {
+        this.lines = lines;
+        this.boundaries = boundaries;
+        this.rangeCount = rangeCount;
+    }
+
+    @Override
+    public boolean containsLine(int line) {
+        return lines.get(line);
+    }
+
+    @Override
+    public boolean hasBoundaryWithin(int startLine, int endLine) {
+        final int boundary = boundaries.nextSetBit(startLine);
+        return boundary >= 0 && boundary <= endLine;
+    }
+
+    @Override
+    public int getRangeCount() {
+        return rangeCount;
+    }
+
+    @Override
+    public LineRangesRepresentation getRepresentation() {
+        return LineRangesRepresentation.RUN_LENGTH;
+    }
+
+}
@@ -0,0 +1,142 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Line ranges kept on the heap as sorted primitive arrays and searched
+ * with binary search.
+ */
+final class SortedLineRanges implements LineRanges {
+
+    /** First lines of the merged ranges, sorted. */
+    private final int[] starts;
+
+    /** Last lines of the merged ranges, in the order of {@code starts}. */
+    private final int[] ends;
+
+    /** Sorted first and last lines of the original ranges. */
+    private final int[] boundaries;
+
+    /** Number of original ranges. */
+    private final int rangeCount;
+
+    /**
+     * Creates line ranges from compiled arrays.
+     *
+     * @param starts first lines of the merged ranges, sorted
+     * @param ends last lines of the merged ranges
+     * @param boundaries sorted first and last lines of the original ranges
+     * @param rangeCount number of original ranges
+     */
+    SortedLineRanges(int[] starts, int[] ends, int[] boundaries, int rangeCount) {
+        this.starts = starts;
+        this.ends = ends;
+        this.boundaries = boundaries;
+        this.rangeCount = rangeCount;
+    }
+
+    @Override
+    public boolean containsLine(int line) {
+        final int index = Arrays.binarySearch(starts, line);
+        final boolean result;
+        if (index >= 0) {
+            result = true;
+        }
+        else {
+            final int previous = -index - 2;
+            result = previous >= 0 && line <= ends[previous];
+        }
+        return result;
+    }
+
+    @Override
+    public boolean hasBoundaryWithin(int startLine, int endLine) {
+        int index = Arrays.binarySearch(boundaries, startLine);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index < boundaries.length && boundaries[index] <= endLine;
+    }
+
+    @Override
+    public int getRangeCount() {
+        return rangeCount;
+    }
+
+    @Override
+    public LineRangesRepresentation getRepresentation() {
+        return LineRangesRepresentation.SORTED;
+    }
+
+    /**
+     * Returns the first lines of the merged ranges.
+     *
+     * @return first lines of the merged ranges, sorted
+     */
+    int[] getStarts() {
+        return starts;
+    }
+
+    /**
+     * Returns the last lines of the merged ranges.
+     *
+     * @return last lines of the merged ranges, in the order of the first lines
+     */
+    int[] getEnds() {
+        return ends;
+    }
+
+    /**
+     * Returns the first and last lines of the original ranges.
+     *
+     * @return sorted first and last lines of the original ranges
+     */
+    int[] getBoundaries() {
+        return boundaries;
+    }
+
+    /**
+     * Writes the record of these ranges in the format read by {@link MappedLineRanges}.
+     *
+     * @param output output of the spill file
+     * @return number of written values
+     * @throws IOException if the record can not be written
+     */
+    int writeTo(DataOutput output) throws IOException {
+        output.writeInt(starts.length);
+        output.writeInt(boundaries.length);
+        output.writeInt(rangeCount);
+        for (int start : starts) {
+            output.writeInt(start);
+        }
+        for (int end : ends) {
+            output.writeInt(end);
+        }
+        for (int boundary : boundaries) {
+            output.writeInt(boundary);
+        }
+        return MappedLineRanges.HEADER_SIZE + starts.length + ends.length + boundaries.length;
+    }
+
+}
@@ -0,0 +1,49 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.io.FilterInputStream;
+import java.io.InputStream;
+
+/**
+ * Patch source that reads the patch from the standard input of the process.
+ * Standard input is left open after loading.
+ */
+public final class StdinPatchSource implements PatchSource {
+
+    /** Location reported for patches from standard input. */
+    private static final String LOCATION = "<stdin>";
+
+    @Override
+    public InputStream openStream() {
+        return new FilterInputStream(System.in) {
+            @Override
+            public void close() {
+                // standard input belongs to the process, not to the filter
+            }
+        };
+    }
+
+    @Override
+    public String getLocation() {
+        return LOCATION;
+    }
+
+}
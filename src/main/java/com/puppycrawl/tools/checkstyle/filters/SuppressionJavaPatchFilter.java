@@ -19,8 +19,9 @@
 
 package com.puppycrawl.tools.checkstyle.filters;
 
-import java.io.FileInputStream;
-import java.io.InputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -28,7 +29,6 @@ import java.util.List;
 import java.util.Set;
 
 import org.eclipse.jgit.patch.FileHeader;
-import org.eclipse.jgit.patch.Patch;
 
 import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
 import com.puppycrawl.tools.checkstyle.TreeWalkerFilter;
@@ -44,7 +44,7 @@ import com.puppycrawl.tools.checkstyle.utils.FilterUtil;
  * @since 8.34
  */
 public final class SuppressionJavaPatchFilter extends AutomaticBean implements
-        TreeWalkerFilter, ExternalResourceHolder {
+        TreeWalkerFilter, ExternalResourceHolder, Closeable {
     /**
      * To split never Suppressed Checks and Ids's string.
      */
@@ -60,6 +60,11 @@ public final class SuppressionJavaPatchFilter extends AutomaticBean implements
      */
     private String file;
 
+    /**
+     * Source of the patch when the filter is built programmatically.
+     */
+    private PatchSource patchSource;
+
     /**
      * Control what to do when the file is not existing. If {@code optional} is
      * set to {@code false} the file must exist, or else it ends with error.
@@ -68,6 +73,34 @@ public final class SuppressionJavaPatchFilter extends AutomaticBean implements
      */
     private boolean optional;
 
+    /**
+     * Control whether the patch file is watched and the index is rebuilt
+     * in the background when the file changes.
+     */
+    private boolean watch;
+
+    /**
+     * Globs of the paths in the patch to index, all paths if not set.
+     */
+    private List<String> includePaths;
+
+    /**
+     * Globs of the paths in the patch that are never indexed.
+     */
+    private List<String> excludePaths;
+
+    /**
+     * Specify the memory budget of the compiled index in bytes. If the estimated
+     * size of the index exceeds it, the index is spilled to a memory-mapped file.
+     */
+    private long maxIndexMemory = Long.MAX_VALUE;
+
+    /**
+     * Specify the minimum fraction of changed lines, counted up to the last changed
+     * line of a file, at which the changed lines of the file are kept as a bitmap.
+     */
+    private double denseLineThreshold = Double.POSITIVE_INFINITY;
+
     /**
      * Control if only consider added lines in file.
      */
@@ -98,9 +131,23 @@ public final class SuppressionJavaPatchFilter extends AutomaticBean implements
     private Set<String> neverSuppressedChecks;
 
     /**
-     * Set of individual suppresses.
+     * List of individual suppresses with the statistics of their load. The snapshot
+     * is immutable, a reload replaces it as a whole.
      */
-    private Set<TreeWalkerFilter> filters = new HashSet<>();
+    private volatile PatchIndexSnapshot<List<JavaPatchFilterElement>> snapshot =
+            createEmptySnapshot();
+
+    /**
+     * Context index of the file that the current thread audits, shared by the
+     * elements of every index of this filter. Keeping it per filter instead of per
+     * class releases the indexed trees together with the filter.
+     */
+    private final ThreadLocal<ContextIndex> currentContextIndex = new ThreadLocal<>();
+
+    /**
+     * Watcher of the patch file, if {@code watch} is enabled.
+     */
+    private PatchFileWatcher watcher;
 
     /**
      * Setter to specify the location of the patch file.
@@ -112,6 +159,17 @@ public final class SuppressionJavaPatchFilter extends AutomaticBean implements
         file = fileName;
     }
 
+    /**
+     * Setter to specify the source of the patch when the filter is built
+     * programmatically. It takes precedence over {@code file}, and
+     * {@code optional} is ignored.
+     *
+     * @param patchSource source of the patch.
+     */
+    public void setPatchSource(PatchSource patchSource) {
+        this.patchSource = patchSource;
+    }
+
     /**
      * Setter to control if only consider added lines in file.
      *
@@ -197,11 +255,80 @@ public final class SuppressionJavaPatchFilter extends AutomaticBean implements
         this.optional = optional;
     }
 
+    /**
+     * Setter to control whether the patch file is watched. When enabled, the
+     * index is rebuilt in the background whenever the modification time or the
+     * size of the file changes, and is swapped atomically, so that long-running
+     * processes see the new patch without being reconfigured.
+     *
+     * @param watch tells if the patch file is watched.
+     */
+    public void setWatch(boolean watch) {
+        this.watch = watch;
+    }
+
+    /**
+     * Setter to specify the memory budget of the compiled index in bytes. When the
+     * estimated size of the index would exceed it, the line ranges are written to
+     * a sorted binary file that is memory-mapped and searched in place.
+     *
+     * @param maxIndexMemory memory budget of the index in bytes.
+     */
+    public void setMaxIndexMemory(long maxIndexMemory) {
+        this.maxIndexMemory = maxIndexMemory;
+    }
+
+    /**
+     * Setter to specify the minimum fraction of changed lines, counted up to the
+     * last changed line of a file, at which the changed lines of the file are kept
+     * as a bitmap over lines, run-length encoded for large files. A line lookup
+     * then reads a single word. The threshold bounds the memory of a bitmap by
+     * the number of changed lines of its file.
+     *
+     * @param denseLineThreshold minimum fraction of changed lines, between 0 and 1.
+     */
+    public void setDenseLineThreshold(double denseLineThreshold) {
+        this.denseLineThreshold = denseLineThreshold;
+    }
+
+    /**
+     * Setter to specify globs of the paths in the patch to index, split by comma.
+     * Files that do not match any of them are never indexed, so their violations
+     * are suppressed. A glob without {@code /} is matched against the file name.
+     *
+     * @param includePaths globs of the paths to index, split by comma.
+     */
+    public void setIncludePaths(String includePaths) {
+        this.includePaths = Arrays.asList(includePaths.split(COMMA));
+    }
+
+    /**
+     * Setter to specify globs of the paths in the patch that are never indexed,
+     * for example generated or vendored files, split by comma. A glob without
+     * {@code /} is matched against the file name.
+     *
+     * @param excludePaths globs of the paths to skip, split by comma.
+     */
+    public void setExcludePaths(String excludePaths) {
+        this.excludePaths = Arrays.asList(excludePaths.split(COMMA));
+    }
+
+    /**
+     * Returns the statistics of the last load of the patch, including the
+     * representation chosen for the index.
+     *
+     * @return statistics of the patch index.
+     */
+    public PatchIndexStatistics getIndexStatistics() {
+        return snapshot.getStatistics();
+    }
+
     @Override
     public boolean accept(TreeWalkerAuditEvent treeWalkerAuditEvent) {
+        final List<JavaPatchFilterElement> filters = snapshot.getFilters();
         boolean result = false;
-        for (TreeWalkerFilter filter : filters) {
-            if (filter.accept(treeWalkerAuditEvent)) {
+        for (int index = 0; index < filters.size(); index++) {
+            if (filters.get(index).accept(treeWalkerAuditEvent)) {
                 result = true;
                 break;
             }
@@ -209,49 +336,129 @@ public final class SuppressionJavaPatchFilter extends AutomaticBean implements
         return result;
     }
 
+    /**
+     * Releases the context index of the file that the current thread audited. A
+     * walker calls it once the violations of a file are filtered, so that the tree
+     * of the last file is not kept until the thread audits another one.
+     */
+    void resetContextIndex() {
+        currentContextIndex.remove();
+    }
+
+    /**
+     * Stops watching the patch file and releases the context index of the current
+     * thread. The filter keeps its current index. The watcher part does nothing if
+     * the patch file is not watched.
+     *
+     * @throws IOException if the watcher can not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        resetContextIndex();
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+
+    /**
+     * Returns the elements of the current index that match a file. A violation in
+     * the file is accepted only if one of them accepts it.
+     *
+     * @param fileName name of the audited file
+     * @return matching elements, empty if the patch does not touch the file
+     */
+    List<JavaPatchFilterElement> getMatchingElements(String fileName) {
+        final List<JavaPatchFilterElement> filters = snapshot.getFilters();
+        final List<JavaPatchFilterElement> result = new ArrayList<>();
+        for (int index = 0; index < filters.size(); index++) {
+            if (filters.get(index).isFileNameMatching(fileName)) {
+                result.add(filters.get(index));
+            }
+        }
+        return result;
+    }
+
     @Override
     public void finishLocalSetup() throws CheckstyleException {
-        if (file != null) {
+        if (patchSource != null) {
+            loadPatchFile(patchSource);
+        }
+        else if (file != null) {
+            if (watch) {
+                createWatcher();
+            }
             if (optional) {
                 if (FilterUtil.isFileExists(file)) {
-                    loadPatchFile();
+                    loadPatchFile(new FilePatchSource(file));
                 }
                 else {
-                    filters = new HashSet<>();
+                    snapshot = createEmptySnapshot();
                 }
             }
             else {
-                loadPatchFile();
+                loadPatchFile(new FilePatchSource(file));
+            }
+            if (watch) {
+                watcher.start();
             }
         }
     }
 
-    private void loadPatchFile() throws CheckstyleException {
-        try (InputStream is = new CrFilterInputStream(new FileInputStream(file))) {
-            final Patch patch = new Patch();
-            patch.parse(is);
-            final List<? extends FileHeader> fileHeaders = patch.getFiles();
-            for (FileHeader fileHeader : fileHeaders) {
-                final LoadPatchFileUtils loadPatchFileUtils =
-                        new LoadPatchFileUtils(fileHeader, strategy);
-                final String fileName = loadPatchFileUtils.getFileName();
-                final List<List<Integer>> lineRangeList = loadPatchFileUtils.getLineRangeList();
+    private void createWatcher() throws CheckstyleException {
+        try {
+            if (watcher != null) {
+                watcher.close();
+            }
+            watcher = new PatchFileWatcher(file, () -> loadPatchFile(new FilePatchSource(file)));
+        }
+        catch (IOException exception) {
+            throw new CheckstyleException("cannot watch patch file " + file, exception);
+        }
+    }
+
+    private void loadPatchFile(PatchSource source) throws CheckstyleException {
+        final List<JavaPatchFilterElement> loadedFilters = new ArrayList<>();
+        final LineRangesIndexBuilder indexBuilder =
+                new LineRangesIndexBuilder(maxIndexMemory, denseLineThreshold, true);
+        final PatchPathFilter pathFilter = new PatchPathFilter(includePaths, excludePaths);
+        try {
+            final List<String> fileNames = new ArrayList<>();
+            for (FileHeader fileHeader : LoadPatchFileUtils.loadFileHeaders(source)) {
+                if (pathFilter.isIndexed(fileHeader)) {
+                    final LoadPatchFileUtils loadPatchFileUtils =
+                            new LoadPatchFileUtils(fileHeader, strategy);
+                    fileNames.add(loadPatchFileUtils.getFileName());
+                    indexBuilder.add(loadPatchFileUtils.getFileName(),
+                            loadPatchFileUtils.getEditRanges());
+                }
+            }
+            final List<LineRanges> lineRangesList = indexBuilder.build();
+            for (int index = 0; index < fileNames.size(); index++) {
                 final JavaPatchFilterElement element =
-                        new JavaPatchFilterElement(fileName, lineRangeList,
+                        new JavaPatchFilterElement(fileNames.get(index),
+                                lineRangesList.get(index),
                                 strategy,
                                 checkNamesForContextStrategyByTokenOrParentSet,
                                 checkNamesForContextStrategyByTokenOrAncestorSet,
                                 supportContextStrategyChecks,
-                                neverSuppressedChecks);
-                filters.add(element);
+                                neverSuppressedChecks,
+                                currentContextIndex);
+                loadedFilters.add(element);
             }
         }
         // -@cs[IllegalCatch] There is no other way to deliver filename that was under
         // processing when a jgit exception occurs.
         catch (Exception exception) {
             throw new CheckstyleException("an error occurred when loading patch file "
-                    + file, exception);
+                    + source.getLocation(), exception);
         }
+        snapshot = new PatchIndexSnapshot<>(List.copyOf(loadedFilters),
+                indexBuilder.getStatistics());
+    }
+
+    private static PatchIndexSnapshot<List<JavaPatchFilterElement>> createEmptySnapshot() {
+        return new PatchIndexSnapshot<>(List.of(), PatchIndexStatistics.EMPTY);
     }
 
     @Override
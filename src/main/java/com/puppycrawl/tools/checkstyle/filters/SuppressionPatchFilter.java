@@ -19,8 +19,9 @@
 
 package com.puppycrawl.tools.checkstyle.filters;
 
-import java.io.FileInputStream;
-import java.io.InputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -28,7 +29,6 @@ import java.util.List;
 import java.util.Set;
 
 import org.eclipse.jgit.patch.FileHeader;
-import org.eclipse.jgit.patch.Patch;
 
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
@@ -44,7 +44,7 @@ import com.puppycrawl.tools.checkstyle.utils.FilterUtil;
  * @since 8.34
  */
 public final class SuppressionPatchFilter extends AutomaticBean
-        implements Filter, ExternalResourceHolder {
+        implements Filter, ExternalResourceHolder, Closeable {
     /**
      * To split never Suppressed Checks and Ids's string.
      */
@@ -55,6 +55,11 @@ public final class SuppressionPatchFilter extends AutomaticBean
      */
     private String file;
 
+    /**
+     * Source of the patch when the filter is built programmatically.
+     */
+    private PatchSource patchSource;
+
     /**
      * Control what to do when the file is not existing. If {@code optional} is
      * set to {@code false} the file must exist, or else it ends with error.
@@ -63,6 +68,34 @@ public final class SuppressionPatchFilter extends AutomaticBean
      */
     private boolean optional;
 
+    /**
+     * Control whether the patch file is watched and the index is rebuilt
+     * in the background when the file changes.
+     */
+    private boolean watch;
+
+    /**
+     * Globs of the paths in the patch to index, all paths if not set.
+     */
+    private List<String> includePaths;
+
+    /**
+     * Globs of the paths in the patch that are never indexed.
+     */
+    private List<String> excludePaths;
+
+    /**
+     * Specify the memory budget of the compiled index in bytes. If the estimated
+     * size of the index exceeds it, the index is spilled to a memory-mapped file.
+     */
+    private long maxIndexMemory = Long.MAX_VALUE;
+
+    /**
+     * Specify the minimum fraction of changed lines, counted up to the last changed
+     * line of a file, at which the changed lines of the file are kept as a bitmap.
+     */
+    private double denseLineThreshold = Double.POSITIVE_INFINITY;
+
     /**
      * Control if only consider added lines in file.
      */
@@ -77,9 +110,15 @@ public final class SuppressionPatchFilter extends AutomaticBean
     private Set<String> neverSuppressedChecks;
 
     /**
-     * Set of individual suppresses.
+     * Set of individual suppresses with the statistics of their load. The snapshot
+     * is immutable, a reload replaces it as a whole.
+     */
+    private volatile PatchIndexSnapshot<PatchFilterSet> snapshot = createEmptySnapshot();
+
+    /**
+     * Watcher of the patch file, if {@code watch} is enabled.
      */
-    private PatchFilterSet filters = new PatchFilterSet();
+    private PatchFileWatcher watcher;
 
     /**
      * Setter to specify the location of the patch file.
@@ -91,6 +130,17 @@ public final class SuppressionPatchFilter extends AutomaticBean
         file = fileName;
     }
 
+    /**
+     * Setter to specify the source of the patch when the filter is built
+     * programmatically. It takes precedence over {@code file}, and
+     * {@code optional} is ignored.
+     *
+     * @param patchSource source of the patch.
+     */
+    public void setPatchSource(PatchSource patchSource) {
+        this.patchSource = patchSource;
+    }
+
     /**
      * Setter to control if only consider added lines in file.
      *
@@ -126,9 +176,91 @@ public final class SuppressionPatchFilter extends AutomaticBean
         this.optional = optional;
     }
 
+    /**
+     * Setter to control whether the patch file is watched. When enabled, the
+     * index is rebuilt in the background whenever the modification time or the
+     * size of the file changes, and is swapped atomically, so that long-running
+     * processes see the new patch without being reconfigured.
+     *
+     * @param watch tells if the patch file is watched.
+     */
+    public void setWatch(boolean watch) {
+        this.watch = watch;
+    }
+
+    /**
+     * Setter to specify the memory budget of the compiled index in bytes. When the
+     * estimated size of the index would exceed it, the line ranges are written to
+     * a sorted binary file that is memory-mapped and searched in place.
+     *
+     * @param maxIndexMemory memory budget of the index in bytes.
+     */
+    public void setMaxIndexMemory(long maxIndexMemory) {
+        this.maxIndexMemory = maxIndexMemory;
+    }
+
+    /**
+     * Setter to specify the minimum fraction of changed lines, counted up to the
+     * last changed line of a file, at which the changed lines of the file are kept
+     * as a bitmap over lines, run-length encoded for large files. A line lookup
+     * then reads a single word. The threshold bounds the memory of a bitmap by
+     * the number of changed lines of its file.
+     *
+     * @param denseLineThreshold minimum fraction of changed lines, between 0 and 1.
+     */
+    public void setDenseLineThreshold(double denseLineThreshold) {
+        this.denseLineThreshold = denseLineThreshold;
+    }
+
+    /**
+     * Setter to specify globs of the paths in the patch to index, split by comma.
+     * Files that do not match any of them are never indexed, so their violations
+     * are suppressed. A glob without {@code /} is matched against the file name.
+     *
+     * @param includePaths globs of the paths to index, split by comma.
+     */
+    public void setIncludePaths(String includePaths) {
+        this.includePaths = Arrays.asList(includePaths.split(COMMA));
+    }
+
+    /**
+     * Setter to specify globs of the paths in the patch that are never indexed,
+     * for example generated or vendored files, split by comma. A glob without
+     * {@code /} is matched against the file name.
+     *
+     * @param excludePaths globs of the paths to skip, split by comma.
+     */
+    public void setExcludePaths(String excludePaths) {
+        this.excludePaths = Arrays.asList(excludePaths.split(COMMA));
+    }
+
+    /**
+     * Returns the statistics of the last load of the patch, including the
+     * representation chosen for the index.
+     *
+     * @return statistics of the patch index.
+     */
+    public PatchIndexStatistics getIndexStatistics() {
+        return snapshot.getStatistics();
+    }
+
     @Override
     public boolean accept(AuditEvent event) {
-        return filters.accept(event);
+        return snapshot.getFilters().accept(event);
+    }
+
+    /**
+     * Stops watching the patch file. The filter keeps its current index. Does
+     * nothing if the patch file is not watched.
+     *
+     * @throws IOException if the watcher can not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
     }
 
     /**
@@ -138,43 +270,78 @@ public final class SuppressionPatchFilter extends AutomaticBean
      */
     @Override
     public void finishLocalSetup() throws CheckstyleException {
-        if (file != null) {
+        if (patchSource != null) {
+            loadPatchFile(patchSource);
+        }
+        else if (file != null) {
+            if (watch) {
+                createWatcher();
+            }
             if (optional) {
                 if (FilterUtil.isFileExists(file)) {
-                    loadPatchFile();
+                    loadPatchFile(new FilePatchSource(file));
                 }
                 else {
-                    filters = new PatchFilterSet();
+                    snapshot = createEmptySnapshot();
                 }
             }
             else {
-                loadPatchFile();
+                loadPatchFile(new FilePatchSource(file));
+            }
+            if (watch) {
+                watcher.start();
             }
         }
     }
 
-    private void loadPatchFile() throws CheckstyleException {
-        try (InputStream is = new CrFilterInputStream(new FileInputStream(file))) {
-            final Patch patch = new Patch();
-            patch.parse(is);
-            final List<? extends FileHeader> fileHeaders = patch.getFiles();
-            for (FileHeader fileHeader : fileHeaders) {
-                final LoadPatchFileUtils loadPatchFileUtils =
-                        new LoadPatchFileUtils(fileHeader, strategy);
-                final String fileName = loadPatchFileUtils.getFileName();
-                final List<List<Integer>> lineRangeList = loadPatchFileUtils.getLineRangeList();
+    private void createWatcher() throws CheckstyleException {
+        try {
+            if (watcher != null) {
+                watcher.close();
+            }
+            watcher = new PatchFileWatcher(file, () -> loadPatchFile(new FilePatchSource(file)));
+        }
+        catch (IOException exception) {
+            throw new CheckstyleException("cannot watch patch file " + file, exception);
+        }
+    }
+
+    private void loadPatchFile(PatchSource source) throws CheckstyleException {
+        final List<SuppressionPatchFilterElement> loadedFilters = new ArrayList<>();
+        final LineRangesIndexBuilder indexBuilder =
+                new LineRangesIndexBuilder(maxIndexMemory, denseLineThreshold, false);
+        final PatchPathFilter pathFilter = new PatchPathFilter(includePaths, excludePaths);
+        try {
+            final List<String> fileNames = new ArrayList<>();
+            for (FileHeader fileHeader : LoadPatchFileUtils.loadFileHeaders(source)) {
+                if (pathFilter.isIndexed(fileHeader)) {
+                    final LoadPatchFileUtils loadPatchFileUtils =
+                            new LoadPatchFileUtils(fileHeader, strategy);
+                    fileNames.add(loadPatchFileUtils.getFileName());
+                    indexBuilder.add(loadPatchFileUtils.getFileName(),
+                            loadPatchFileUtils.getEditRanges());
+                }
+            }
+            final List<LineRanges> lineRangesList = indexBuilder.build();
+            for (int index = 0; index < fileNames.size(); index++) {
                 final SuppressionPatchFilterElement element =
-                        new SuppressionPatchFilterElement(fileName, lineRangeList,
-                                neverSuppressedChecks);
-                filters.addFilter(element);
+                        new SuppressionPatchFilterElement(fileNames.get(index),
+                                lineRangesList.get(index), neverSuppressedChecks);
+                loadedFilters.add(element);
             }
         }
         // -@cs[IllegalCatch] There is no other way to deliver filename that was under
         // processing when a jgit exception occurs.
         catch (Exception exception) {
             throw new CheckstyleException("an error occurred when loading patch file "
-                    + file, exception);
+                    + source.getLocation(), exception);
         }
+        snapshot = new PatchIndexSnapshot<>(new PatchFilterSet(loadedFilters),
+                indexBuilder.getStatistics());
+    }
+
+    private static PatchIndexSnapshot<PatchFilterSet> createEmptySnapshot() {
+        return new PatchIndexSnapshot<>(new PatchFilterSet(), PatchIndexStatistics.EMPTY);
     }
 
     @Override
@@ -38,9 +38,9 @@ public final class SuppressionPatchFilterElement implements Filter {
     private final String fileName;
 
     /**
-     * The list of line range.
+     * The changed lines of the file.
      */
-    private final List<List<Integer>> lineRangeList;
+    private final LineRanges lineRanges;
 
     /**
      * Set has user defined Checks to never suppress if files are touched.
@@ -58,8 +58,23 @@ public final class SuppressionPatchFilterElement implements Filter {
      */
     public SuppressionPatchFilterElement(String fileName, List<List<Integer>> lineRangeList,
                                          Set<String> neverSuppressedChecks) {
+        this(fileName, LineRangesIndexBuilder.compile(lineRangeList, false),
+                neverSuppressedChecks);
+    }
+
+    /**
+     * Constructs a {@code SuppressPatchFilterElement} for a
+     * file name pattern and compiled line ranges.
+     *
+     * @param fileName      names of filtered files
+     * @param lineRanges    changed lines for line number filtering
+     * @param neverSuppressedChecks set has user defined Checks to never suppress
+     *                              if files are touched
+     */
+    public SuppressionPatchFilterElement(String fileName, LineRanges lineRanges,
+                                         Set<String> neverSuppressedChecks) {
         this.fileName = fileName;
-        this.lineRangeList = lineRangeList;
+        this.lineRanges = lineRanges;
         this.neverSuppressedChecks = neverSuppressedChecks;
     }
 
@@ -122,19 +137,7 @@ public final class SuppressionPatchFilterElement implements Filter {
      * @return true if line and column are matching or not set.
      */
     private boolean isLineMatching(AuditEvent event) {
-        boolean result = false;
-        if (event.getViolation() != null) {
-            for (List<Integer> aLineRangeList : lineRangeList) {
-                final int startLine = aLineRangeList.get(0) + 1;
-                final int endLine = aLineRangeList.get(1) + 1;
-                final int currentLine = event.getLine();
-                result = currentLine >= startLine && currentLine < endLine;
-                if (result) {
-                    break;
-                }
-            }
-        }
-        return result;
+        return event.getViolation() != null && lineRanges.containsLine(event.getLine());
     }
 
     /**
@@ -0,0 +1,48 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+/**
+ * Nodes of a file that a check has to visit so that no violation accepted by a
+ * {@link JavaPatchFilterElement} is lost.
+ */
+enum VisitScope {
+    /**
+     * Every node, used for checks whose violations are never suppressed.
+     */
+    ALL_NODES,
+
+    /**
+     * Nodes whose subtree or whose next sibling's subtree spans a changed line.
+     */
+    CHANGED_NODES,
+
+    /**
+     * Changed nodes and the children of nodes whose subtree spans a changed line,
+     * used for checks whose context is the parent of the violation node.
+     */
+    CHANGED_PARENTS,
+
+    /**
+     * Changed nodes and all nodes below a changed ancestor of one of the context
+     * ancestor types of the check.
+     */
+    CHANGED_ANCESTORS
+}
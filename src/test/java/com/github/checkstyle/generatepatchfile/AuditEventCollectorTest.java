@@ -0,0 +1,125 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+
+package com.github.checkstyle.generatepatchfile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+public class AuditEventCollectorTest {
+
+    @Test
+    public void testEntriesAreGroupedByFile() {
+        final AuditEventCollector collector = new AuditEventCollector();
+        collector.fileStarted(new AuditEvent(this, "Clean.java"));
+        final AuditEvent first = createEvent("Test.java", 1);
+        final AuditEvent second = createEvent("Test.java", 2);
+        final AuditEvent other = createEvent("Other.java", 3);
+        collector.addError(first);
+        collector.addError(other);
+        collector.addException(second, new IllegalStateException("failure"));
+
+        final Map<String, List<AuditEventCollector.Entry>> entries = collector.getEntries();
+        assertEquals(3, entries.size(), "files should be recorded");
+        assertTrue(entries.get("Clean.java").isEmpty(), "file without violations is empty");
+        assertEquals(1, entries.get("Other.java").size(), "invalid entries of Other.java");
+        final List<AuditEventCollector.Entry> testEntries = entries.get("Test.java");
+        assertEquals(2, testEntries.size(), "invalid entries of Test.java");
+        assertFalse(testEntries.get(0).isException(), "first entry is a violation");
+        assertTrue(testEntries.get(1).isException(), "second entry is an exception");
+    }
+
+    @Test
+    public void testReplayForwardsViolationsAndExceptions() {
+        final AuditEventCollector collector = new AuditEventCollector();
+        final AuditEvent violation = createEvent("Test.java", 1);
+        final AuditEvent failure = createEvent("Test.java", 2);
+        final Throwable throwable = new IllegalStateException("failure");
+        collector.addError(violation);
+        collector.addException(failure, throwable);
+
+        final RecordingListener listener = new RecordingListener();
+        for (AuditEventCollector.Entry entry : collector.getEntries().get("Test.java")) {
+            entry.replay(listener);
+        }
+        assertEquals(List.of(violation), listener.errors, "violation should be replayed");
+        assertEquals(List.of(failure), listener.exceptionEvents, "exception should be replayed");
+        assertSame(throwable, listener.exceptions.get(0), "exception should be forwarded");
+    }
+
+    private AuditEvent createEvent(String fileName, int lineNo) {
+        final Violation violation = new Violation(lineNo, 1, null, "msg", null,
+                SeverityLevel.ERROR, null, AuditEventCollectorTest.class, null);
+        return new AuditEvent(this, fileName, violation);
+    }
+
+    private static final class RecordingListener implements AuditListener {
+
+        private final List<AuditEvent> errors = new ArrayList<>();
+
+        private final List<AuditEvent> exceptionEvents = new ArrayList<>();
+
+        private final List<Throwable> exceptions = new ArrayList<>();
+
+        @Override
+        public void auditStarted(AuditEvent event) {
+            // no code
+        }
+
+        @Override
+        public void auditFinished(AuditEvent event) {
+            // no code
+        }
+
+        @Override
+        public void fileStarted(AuditEvent event) {
+            // no code
+        }
+
+        @Override
+        public void fileFinished(AuditEvent event) {
+            // no code
+        }
+
+        @Override
+        public void addError(AuditEvent event) {
+            errors.add(event);
+        }
+
+        @Override
+        public void addException(AuditEvent event, Throwable throwable) {
+            exceptionEvents.add(event);
+            exceptions.add(throwable);
+        }
+    }
+}
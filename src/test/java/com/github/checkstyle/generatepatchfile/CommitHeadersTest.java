@@ -0,0 +1,105 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+
+package com.github.checkstyle.generatepatchfile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CommitHeadersTest {
+
+    private static final String BODY_MESSAGE = "Fix the parser\n\n"
+            + "The parser dropped the last token.\n\n"
+            + "    indented line\n";
+
+    @TempDir
+    public File repositoryDir;
+
+    @Test
+    public void testShowHeaderMatchesGit() throws Exception {
+        for (RevCommit commit : createCommits()) {
+            final String expected = runGit("show", commit.getName());
+            assertEquals(expected.substring(0, expected.indexOf("diff --git")),
+                    CommitHeaders.formatShowHeader(commit),
+                    "invalid show header of " + commit.getShortMessage());
+        }
+    }
+
+    @Test
+    public void testMailHeaderMatchesGit() throws Exception {
+        for (RevCommit commit : createCommits()) {
+            final String expected = runGit("format-patch", "-1", "--stdout", commit.getName());
+            assertEquals(expected.substring(0, expected.indexOf("---\n") + "---\n".length()),
+                    CommitHeaders.formatMailHeader(commit),
+                    "invalid mail header of " + commit.getShortMessage());
+        }
+    }
+
+    private List<RevCommit> createCommits() throws Exception {
+        final List<RevCommit> commits = new ArrayList<>();
+        try (Git git = Git.init().setDirectory(repositoryDir).call()) {
+            commits.add(commit(git, "first", "Add the sample",
+                    TimeZone.getTimeZone("GMT+05:30")));
+            commits.add(commit(git, "second", BODY_MESSAGE,
+                    TimeZone.getTimeZone("GMT-08:00")));
+        }
+        return commits;
+    }
+
+    private RevCommit commit(Git git, String content, String message, TimeZone timeZone)
+            throws Exception {
+        Files.writeString(repositoryDir.toPath().resolve("Sample.java"), content + "\n");
+        git.add().addFilepattern("Sample.java").call();
+        final PersonIdent author = new PersonIdent("Jane Doe", "jane@example.com",
+                new Date(1_700_000_000_000L), timeZone);
+        return git.commit().setMessage(message).setAuthor(author).setCommitter(author)
+                .setSign(false).call();
+    }
+
+    private String runGit(String... arguments) throws IOException, InterruptedException {
+        final List<String> command = new ArrayList<>(List.of("git",
+                "-c", "color.ui=never", "-c", "log.decorate=false",
+                "-c", "log.showSignature=false", "-c", "format.signature="));
+        command.addAll(List.of(arguments));
+        final Process process = new ProcessBuilder(command)
+                .directory(repositoryDir)
+                .redirectErrorStream(true)
+                .start();
+        final String output = new String(process.getInputStream().readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertEquals(0, process.waitFor(), "git failed: " + output);
+        return output;
+    }
+
+}
@@ -0,0 +1,309 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+
+package com.github.checkstyle.generatepatchfile;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.MergeCommand;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CommitHistoryTest {
+
+    private static final String SOURCE = "Sample.java";
+
+    private static final String GENERATED = "Generated.java";
+
+    private static final String README = "README.md";
+
+    private static final String REPOSITORY = "repository";
+
+    private static final String MAIN = "main";
+
+    private static final String SIDE = "side";
+
+    @TempDir
+    public File repositoryDir;
+
+    @TempDir
+    public File reportDir;
+
+    @Test
+    public void testFilteredWalkSkipsCommits() throws Exception {
+        try (Git git = Git.init().setDirectory(repositoryDir).call()) {
+            write(SOURCE, "class Sample {\n}\n");
+            write(README, "readme\n");
+            commit(git);
+            write(SOURCE, "class Sample {\n    int first;\n}\n");
+            final RevCommit sourceCommit = commit(git);
+            write(README, "changed readme\n");
+            final RevCommit readmeCommit = commit(git);
+            write(SOURCE, "class Sample {\n    int second;\n}\n");
+            final RevCommit head = commit(git);
+
+            final CommitHistory history = new CommitHistory(git.getRepository(), "*.java", null);
+            final List<CommitPair> commitPairs = history.getFirstCommitPairs(head, 10);
+            assertEquals(2, commitPairs.size(), "commit of the readme should be skipped");
+            assertEquals(head, commitPairs.get(0).getNewCommit(), "invalid first commit");
+            assertEquals(readmeCommit, commitPairs.get(0).getOldCommit(),
+                    "first commit should be paired with its parent, not a walked commit");
+            assertEquals(sourceCommit, commitPairs.get(1).getNewCommit(),
+                    "invalid second commit");
+        }
+    }
+
+    @Test
+    public void testChangingFilteredPathsSkipsExcludedFiles() throws Exception {
+        try (Git git = Git.init().setDirectory(repositoryDir).call()) {
+            write(SOURCE, "class Sample {\n}\n");
+            write(GENERATED, "class Generated {\n}\n");
+            write(README, "readme\n");
+            final RevCommit root = commit(git);
+            write(GENERATED, "class Generated {\n    int first;\n}\n");
+            write(README, "changed readme\n");
+            final RevCommit excludedCommit = commit(git);
+            write(SOURCE, "class Sample {\n    int first;\n}\n");
+            final RevCommit sourceCommit = commit(git);
+
+            final CommitHistory history = new CommitHistory(git.getRepository(), "*.java",
+                    GENERATED);
+            assertFalse(history.isChangingFilteredPaths(root, excludedCommit),
+                    "excluded and not included files should not count as changes");
+            assertTrue(history.isChangingFilteredPaths(excludedCommit, sourceCommit),
+                    "included file should count as a change");
+            assertTrue(new CommitHistory(git.getRepository(), null, null)
+                    .isChangingFilteredPaths(root, excludedCommit),
+                    "every commit should change a path without filters");
+        }
+    }
+
+    @Test
+    public void testPatchSkipsExcludedFiles() throws Exception {
+        try (Git git = Git.init().setDirectory(repositoryDir).call()) {
+            write(SOURCE, "class Sample {\n}\n");
+            write(GENERATED, "class Generated {\n}\n");
+            write(README, "readme\n");
+            final RevCommit root = commit(git);
+            write(SOURCE, "class Sample {\n    int first;\n}\n");
+            write(GENERATED, "class Generated {\n    int first;\n}\n");
+            write(README, "changed readme\n");
+            final CommitPair commitPair = new CommitPair(root, commit(git));
+
+            final String patch = new String(new CommitHistory(git.getRepository(), "*.java",
+                    GENERATED).formatPatch(commitPair), StandardCharsets.UTF_8);
+            assertTrue(patch.contains("+++ b/" + SOURCE), "patch should have the source");
+            assertFalse(patch.contains(GENERATED), "patch should skip the excluded file");
+            assertFalse(patch.contains(README), "patch should skip the not included file");
+            final String fullPatch = new String(new CommitHistory(git.getRepository(), null,
+                    null).formatPatch(commitPair), StandardCharsets.UTF_8);
+            assertTrue(fullPatch.contains("+++ b/" + GENERATED) && fullPatch.contains(README),
+                    "patch without filters should have every file");
+        }
+    }
+
+    @Test
+    public void testPoolPatchesMatchSerialPatches() throws Exception {
+        try (Git git = Git.init().setDirectory(repositoryDir).call()) {
+            final RevCommit head = commitFiles(git, 6);
+            final CommitHistory history = new CommitHistory(git.getRepository(), null, null);
+            final List<CommitPair> commitPairs = history.getFirstCommitPairs(head, 5);
+            final ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                final List<Future<byte[]>> patches = history.formatPatches(commitPairs,
+                        executor, new StageTimings(), new DiffReportDir(reportDir, REPOSITORY));
+                assertEquals(commitPairs.size(), patches.size(), "every pair should be formatted");
+                for (int index = 0; index < commitPairs.size(); index++) {
+                    final byte[] patch = patches.get(index).get();
+                    assertArrayEquals(history.formatPatch(commitPairs.get(index)), patch,
+                            "pool patch should match serial patch " + index);
+                    assertTrue(new String(patch, StandardCharsets.UTF_8).contains(
+                            "+++ b/File" + (5 - index) + ".java"),
+                            "patch should stay in the order of the reports " + index);
+                }
+            }
+            finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    public void testSkippedCommitsAreNotFormatted() throws Exception {
+        try (Git git = Git.init().setDirectory(repositoryDir).call()) {
+            final RevCommit head = commitFiles(git, 4);
+            final CommitHistory history = new CommitHistory(git.getRepository(), null, null);
+            final List<CommitPair> commitPairs = history.getFirstCommitPairs(head, 3);
+            final DiffReportDir diffReportDir = new DiffReportDir(reportDir, REPOSITORY);
+            diffReportDir.startRun(Map.of());
+            final String completeDirName = diffReportDir.getCommitDirName(commitPairs.get(1));
+            Files.createDirectories(reportDir.toPath().resolve(completeDirName));
+            diffReportDir.markComplete(completeDirName, commitPairs.get(1));
+
+            final List<CommitPair> staleCommitPairs =
+                    diffReportDir.getStaleCommitPairs(commitPairs);
+            assertEquals(List.of(commitPairs.get(0), commitPairs.get(2)), staleCommitPairs,
+                    "up to date report should be skipped, others should keep their order");
+            final StageTimings stageTimings = new StageTimings();
+            final ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                for (Future<byte[]> patch : history.formatPatches(staleCommitPairs, executor,
+                        stageTimings, diffReportDir)) {
+                    patch.get();
+                }
+            }
+            finally {
+                executor.shutdownNow();
+            }
+            final Path timings = reportDir.toPath().resolve(StageTimings.FILE_NAME);
+            stageTimings.writeCsv(timings);
+            final Set<String> formatted = new HashSet<>();
+            for (String line : Files.readAllLines(timings, StandardCharsets.UTF_8)) {
+                final String[] fields = line.split(",");
+                if ("diff".equals(fields[1])) {
+                    formatted.add(fields[0]);
+                }
+            }
+            assertEquals(Set.of(diffReportDir.getCommitDirName(commitPairs.get(0)),
+                    diffReportDir.getCommitDirName(commitPairs.get(2))), formatted,
+                    "only the pairs to report should be formatted");
+        }
+    }
+
+    @Test
+    public void testFirstCommitPairs() throws Exception {
+        try (Git git = Git.init().setDirectory(repositoryDir).setInitialBranch(MAIN).call()) {
+            final RevCommit root = commitAt(git, "Root.java", 0);
+            final RevCommit first = commitAt(git, "First.java", 1);
+            git.checkout().setCreateBranch(true).setName(SIDE).call();
+            final RevCommit side = commitAt(git, "Side.java", 3);
+            git.checkout().setName(MAIN).call();
+            final RevCommit second = commitAt(git, "Second.java", 2);
+            final RevCommit merge = mergeAt(git, side, 4);
+            final CommitHistory history = new CommitHistory(git.getRepository(), null, null);
+
+            final List<CommitPair> commitPairs = history.getFirstCommitPairs(merge, 10);
+            assertPairs(List.of(second, merge, first, side, first, second, root, first),
+                    commitPairs, "root should be skipped and merge paired with first parent");
+            assertPairs(List.of(second, merge, first, side),
+                    history.getFirstCommitPairs(merge, 2), "pairs should be limited");
+        }
+    }
+
+    @Test
+    public void testCommitPairsOfSet() throws Exception {
+        try (Git git = Git.init().setDirectory(repositoryDir).setInitialBranch(MAIN).call()) {
+            final RevCommit root = commitAt(git, "Root.java", 0);
+            final RevCommit first = commitAt(git, "First.java", 1);
+            git.checkout().setCreateBranch(true).setName("other").call();
+            final RevCommit unreachable = commitAt(git, "Other.java", 5);
+            git.checkout().setName(MAIN).call();
+            git.checkout().setCreateBranch(true).setName(SIDE).call();
+            final RevCommit side = commitAt(git, "Side.java", 3);
+            git.checkout().setName(MAIN).call();
+            final RevCommit second = commitAt(git, "Second.java", 2);
+            final RevCommit merge = mergeAt(git, side, 4);
+            final CommitHistory history = new CommitHistory(git.getRepository(), null, null);
+
+            final Set<String> commits = new LinkedHashSet<>(List.of(first.getName(),
+                    root.getName(), unreachable.getName(), merge.getName(), "missing",
+                    "0123456789abcdef0123456789abcdef01234567", second.getName(),
+                    side.getName()));
+            assertPairs(List.of(second, merge, first, side, first, second, root, first),
+                    history.getCommitPairs(commits, merge),
+                    "commits should be ordered by time and paired with their first parent, "
+                            + "root, unreachable and unresolvable commits should be skipped");
+        }
+    }
+
+    private static void assertPairs(List<RevCommit> expected, List<CommitPair> commitPairs,
+                                    String message) {
+        final List<RevCommit> actual = new ArrayList<>();
+        for (CommitPair commitPair : commitPairs) {
+            actual.add(commitPair.getOldCommit());
+            actual.add(commitPair.getNewCommit());
+        }
+        assertEquals(expected, actual, message);
+    }
+
+    private RevCommit commitAt(Git git, String fileName, int minute) throws Exception {
+        write(fileName, "class " + fileName.replace(".java", "") + " {\n}\n");
+        git.add().addFilepattern(fileName).call();
+        return git.commit().setMessage(fileName).setCommitter(createIdent(minute))
+                .setAuthor(createIdent(minute)).setSign(false).call();
+    }
+
+    private static RevCommit mergeAt(Git git, RevCommit commit, int minute) throws Exception {
+        git.merge().include(commit).setFastForward(MergeCommand.FastForwardMode.NO_FF)
+                .setCommit(false).call();
+        return git.commit().setMessage("merge").setCommitter(createIdent(minute))
+                .setAuthor(createIdent(minute)).setSign(false).call();
+    }
+
+    private static PersonIdent createIdent(int minute) {
+        return new PersonIdent("Jane Doe", "jane@example.com",
+                new Date(1_700_000_000_000L + TimeUnit.MINUTES.toMillis(minute)),
+                TimeZone.getTimeZone("UTC"));
+    }
+
+    private RevCommit commitFiles(Git git, int count) throws Exception {
+        RevCommit commit = null;
+        for (int index = 0; index < count; index++) {
+            write("File" + index + ".java", "class File" + index + " {\n}\n");
+            commit = commit(git);
+        }
+        return commit;
+    }
+
+    private void write(String fileName, String content) throws Exception {
+        final Path file = repositoryDir.toPath().resolve(fileName);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    private static RevCommit commit(Git git) throws Exception {
+        git.add().addFilepattern(".").call();
+        return git.commit().setMessage("commit").setSign(false).call();
+    }
+
+}
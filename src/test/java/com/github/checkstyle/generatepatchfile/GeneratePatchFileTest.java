@@ -0,0 +1,98 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+
+package com.github.checkstyle.generatepatchfile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GeneratePatchFileTest {
+
+    @TempDir
+    public File tempDir;
+
+    @Test
+    public void testCountsLessThanOneAreRejected() {
+        final GeneratePatchFile generatePatchFile = new GeneratePatchFile(tempDir.getPath(),
+                tempDir.getPath(), tempDir.getPath(), "patch-branch",
+                new File(tempDir, "base.xml"), new File(tempDir, "patch.xml"));
+        assertRejected("diffThreadCount", generatePatchFile::setDiffThreadCount);
+        assertRejected("testerConcurrency", generatePatchFile::setTesterConcurrency);
+        assertRejected("batchSize", generatePatchFile::setBatchSize);
+        assertRejected("copyThreadCount", generatePatchFile::setCopyThreadCount);
+    }
+
+    @Test
+    public void testRunInputsHaveCommitsOfBranchesAndTester() throws Exception {
+        final File checkstyleDir = new File(tempDir, "checkstyle");
+        final File contributionDir = new File(tempDir, "contribution");
+        final File testerDir = new File(contributionDir, "checkstyle-tester");
+        assertTrue(testerDir.mkdirs(), "tester dir should be created");
+        try (Git checkstyle = Git.init().setDirectory(checkstyleDir).setInitialBranch("master")
+                     .call();
+             Git contribution = Git.init().setDirectory(contributionDir).call()) {
+            final RevCommit baseCommit = checkstyle.commit().setMessage("base")
+                    .setAllowEmpty(true).setSign(false).call();
+            checkstyle.checkout().setCreateBranch(true).setName("patch-branch").call();
+            final RevCommit patchCommit = checkstyle.commit().setMessage("patch")
+                    .setAllowEmpty(true).setSign(false).call();
+            final RevCommit testerCommit = contribution.commit().setMessage("tester")
+                    .setAllowEmpty(true).setSign(false).call();
+            final File baseConfig = new File(tempDir, "base.xml");
+            final File patchConfig = new File(tempDir, "patch.xml");
+            Files.writeString(baseConfig.toPath(), "<module name=\"Checker\"/>\n");
+            Files.writeString(patchConfig.toPath(), "<module name=\"Checker\"/>\n");
+            final GeneratePatchFile generatePatchFile = new GeneratePatchFile(tempDir.getPath(),
+                    testerDir.getPath(), checkstyleDir.getPath(), "patch-branch",
+                    baseConfig, patchConfig);
+
+            final Map<String, String> inputs = generatePatchFile.getRunInputs("jgit");
+            assertEquals(baseCommit.getName(), inputs.get("baseBranchCommit"),
+                    "commit of the base branch should be recorded");
+            assertEquals(patchCommit.getName(), inputs.get("patchBranchCommit"),
+                    "commit of the patch branch should be recorded");
+            assertEquals(testerCommit.getName(), inputs.get("testerCommit"),
+                    "revision of checkstyle-tester should be recorded");
+        }
+    }
+
+    private static void assertRejected(String name, IntConsumer setter) {
+        setter.accept(1);
+        final IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class, () -> setter.accept(0),
+                name + " of 0 should be rejected");
+        assertEquals(name + " should be at least 1, but is 0", exception.getMessage(),
+                "invalid message");
+        assertThrows(IllegalArgumentException.class, () -> setter.accept(-1),
+                name + " of -1 should be rejected");
+    }
+
+}
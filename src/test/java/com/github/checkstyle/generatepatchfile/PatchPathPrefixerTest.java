@@ -0,0 +1,104 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+
+package com.github.checkstyle.generatepatchfile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class PatchPathPrefixerTest {
+
+    private static final String SNAPSHOT = "repo-a1b2c3d4/";
+
+    @TempDir
+    public File repositoryDir;
+
+    @Test
+    public void testPrefixMatchesFormattedPrefix() throws Exception {
+        try (Git git = Git.init().setDirectory(repositoryDir).call()) {
+            write("Sample.java", "class Sample {\n-- a/line\n++ b/line\n}\n");
+            write("Removed.java", "class Removed {\n}\n");
+            write("Renamed.java", "class Renamed {\n    int first;\n    int second;\n}\n");
+            write("binary.bin", "\0\1\2");
+            final RevCommit oldCommit = commit(git);
+            write("Sample.java", "class Sample {\n++ b/changed\n}\n");
+            Files.delete(repositoryDir.toPath().resolve("Removed.java"));
+            write("dir with space/Added \"quoted\".java", "class Added {\n}\n");
+            Files.move(repositoryDir.toPath().resolve("Renamed.java"),
+                    repositoryDir.toPath().resolve("dir with space/Moved.java"));
+            write("binary.bin", "\3\4\5");
+            git.rm().addFilepattern("Removed.java").addFilepattern("Renamed.java").call();
+            final RevCommit newCommit = commit(git);
+
+            final byte[] patch = format(git, oldCommit, newCommit, "");
+            final String expected = new String(format(git, oldCommit, newCommit, SNAPSHOT),
+                    StandardCharsets.UTF_8);
+            assertTrue(expected.contains("rename to"), "patch should have a rename");
+            assertTrue(expected.contains("+++ \"b/"), "patch should have a quoted path");
+            assertTrue(expected.contains("--- a/" + SNAPSHOT + "Sample.java\n"
+                    + "+++ b/" + SNAPSHOT + "Sample.java"), "patch should have a change");
+            assertEquals(expected, new String(PatchPathPrefixer.addPathPrefix(patch, SNAPSHOT),
+                    StandardCharsets.UTF_8), "invalid prefixed patch");
+        }
+    }
+
+    @Test
+    public void testEmptyPatch() {
+        assertEquals(0, PatchPathPrefixer.addPathPrefix(new byte[0], SNAPSHOT).length,
+                "empty patch should stay empty");
+    }
+
+    private void write(String fileName, String content) throws Exception {
+        final Path file = repositoryDir.toPath().resolve(fileName);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    private static RevCommit commit(Git git) throws Exception {
+        git.add().addFilepattern(".").call();
+        return git.commit().setMessage("commit").setSign(false).call();
+    }
+
+    private static byte[] format(Git git, RevCommit oldCommit, RevCommit newCommit,
+                                 String prefix) throws Exception {
+        final ByteArrayOutputStream patch = new ByteArrayOutputStream();
+        try (DiffFormatter diffFormatter = new DiffFormatter(patch)) {
+            diffFormatter.setRepository(git.getRepository());
+            diffFormatter.setDetectRenames(true);
+            diffFormatter.setOldPrefix("a/" + prefix);
+            diffFormatter.setNewPrefix("b/" + prefix);
+            diffFormatter.format(oldCommit.getTree(), newCommit.getTree());
+        }
+        return patch.toByteArray();
+    }
+
+}
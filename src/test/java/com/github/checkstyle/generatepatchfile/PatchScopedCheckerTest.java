@@ -0,0 +1,151 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+
+package com.github.checkstyle.generatepatchfile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+
+public class PatchScopedCheckerTest {
+
+    private static final String CONFIG = "<?xml version=\"1.0\"?>\n"
+            + "<!DOCTYPE module PUBLIC \"-//Checkstyle//DTD Checkstyle Configuration 1.3//EN\"\n"
+            + "    \"https://checkstyle.org/dtds/configuration_1_3.dtd\">\n"
+            + "<module name=\"Checker\">\n"
+            + "  <module name=\"TreeWalker\">\n"
+            + "    <module name=\"MemberName\"/>\n"
+            + "  </module>\n"
+            + "</module>\n";
+
+    @Test
+    public void testTreeWalkerViolationOnUnchangedLineIsDropped(@TempDir Path tempDir)
+            throws Exception {
+        writeSource(tempDir, "Test.java");
+        final Path patch = writePatch(tempDir, "Test.java");
+
+        final ByteArrayOutputStream report = new ByteArrayOutputStream();
+        final int violationCount = createChecker(tempDir, patch, 1).check(report);
+
+        final String xml = report.toString(StandardCharsets.UTF_8);
+        assertEquals(1, violationCount, "only the violation on the added line is reported");
+        assertTrue(xml.contains("line=\"3\""), "violation on the added line is reported");
+        assertFalse(xml.contains("line=\"2\""), "violation on the unchanged line is dropped");
+    }
+
+    @Test
+    public void testConfiguredJavaPatchFilterIsShared(@TempDir Path tempDir) throws Exception {
+        writeSource(tempDir, "Test.java");
+        final Path patch = writePatch(tempDir, "Test.java");
+        final Path config = tempDir.resolve("config.xml");
+        Files.writeString(config, CONFIG.replace("<module name=\"MemberName\"/>",
+                "<module name=\"MemberName\"/>\n"
+                + "    <module name=\"SuppressionJavaPatchFilter\">\n"
+                + "      <property name=\"file\" value=\"missing.patch\"/>\n"
+                + "      <property name=\"neverSuppressedChecks\" value=\"MemberName\"/>\n"
+                + "    </module>"));
+
+        final ByteArrayOutputStream report = new ByteArrayOutputStream();
+        final int violationCount = new PatchScopedChecker(config.toString(), patch.toFile(),
+                tempDir.toFile(), 2, "newline").check(report);
+
+        assertEquals(2, violationCount, "configured neverSuppressedChecks should be applied");
+        try (SharedPatchFilters sharedFilters = SharedPatchFilters.load(config.toString(),
+                patch.toFile(), "newline")) {
+            final Configuration checker = sharedFilters.getConfiguration();
+            assertEquals(2, checker.getChildren().length,
+                    "patch filter should be added to the Checker");
+            final Configuration treeWalker = checker.getChildren()[0];
+            assertEquals(2, treeWalker.getChildren().length,
+                    "configured filter should be replaced, not kept next to the shared one");
+            assertTrue(treeWalker.getChildren()[1].getName().endsWith(".SharedJavaPatchFilter"),
+                    "configured filter should be replaced by the shared one");
+        }
+    }
+
+    @Test
+    public void testReportDoesNotDependOnThreadCount(@TempDir Path tempDir) throws Exception {
+        writeSource(tempDir, "First.java");
+        writeSource(tempDir, "Second.java");
+        writeSource(tempDir, "Untouched.java");
+        final Path patch = tempDir.resolve("patch.txt");
+        Files.writeString(patch, createPatch("Second.java") + createPatch("First.java"));
+
+        final ByteArrayOutputStream singleThread = new ByteArrayOutputStream();
+        final ByteArrayOutputStream twoThreads = new ByteArrayOutputStream();
+        assertEquals(2, createChecker(tempDir, patch, 1).check(singleThread),
+                "one violation per touched file");
+        assertEquals(2, createChecker(tempDir, patch, 2).check(twoThreads),
+                "one violation per touched file");
+
+        final String xml = singleThread.toString(StandardCharsets.UTF_8);
+        assertEquals(xml, twoThreads.toString(StandardCharsets.UTF_8),
+                "report should not depend on the thread count");
+        assertTrue(xml.indexOf("First.java") < xml.indexOf("Second.java"),
+                "files should be ordered by name");
+        assertFalse(xml.contains("Untouched.java"), "untouched file should not be audited");
+    }
+
+    private static PatchScopedChecker createChecker(Path tempDir, Path patch, int threadCount)
+            throws Exception {
+        final Path config = tempDir.resolve("config.xml");
+        Files.writeString(config, CONFIG);
+        return new PatchScopedChecker(config.toString(), patch.toFile(), tempDir.toFile(),
+                threadCount, "newline");
+    }
+
+    private static void writeSource(Path tempDir, String fileName) throws Exception {
+        final String className = fileName.substring(0, fileName.indexOf('.'));
+        Files.write(tempDir.resolve(fileName), List.of(
+                "public class " + className + " {",
+                "    private int Bad1;",
+                "    private int Bad2;",
+                "}"));
+    }
+
+    private static Path writePatch(Path tempDir, String fileName) throws Exception {
+        final Path patch = tempDir.resolve("patch.txt");
+        Files.writeString(patch, createPatch(fileName));
+        return patch;
+    }
+
+    private static String createPatch(String fileName) {
+        final String className = fileName.substring(0, fileName.indexOf('.'));
+        return "diff --git a/" + fileName + " b/" + fileName + "\n"
+                + "--- a/" + fileName + "\n"
+                + "+++ b/" + fileName + "\n"
+                + "@@ -1,3 +1,4 @@\n"
+                + " public class " + className + " {\n"
+                + "     private int Bad1;\n"
+                + "+    private int Bad2;\n"
+                + " }\n";
+    }
+}
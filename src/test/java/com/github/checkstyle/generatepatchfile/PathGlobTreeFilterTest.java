@@ -0,0 +1,107 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+
+package com.github.checkstyle.generatepatchfile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.filters.PatchPathFilter;
+
+public class PathGlobTreeFilterTest {
+
+    @TempDir
+    public File repositoryDir;
+
+    @Test
+    public void testWalkIncludesMatchingFiles() throws Exception {
+        try (Git git = Git.init().setDirectory(repositoryDir).call()) {
+            write("src/Main.java");
+            write("src/generated/Generated.java");
+            write("docs/README.md");
+            write("Root.java");
+            final RevCommit commit = commit(git, "add files");
+
+            final List<String> paths = new ArrayList<>();
+            try (TreeWalk treeWalk = new TreeWalk(git.getRepository())) {
+                treeWalk.addTree(commit.getTree());
+                treeWalk.setFilter(createFilter());
+                treeWalk.setRecursive(createFilter().shouldBeRecursive());
+                while (treeWalk.next()) {
+                    paths.add(treeWalk.getPathString());
+                }
+            }
+            assertEquals(List.of("Root.java", "src/Main.java"), paths, "invalid included paths");
+        }
+    }
+
+    @Test
+    public void testRevWalkSkipsCommitsWithoutIncludedChanges() throws Exception {
+        try (Git git = Git.init().setDirectory(repositoryDir).call()) {
+            write("src/Main.java");
+            final RevCommit first = commit(git, "add main");
+            write("docs/README.md");
+            commit(git, "add docs");
+            write("src/generated/Generated.java");
+            commit(git, "add generated");
+            write("src/Other.java");
+            final RevCommit last = commit(git, "add other");
+
+            final List<RevCommit> commits = new ArrayList<>();
+            try (RevWalk revWalk = new RevWalk(git.getRepository())) {
+                revWalk.markStart(revWalk.parseCommit(last));
+                revWalk.setTreeFilter(AndTreeFilter.create(createFilter(), TreeFilter.ANY_DIFF));
+                revWalk.forEach(commits::add);
+            }
+            assertEquals(List.of(last, first), commits, "invalid commits");
+        }
+    }
+
+    private static PathGlobTreeFilter createFilter() {
+        return new PathGlobTreeFilter(new PatchPathFilter(List.of("*.java"),
+                List.of("**/generated/**")));
+    }
+
+    private void write(String fileName) throws Exception {
+        final Path file = repositoryDir.toPath().resolve(fileName);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, fileName + "\n");
+    }
+
+    private static RevCommit commit(Git git, String message) throws Exception {
+        git.add().addFilepattern(".").call();
+        return git.commit().setMessage(message).setSign(false).call();
+    }
+
+}
@@ -0,0 +1,86 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+
+package com.github.checkstyle.generatepatchfile;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ReportManifestTest {
+
+    private static final String DIR_NAME = "a1b2c3";
+
+    private static final Map<String, String> INPUTS =
+            Map.of("commit", "a1b2c3d4", "config", "0f1e2d3c");
+
+    @TempDir
+    public Path diffReportDir;
+
+    @Test
+    public void testCompleteRoundTrip() throws IOException {
+        Files.createDirectories(diffReportDir.resolve(DIR_NAME));
+        final ReportManifest manifest = new ReportManifest(diffReportDir);
+        manifest.load();
+        assertFalse(manifest.isComplete(DIR_NAME, INPUTS), "new report is not complete");
+
+        manifest.markComplete(DIR_NAME, INPUTS);
+        assertTrue(manifest.isComplete(DIR_NAME, INPUTS), "report should be complete");
+
+        final ReportManifest reloaded = new ReportManifest(diffReportDir);
+        reloaded.load();
+        assertTrue(reloaded.isComplete(DIR_NAME, INPUTS), "manifest should be saved");
+
+        reloaded.markIncomplete(DIR_NAME);
+        assertFalse(reloaded.isComplete(DIR_NAME, INPUTS), "report should be incomplete");
+        manifest.load();
+        assertFalse(manifest.isComplete(DIR_NAME, INPUTS), "incomplete report should be saved");
+    }
+
+    @Test
+    public void testChangedInputsAreNotComplete() throws IOException {
+        Files.createDirectories(diffReportDir.resolve(DIR_NAME));
+        final ReportManifest manifest = new ReportManifest(diffReportDir);
+        manifest.markComplete(DIR_NAME, INPUTS);
+
+        assertFalse(manifest.isComplete(DIR_NAME, Map.of("commit", "a1b2c3d4",
+                "config", "ffffffff")), "changed input should not be complete");
+        assertFalse(manifest.isComplete(DIR_NAME, Map.of("commit", "a1b2c3d4",
+                "config", "0f1e2d3c", "patch", "1234")), "new input should not be complete");
+        assertTrue(manifest.isComplete(DIR_NAME, INPUTS), "same inputs should be complete");
+    }
+
+    @Test
+    public void testMissingReportDirIsNotComplete() throws IOException {
+        final ReportManifest manifest = new ReportManifest(diffReportDir);
+        manifest.markComplete(DIR_NAME, INPUTS);
+
+        assertFalse(manifest.isComplete(DIR_NAME, INPUTS),
+                "report without its directory should not be complete");
+    }
+
+}
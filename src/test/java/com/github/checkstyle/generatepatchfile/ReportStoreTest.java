@@ -0,0 +1,102 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+
+package com.github.checkstyle.generatepatchfile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ReportStoreTest {
+
+    private static final String SHARED_FILE = "site/index.html";
+
+    private static final String CHANGED_FILE = "site/checkstyle-result.xml";
+
+    @TempDir
+    public Path tempDir;
+
+    @Test
+    public void testEqualFilesAreStoredOnce() throws IOException {
+        final Path firstReport = createReport("first", "<violations/>");
+        final Path secondReport = createReport("second", "<violation line='1'/>");
+        final ReportStore store = new ReportStore(getDiffReportDir());
+
+        final Path firstDest = getDiffReportDir().resolve("a1b2c3");
+        final Path secondDest = getDiffReportDir().resolve("d4e5f6");
+        store.store(firstReport, firstDest);
+        store.store(secondReport, secondDest);
+
+        assertEquals(3, countBlobs(), "equal files should share a blob");
+        assertEquals(getFileKey(firstDest.resolve(SHARED_FILE)),
+                getFileKey(secondDest.resolve(SHARED_FILE)), "equal files should be linked");
+        assertEquals("<violations/>", Files.readString(firstDest.resolve(CHANGED_FILE)),
+                "invalid first report");
+        assertEquals("<violation line='1'/>", Files.readString(secondDest.resolve(CHANGED_FILE)),
+                "invalid second report");
+        assertTrue(Files.isRegularFile(firstReport.resolve(SHARED_FILE)),
+                "report dir should be left untouched");
+    }
+
+    @Test
+    public void testStoringAgainReusesBlobs() throws IOException {
+        final Path report = createReport("report", "<violations/>");
+        final ReportStore store = new ReportStore(getDiffReportDir());
+        final Path dest = getDiffReportDir().resolve("a1b2c3");
+        store.store(report, dest);
+
+        store.store(report, dest);
+
+        assertEquals(2, countBlobs(), "blobs should be reused");
+        assertEquals("<violations/>", Files.readString(dest.resolve(CHANGED_FILE)),
+                "invalid report");
+    }
+
+    private Path getDiffReportDir() {
+        return tempDir.resolve("DiffReport");
+    }
+
+    private Path createReport(String name, String result) throws IOException {
+        final Path report = tempDir.resolve("reports").resolve(name);
+        Files.createDirectories(report.resolve("site"));
+        Files.writeString(report.resolve(SHARED_FILE), "<html/>");
+        Files.writeString(report.resolve(CHANGED_FILE), result);
+        return report;
+    }
+
+    private long countBlobs() throws IOException {
+        try (Stream<Path> files = Files.walk(getDiffReportDir().resolve(ReportStore.OBJECTS_DIR))) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static Object getFileKey(Path file) throws IOException {
+        return Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+    }
+
+}
@@ -0,0 +1,81 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+
+package com.github.checkstyle.generatepatchfile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StageTimingsTest {
+
+    @TempDir
+    public Path tempDir;
+
+    @Test
+    public void testSharedStageIsRecordedPerCommit() throws IOException {
+        final StageTimings stageTimings = new StageTimings();
+        stageTimings.recordShared(List.of("repo-a1", "repo-b2", "repo-c3"),
+                StageTimings.Stage.TESTER, System.nanoTime() - 3_000_000_000L);
+        final Path file = tempDir.resolve(StageTimings.FILE_NAME);
+
+        stageTimings.writeCsv(file);
+
+        final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(4, lines.size(), "every commit should have its row");
+        for (int index = 1; index < lines.size(); index++) {
+            final String[] fields = lines.get(index).split(",");
+            assertEquals("tester", fields[1], "invalid stage");
+            final long duration = Long.parseLong(fields[3]);
+            assertTrue(duration >= 1000 && duration < 2000,
+                    "commit should get a third of the time, but got " + duration);
+        }
+    }
+
+    @Test
+    public void testHtmlSummary() throws IOException {
+        final StageTimings stageTimings = new StageTimings();
+        final long start = System.nanoTime();
+        stageTimings.record("repo-a1", StageTimings.Stage.RENAME, start);
+        stageTimings.record("repo-b2", StageTimings.Stage.RENAME, start);
+        stageTimings.recordShared(List.of("repo-a1", "repo-b2"), StageTimings.Stage.TESTER,
+                start - 2_000_000_000L);
+        final StringWriter out = new StringWriter();
+
+        stageTimings.writeHtmlSummary(out);
+
+        final String summary = out.toString();
+        assertTrue(summary.contains("<tr><td>tester</td><td>2</td><td>2.0"),
+                "tester should be recorded for both commits: " + summary);
+        assertTrue(summary.contains("<tr><td>rename</td><td>2</td>"),
+                "rename should be recorded: " + summary);
+        assertTrue(summary.contains("<p>2 reports in "), "reports should be counted: " + summary);
+    }
+
+}
@@ -0,0 +1,136 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+
+package com.github.checkstyle.generatepatchfile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TesterSlotPoolTest {
+
+    private static final String REPO_NAME = "sample";
+
+    @TempDir
+    public Path tempDir;
+
+    @Test
+    public void testWriteProjectsFile() throws Exception {
+        final Path testerDir = Files.createDirectories(tempDir.resolve("tester"));
+        Files.write(testerDir.resolve(CheckstyleTester.PROJECTS_FILE), List.of(
+                "#sample|git|https://example.com/commented.git|master||",
+                "other|git|https://example.com/other.git|master||",
+                "sample|git|https://example.com/sample.git|master||"), StandardCharsets.UTF_8);
+        final TesterSlot slot = new TesterSlot(Files.createDirectories(tempDir.resolve("slot")),
+                REPO_NAME);
+        createPool(null, testerDir, null).writeProjectsFile(slot, List.of("sample-1", "sample-2"));
+
+        final String sourcesDir = slot.getSourcesDir().toAbsolutePath().toString();
+        assertEquals(List.of("sample-1|local|" + sourcesDir + File.separator + "sample-1|||",
+                "sample-2|local|" + sourcesDir + File.separator + "sample-2|||"),
+                Files.readAllLines(slot.getProjectsFile(), StandardCharsets.UTF_8),
+                "each project should be a local copy of the project of the repository");
+    }
+
+    @Test
+    public void testWriteProjectsFileWithoutProject() throws Exception {
+        final Path testerDir = Files.createDirectories(tempDir.resolve("tester"));
+        Files.write(testerDir.resolve(CheckstyleTester.PROJECTS_FILE),
+                List.of("other|git|https://example.com/other.git|master||"),
+                StandardCharsets.UTF_8);
+        final TesterSlot slot = new TesterSlot(tempDir.resolve("slot"), REPO_NAME);
+        final TesterSlotPool pool = createPool(null, testerDir, null);
+
+        final IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> pool.writeProjectsFile(slot, List.of(REPO_NAME)),
+                "missing project should be rejected");
+        assertEquals("project sample is not listed in " + CheckstyleTester.PROJECTS_FILE,
+                exception.getMessage(), "invalid message");
+    }
+
+    @Test
+    public void testWritePatchConfig() throws Exception {
+        final Path patchConfig = tempDir.resolve("patchConfig.xml");
+        Files.writeString(patchConfig, "<module name=\"SuppressionPatchFilter\">\n"
+                + "    <property name=\"file\" value=\"${checkstyle.patchfilter.patch}\"/>\n"
+                + "</module>\n");
+        final TesterSlot slot = new TesterSlot(
+                Files.createDirectories(tempDir.resolve("slot <&> \"1\"")), REPO_NAME);
+        createPool(null, tempDir, patchConfig.toFile()).writePatchConfig(slot);
+
+        final String patchLocation = tempDir.toAbsolutePath().toString()
+                + File.separator + "slot &lt;&amp;> &quot;1&quot;" + File.separator + "patch.txt";
+        assertEquals("<module name=\"SuppressionPatchFilter\">\n"
+                + "    <property name=\"file\" value=\"" + patchLocation + "\"/>\n"
+                + "</module>\n", Files.readString(slot.getPatchConfigFile()),
+                "patch filters should read the escaped patch of the slot");
+    }
+
+    @Test
+    public void testExportTree() throws Exception {
+        final Path repositoryDir = tempDir.resolve("repository");
+        try (Git git = Git.init().setDirectory(repositoryDir.toFile()).call()) {
+            Files.createDirectories(repositoryDir.resolve("src"));
+            Files.writeString(repositoryDir.resolve("src/Sample.java"), "class Sample {\n}\n");
+            Files.writeString(repositoryDir.resolve("run.sh"), "echo run\n");
+            repositoryDir.resolve("run.sh").toFile().setExecutable(true);
+            Files.createSymbolicLink(repositoryDir.resolve("link.java"),
+                    Path.of("src/Sample.java"));
+            git.add().addFilepattern(".").call();
+            final RevCommit commit = git.commit().setMessage("commit").setSign(false).call();
+            final Path destDir = tempDir.resolve("sources");
+            Files.createDirectories(destDir);
+            Files.writeString(destDir.resolve("Stale.java"), "class Stale {\n}\n");
+
+            createPool(git.getRepository(), tempDir, null).exportTree(commit, destDir);
+            assertEquals("class Sample {\n}\n",
+                    Files.readString(destDir.resolve("src/Sample.java")),
+                    "regular file should be exported");
+            assertEquals("echo run\n", Files.readString(destDir.resolve("run.sh")),
+                    "executable file should be exported");
+            assertFalse(Files.exists(destDir.resolve("link.java"), LinkOption.NOFOLLOW_LINKS),
+                    "symbolic link should be skipped");
+            assertFalse(Files.exists(destDir.resolve("Stale.java")),
+                    "previous content should be replaced");
+        }
+    }
+
+    private static TesterSlotPool createPool(Repository repository, Path testerDir,
+                                             File patchConfig) {
+        final CheckstyleTester tester = new CheckstyleTester(testerDir.toString(),
+                testerDir.toString(), "patch-branch", null, patchConfig);
+        return new TesterSlotPool(repository, tester,
+                new DiffReportDir(testerDir.toFile(), REPO_NAME), null, 1, 1);
+    }
+
+}
@@ -0,0 +1,157 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+
+package com.github.checkstyle.generatepatchfile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class UtilsTest {
+
+    /** Directory on a file system that is usually not the one of the temp dir. */
+    private static final Path OTHER_FILE_STORE_DIR = Path.of("/dev/shm");
+
+    private static final String NESTED_FILE = "sub/nested.txt";
+
+    @TempDir
+    public Path tempDir;
+
+    @Test
+    public void testMoveRenamesWholeDirectory() throws IOException {
+        final Path src = createTree(tempDir.resolve("src"), 2);
+        final Object fileKey = getFileKey(src.resolve(NESTED_FILE));
+        final Path dest = tempDir.resolve("dest");
+
+        Utils.copyDir(src, dest, CopyMode.MOVE, 1);
+
+        assertFalse(Files.exists(src), "source should be moved");
+        assertTree(dest, 2);
+        assertEquals(fileKey, getFileKey(dest.resolve(NESTED_FILE)),
+                "file should be renamed, not copied");
+    }
+
+    @Test
+    public void testMoveIntoExistingDirectory() throws IOException {
+        final Path src = createTree(tempDir.resolve("src"), 2);
+        final Path dest = tempDir.resolve("dest");
+        Files.createDirectories(dest.resolve("sub"));
+        Files.writeString(dest.resolve(NESTED_FILE), "old");
+        Files.writeString(dest.resolve("kept.txt"), "kept");
+
+        Utils.copyDir(src, dest, CopyMode.MOVE, 1);
+
+        assertFalse(Files.exists(src), "source should be deleted once moved");
+        assertTree(dest, 2);
+        assertEquals("kept", Files.readString(dest.resolve("kept.txt")),
+                "existing file should be kept");
+    }
+
+    @Test
+    public void testHardLinkSharesFiles() throws IOException {
+        final Path src = createTree(tempDir.resolve("src"), 2);
+        final Path dest = tempDir.resolve("dest");
+
+        Utils.copyDir(src, dest, CopyMode.HARD_LINK, 1);
+
+        assertTree(src, 2);
+        assertTree(dest, 2);
+        assertEquals(getFileKey(src.resolve(NESTED_FILE)), getFileKey(dest.resolve(NESTED_FILE)),
+                "file should be linked");
+    }
+
+    @Test
+    public void testHardLinkFallsBackToCopy() throws IOException {
+        assumeFalse(Files.getFileStore(tempDir).equals(Files.getFileStore(OTHER_FILE_STORE_DIR)),
+                "needs a second file system");
+        final Path src = createTree(tempDir.resolve("src"), 2);
+        final Path dest = Files.createTempDirectory(OTHER_FILE_STORE_DIR, "utils-test");
+        try {
+            Utils.copyDir(src, dest, CopyMode.HARD_LINK, 1);
+
+            assertTree(src, 2);
+            assertTree(dest, 2);
+            assertNotEquals(getFileKey(src.resolve(NESTED_FILE)),
+                    getFileKey(dest.resolve(NESTED_FILE)), "file should be copied");
+        }
+        finally {
+            Utils.deleteDir(dest);
+        }
+    }
+
+    @Test
+    public void testParallelCopy() throws IOException {
+        final int fileCount = 50;
+        final Path src = createTree(tempDir.resolve("src"), fileCount);
+        final Path dest = tempDir.resolve("dest");
+
+        Utils.copyDir(src, dest, CopyMode.COPY, 4);
+
+        assertTree(src, fileCount);
+        assertTree(dest, fileCount);
+    }
+
+    @Test
+    public void testParallelMoveIntoExistingDirectory() throws IOException {
+        final int fileCount = 50;
+        final Path src = createTree(tempDir.resolve("src"), fileCount);
+        final Path dest = tempDir.resolve("dest");
+        Files.createDirectories(dest.resolve("sub"));
+
+        Utils.copyDir(src, dest, CopyMode.MOVE, 4);
+
+        assertFalse(Files.exists(src), "source should be deleted once moved");
+        assertTree(dest, fileCount);
+    }
+
+    private static Path createTree(Path root, int fileCount) throws IOException {
+        Files.createDirectories(root.resolve("sub/deep"));
+        Files.writeString(root.resolve(NESTED_FILE), "nested");
+        for (int index = 0; index < fileCount; index++) {
+            Files.writeString(root.resolve("sub/deep/file" + index + ".txt"), "file" + index);
+        }
+        return root;
+    }
+
+    private static void assertTree(Path root, int fileCount) throws IOException {
+        assertEquals("nested", Files.readString(root.resolve(NESTED_FILE)),
+                "invalid content of " + NESTED_FILE);
+        for (int index = 0; index < fileCount; index++) {
+            final Path file = root.resolve("sub/deep/file" + index + ".txt");
+            assertTrue(Files.isRegularFile(file), "missing " + file);
+            assertEquals("file" + index, Files.readString(file), "invalid content of " + file);
+        }
+    }
+
+    private static Object getFileKey(Path file) throws IOException {
+        return Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+    }
+
+}
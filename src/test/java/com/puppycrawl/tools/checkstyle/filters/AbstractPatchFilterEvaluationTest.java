@@ -55,8 +55,8 @@ abstract class AbstractPatchFilterEvaluationTest extends AbstractModuleTestSuppo
         final String inputFile = configPath.replaceFirst(CONTEXT_CONFIG_PATTERN, "");
         // we can add here any variable to provide path to patch name by PropertiesExpander
         System.setProperty("tp", getPatchFileLocation() + inputFile);
-        final Configuration config = ConfigurationLoader.loadConfiguration(
-                getPath(configPath), new PropertiesExpander(System.getProperties()));
+        final Configuration config = adaptConfiguration(ConfigurationLoader.loadConfiguration(
+                getPath(configPath), new PropertiesExpander(System.getProperties())));
         final RootModule rootModule = createRootModule(config);
         final ByteArrayOutputStream stream = new ByteArrayOutputStream();
         rootModule.addListener(new BriefUtLogger(stream));
@@ -66,6 +66,17 @@ abstract class AbstractPatchFilterEvaluationTest extends AbstractModuleTestSuppo
         assertResults(configPath, path, errorCounter, stream);
     }
 
+    /**
+     * Allows subclasses to run the evaluation configurations with other modules.
+     *
+     * @param config loaded configuration
+     * @return configuration to run
+     * @throws Exception if the configuration cannot be adapted
+     */
+    protected Configuration adaptConfiguration(Configuration config) throws Exception {
+        return config;
+    }
+
     private static RootModule createRootModule(Configuration config) throws Exception {
         final ClassLoader moduleClassLoader = SuppressionPatchFilter.class.getClassLoader();
         final ModuleFactory factory = new PackageObjectFactory(
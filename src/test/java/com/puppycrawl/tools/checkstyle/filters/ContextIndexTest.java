@@ -0,0 +1,176 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.JavaParser;
+import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.checks.coding.FinalLocalVariableCheck;
+
+public class ContextIndexTest {
+
+    private static final String FILE_NAME = "src/main/java/Input.java";
+
+    private static final int LOOKUPS = 40;
+
+    @Test
+    public void testFindNodeBeforeAndAfterFullIndex() throws Exception {
+        final DetailAST rootAst = parse();
+        final DetailAST firstMethod = getMethods(rootAst)[0];
+        final DetailAST secondMethod = getMethods(rootAst)[1];
+        final DetailAST[] expected = {
+            rootAst,
+            firstMethod,
+            getVariable(firstMethod),
+            secondMethod,
+            getVariable(secondMethod),
+            secondMethod.findFirstToken(TokenTypes.SLIST).getLastChild(),
+        };
+        final ContextIndex index = new ContextIndex(rootAst, createRanges(6));
+
+        // the first lookups search the tree pruned, the later ones use the full index
+        for (int lookup = 0; lookup < LOOKUPS; lookup++) {
+            final DetailAST node = expected[lookup % expected.length];
+            assertSame(node, index.findNode(node.getType(), node.getLineNo(),
+                    node.getColumnNo()), "lookup " + lookup + " should find the node");
+            assertNull(index.findNode(TokenTypes.LITERAL_WHILE, node.getLineNo(),
+                    node.getColumnNo()), "lookup " + lookup + " should find no node");
+        }
+    }
+
+    @Test
+    public void testIsChangedContext() throws Exception {
+        final DetailAST rootAst = parse();
+        final DetailAST unchangedVariable = getVariable(getMethods(rootAst)[0]);
+        final DetailAST changedVariable = getVariable(getMethods(rootAst)[1]);
+        final ContextIndex index = new ContextIndex(rootAst, createRanges(6));
+        final BitSet methodRule = new BitSet();
+        methodRule.set(TokenTypes.METHOD_DEF);
+        final BitSet classRule = new BitSet();
+        classRule.set(TokenTypes.CLASS_DEF);
+
+        // every verdict is asked twice, the second answer comes from the memo
+        for (int repeat = 0; repeat < 2; repeat++) {
+            assertTrue(index.isChangedContext(changedVariable, ContextIndex.SELF_CONTEXT),
+                    "changed node is its own context");
+            assertFalse(index.isChangedContext(unchangedVariable, ContextIndex.SELF_CONTEXT),
+                    "unchanged node is its own context");
+            assertTrue(index.isChangedContext(changedVariable, ContextIndex.PARENT_CONTEXT),
+                    "block of the changed node spans the change");
+            assertFalse(index.isChangedContext(unchangedVariable, ContextIndex.PARENT_CONTEXT),
+                    "block of the unchanged node does not span the change");
+            assertFalse(index.isChangedContext(unchangedVariable, methodRule),
+                    "method of the unchanged node does not span the change");
+            assertTrue(index.isChangedContext(unchangedVariable, classRule),
+                    "class of the unchanged node spans the change");
+        }
+    }
+
+    @Test
+    public void testIsIndexOf() throws Exception {
+        final DetailAST rootAst = parse();
+        final LineRanges ranges = createRanges(6);
+        final ContextIndex index = new ContextIndex(rootAst, ranges);
+
+        assertTrue(index.isIndexOf(rootAst, ranges), "index of the same tree and lines");
+        assertFalse(index.isIndexOf(parse(), ranges), "index of another tree");
+        assertFalse(index.isIndexOf(rootAst, createRanges(6)), "index of other lines");
+    }
+
+    @Test
+    public void testElementCachesIndexPerFile() throws Exception {
+        final ThreadLocal<ContextIndex> currentContextIndex = new ThreadLocal<>();
+        final LineRanges ranges = createRanges(6);
+        final JavaPatchFilterElement element = new JavaPatchFilterElement("Input.java",
+                ranges, Strategy.CONTEXT, Set.of(), Set.of("FinalLocalVariable"),
+                Set.of(), null, currentContextIndex);
+        final DetailAST rootAst = parse();
+        final DetailAST variable = getVariable(getMethods(rootAst)[0]);
+
+        assertNull(currentContextIndex.get(), "no index before the first event");
+        element.accept(createEvent(rootAst, variable));
+        final ContextIndex first = currentContextIndex.get();
+        assertNotNull(first, "index should be built for the first event");
+        element.accept(createEvent(rootAst, variable));
+        assertSame(first, currentContextIndex.get(), "index should be reused for the file");
+
+        final DetailAST otherRootAst = parse();
+        element.accept(createEvent(otherRootAst, getVariable(getMethods(otherRootAst)[0])));
+        assertNotSame(first, currentContextIndex.get(),
+                "index should be rebuilt for another file");
+        assertTrue(currentContextIndex.get().isIndexOf(otherRootAst, ranges),
+                "index should belong to the other file");
+    }
+
+    private static DetailAST parse() throws Exception {
+        return JavaParser.parseFileText(new FileText(new File(FILE_NAME),
+                List.of("public class Input {",
+                        "    void first() {",
+                        "        int a = 1;",
+                        "    }",
+                        "    void second() {",
+                        "        int b = 2;",
+                        "    }",
+                        "}")), JavaParser.Options.WITHOUT_COMMENTS);
+    }
+
+    private static LineRanges createRanges(int line) {
+        return LineRangesIndexBuilder.compile(List.of(List.of(line - 1, line)), true);
+    }
+
+    private static DetailAST[] getMethods(DetailAST rootAst) {
+        final DetailAST first = rootAst.findFirstToken(TokenTypes.CLASS_DEF)
+                .findFirstToken(TokenTypes.OBJBLOCK)
+                .findFirstToken(TokenTypes.METHOD_DEF);
+        return new DetailAST[] {first, first.getNextSibling()};
+    }
+
+    private static DetailAST getVariable(DetailAST methodAst) {
+        return methodAst.findFirstToken(TokenTypes.SLIST)
+                .findFirstToken(TokenTypes.VARIABLE_DEF);
+    }
+
+    private static TreeWalkerAuditEvent createEvent(DetailAST rootAst, DetailAST ast) {
+        final Violation violation = new Violation(ast.getLineNo(), ast.getColumnNo(),
+                ast.getColumnNo(), ast.getType(), "messages", "key", null,
+                SeverityLevel.ERROR, "moduleId", FinalLocalVariableCheck.class, null);
+        return new TreeWalkerAuditEvent(null, FILE_NAME, violation, rootAst);
+    }
+
+}
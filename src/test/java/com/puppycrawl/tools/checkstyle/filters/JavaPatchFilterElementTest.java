@@ -0,0 +1,126 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.JavaParser;
+import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.checks.blocks.LeftCurlyCheck;
+import com.puppycrawl.tools.checkstyle.checks.coding.FinalLocalVariableCheck;
+import com.puppycrawl.tools.checkstyle.checks.coding.MagicNumberCheck;
+import com.puppycrawl.tools.checkstyle.checks.sizes.MethodLengthCheck;
+
+public class JavaPatchFilterElementTest {
+
+    private static final String FILE_NAME = "src/main/java/Input.java";
+
+    private static final int WARM_UP_ITERATIONS = 20_000;
+
+    private static final int ITERATIONS = 200_000;
+
+    @Test
+    public void testNewlineAcceptDoesNotAllocate() throws Exception {
+        assertAcceptDoesNotAllocate(Strategy.NEWLINE);
+    }
+
+    @Test
+    public void testPatchedlineAcceptDoesNotAllocate() throws Exception {
+        assertAcceptDoesNotAllocate(Strategy.PATCHEDLINE);
+    }
+
+    @Test
+    public void testContextAcceptDoesNotAllocate() throws Exception {
+        assertAcceptDoesNotAllocate(Strategy.CONTEXT);
+    }
+
+    private static void assertAcceptDoesNotAllocate(Strategy strategy) throws Exception {
+        final DetailAST rootAst = JavaParser.parseFileText(new FileText(new File(FILE_NAME),
+                List.of("public class Input {",
+                        "    void method() {",
+                        "        int value = 1;",
+                        "    }",
+                        "}")), JavaParser.Options.WITHOUT_COMMENTS);
+        final DetailAST methodAst = rootAst.findFirstToken(TokenTypes.CLASS_DEF)
+                .findFirstToken(TokenTypes.OBJBLOCK)
+                .findFirstToken(TokenTypes.METHOD_DEF);
+        final DetailAST slistAst = methodAst.findFirstToken(TokenTypes.SLIST);
+        final DetailAST variableAst = slistAst.findFirstToken(TokenTypes.VARIABLE_DEF);
+        final TreeWalkerAuditEvent[] events = {
+            createEvent(rootAst, methodAst, MethodLengthCheck.class),
+            createEvent(rootAst, slistAst, LeftCurlyCheck.class),
+            createEvent(rootAst, variableAst, FinalLocalVariableCheck.class),
+            createEvent(rootAst, rootAst, MagicNumberCheck.class),
+        };
+        final JavaPatchFilterElement element = new JavaPatchFilterElement("Input.java",
+                List.of(List.of(2, 3)), strategy,
+                Set.of("LeftCurly"), Set.of("FinalLocalVariable"), Set.of("MethodLength"),
+                Set.of("MissingJavadocMethod"));
+
+        int accepted = 0;
+        for (int iteration = 0; iteration < WARM_UP_ITERATIONS; iteration++) {
+            accepted += acceptAll(element, events);
+        }
+        final com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            accepted += acceptAll(element, events);
+        }
+        final long allocated = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        assertTrue(accepted > 0, "events should be accepted");
+        assertEquals(0, allocated / ((long) ITERATIONS * events.length),
+                "bytes allocated per accepted event");
+    }
+
+    private static int acceptAll(JavaPatchFilterElement element,
+                                 TreeWalkerAuditEvent... events) {
+        int result = 0;
+        for (TreeWalkerAuditEvent event : events) {
+            if (element.accept(event)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private static TreeWalkerAuditEvent createEvent(DetailAST rootAst, DetailAST ast,
+                                                    Class<?> checkClass) {
+        final Violation violation = new Violation(ast.getLineNo(), ast.getColumnNo(),
+                ast.getColumnNo(), ast.getType(), "messages", "key", null,
+                SeverityLevel.ERROR, "moduleId", checkClass, null);
+        return new TreeWalkerAuditEvent(null, FILE_NAME, violation, rootAst);
+    }
+
+}
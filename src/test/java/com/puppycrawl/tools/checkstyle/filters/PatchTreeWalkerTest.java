@@ -0,0 +1,56 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2026 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.util.Map;
+
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+
+/**
+ * Runs all evaluations of {@code SuppressionJavaPatchFilter} with {@code TreeWalker}
+ * replaced by {@code PatchTreeWalker}, which must report the same violations.
+ */
+public class PatchTreeWalkerTest extends SuppressionJavaPatchFilterTest {
+
+    @Override
+    protected String getTreeWalkerName() {
+        return PatchTreeWalker.class.getName();
+    }
+
+    @Override
+    protected Configuration adaptConfiguration(Configuration config) throws Exception {
+        String name = config.getName();
+        if ("TreeWalker".equals(name)) {
+            name = getTreeWalkerName();
+        }
+        final DefaultConfiguration result = new DefaultConfiguration(name);
+        for (String propertyName : config.getPropertyNames()) {
+            result.addProperty(propertyName, config.getProperty(propertyName));
+        }
+        for (Map.Entry<String, String> message : config.getMessages().entrySet()) {
+            result.addMessage(message.getKey(), message.getValue());
+        }
+        for (Configuration child : config.getChildren()) {
+            result.addChild(adaptConfiguration(child));
+        }
+        return result;
+    }
+}
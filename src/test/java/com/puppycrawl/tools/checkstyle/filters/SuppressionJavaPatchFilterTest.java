@@ -38,6 +38,10 @@ public class SuppressionJavaPatchFilterTest extends AbstractPatchFilterEvaluatio
         return "com/puppycrawl/tools/checkstyle/filters/suppressionjavapatchfilter/";
     }
 
+    protected String getTreeWalkerName() {
+        return "TreeWalker";
+    }
+
     @Test
     public void testDefaultStrategy() throws Exception {
         testByConfig("DefaultStrategy/defaultContextConfig.xml");
@@ -58,7 +62,8 @@ public class SuppressionJavaPatchFilterTest extends AbstractPatchFilterEvaluatio
         }
         catch (CheckstyleException exception) {
             assertEquals(
-                    "cannot initialize module TreeWalker - cannot initialize module "
+                    "cannot initialize module " + getTreeWalkerName()
+                            + " - cannot initialize module "
                             + "com.puppycrawl.tools.checkstyle.filters.SuppressionJavaPatchFilter",
                     exception.getMessage()
             );
@@ -536,6 +541,11 @@ public class SuppressionJavaPatchFilterTest extends AbstractPatchFilterEvaluatio
         testByConfig("javadoc/JavadocParagraph/context/defaultContextConfig.xml");
     }
 
+    @Test
+    public void testJavadocStyle() throws Exception {
+        testByConfig("javadoc/JavadocStyle/patchedline/defaultContextConfig.xml");
+    }
+
     @Test
     public void testJavadocType() throws Exception {
         testByConfig("javadoc/JavadocType/newline/defaultContextConfig.xml");
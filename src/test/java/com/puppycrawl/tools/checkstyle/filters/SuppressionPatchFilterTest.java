@@ -19,10 +19,43 @@
 
 package com.puppycrawl.tools.checkstyle.filters;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
 
 public class SuppressionPatchFilterTest extends AbstractPatchFilterEvaluationTest {
 
+    private static final String PATCH_TEMPLATE = "diff --git a/Test.java b/Test.java\n"
+            + "--- a/Test.java\n"
+            + "+++ b/Test.java\n"
+            + "@@ -1,%d +1,%d @@\n"
+            + "%s";
+
     @Override
     protected String getPatchFileLocation() {
         return "src/test/resources/com/puppycrawl/tools"
@@ -226,4 +259,328 @@ public class SuppressionPatchFilterTest extends AbstractPatchFilterEvaluationTes
         testByConfig("Translation/caseThree/newline/defaultContextConfig.xml");
         testByConfig("Translation/caseThree/patchedline/defaultContextConfig.xml");
     }
+
+    @Test
+    public void testWatchReloadsChangedPatch(@TempDir File tempDir) throws Exception {
+        final Path patchFile = tempDir.toPath().resolve("file.patch");
+        writePatch(patchFile, " line1\n+added\n line2\n line3\n");
+        final SuppressionPatchFilter filter = new SuppressionPatchFilter();
+        filter.setFile(patchFile.toString());
+        filter.setWatch(true);
+        filter.finishLocalSetup();
+        assertTrue(filter.accept(createEvent(2)), "line 2 is added in the first patch");
+        assertFalse(filter.accept(createEvent(3)), "line 3 is not added in the first patch");
+
+        writePatch(patchFile, " line1\n line2\n+added\n line3\n");
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (!filter.accept(createEvent(3)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(filter.accept(createEvent(3)), "line 3 is added in the reloaded patch");
+        assertFalse(filter.accept(createEvent(2)), "line 2 is not added in the reloaded patch");
+    }
+
+    @Test
+    public void testWatchLogsFailedReload(@TempDir File tempDir) throws Exception {
+        final Path patchFile = tempDir.toPath().resolve("file.patch");
+        writePatch(patchFile, " line1\n+added\n line2\n line3\n");
+        final SuppressionPatchFilter filter = new SuppressionPatchFilter();
+        filter.setFile(patchFile.toString());
+        filter.setWatch(true);
+        filter.finishLocalSetup();
+        final List<LogRecord> records = new CopyOnWriteArrayList<>();
+        final Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord logRecord) {
+                records.add(logRecord);
+            }
+
+            @Override
+            public void flush() {
+                // nothing to flush
+            }
+
+            @Override
+            public void close() {
+                // nothing to close
+            }
+        };
+        final Logger logger = Logger.getLogger(PatchFileWatcher.class.getName());
+        logger.addHandler(handler);
+        try {
+            // gzip magic followed by garbage can not be decompressed
+            Files.write(patchFile, new byte[] {0x1f, (byte) 0x8b, 1, 2, 3, 4});
+            final long deadline = System.currentTimeMillis() + 10_000;
+            while (records.isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+        }
+        finally {
+            logger.removeHandler(handler);
+            filter.close();
+        }
+        assertEquals(1, records.size(), "the failed reload should be logged");
+        assertEquals(Level.WARNING, records.get(0).getLevel(), "invalid level");
+        assertTrue(filter.accept(createEvent(2)), "the previous index should stay in use");
+    }
+
+    @Test
+    public void testCloseStopsWatching(@TempDir File tempDir) throws Exception {
+        final Path patchFile = tempDir.toPath().resolve("file.patch");
+        writePatch(patchFile, " line1\n+added\n line2\n line3\n");
+        final SuppressionPatchFilter filter = new SuppressionPatchFilter();
+        filter.setFile(patchFile.toString());
+        filter.setWatch(true);
+        filter.finishLocalSetup();
+        filter.close();
+        filter.close();
+        final SuppressionPatchFilter watchingFilter = new SuppressionPatchFilter();
+        watchingFilter.setFile(patchFile.toString());
+        watchingFilter.setWatch(true);
+        watchingFilter.finishLocalSetup();
+
+        writePatch(patchFile, " line1\n line2\n+added\n line3\n");
+        try {
+            final long deadline = System.currentTimeMillis() + 10_000;
+            while (!watchingFilter.accept(createEvent(3))
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertTrue(watchingFilter.accept(createEvent(3)),
+                    "the index of an open filter should be reloaded");
+        }
+        finally {
+            watchingFilter.close();
+        }
+        assertTrue(filter.accept(createEvent(2)), "the index should not be reloaded after close");
+        assertFalse(filter.accept(createEvent(3)), "the index should not be reloaded after close");
+    }
+
+    @Test
+    public void testIncludeAndExcludePaths() throws Exception {
+        final String patch = createPatch(" line1\n+added\n line2\n line3\n")
+                + "diff --git a/gen/Generated.java b/gen/Generated.java\n"
+                + "--- a/gen/Generated.java\n"
+                + "+++ b/gen/Generated.java\n"
+                + "@@ -1,1 +1,2 @@\n"
+                + " line1\n"
+                + "+added\n"
+                + "diff --git a/package-lock.json b/package-lock.json\n"
+                + "--- a/package-lock.json\n"
+                + "+++ b/package-lock.json\n"
+                + "@@ -1,1 +1,2 @@\n"
+                + " {\n"
+                + "+added\n"
+                + "diff --git a/logo.png b/logo.png\n"
+                + "index 1234567..89abcde 100644\n"
+                + "Binary files a/logo.png and b/logo.png differ\n";
+        final SuppressionPatchFilter filter = new SuppressionPatchFilter();
+        filter.setPatchSource(new ByteArrayPatchSource(patch.getBytes(StandardCharsets.UTF_8)));
+        filter.setIncludePaths("*.java");
+        filter.setExcludePaths("gen/**");
+        filter.finishLocalSetup();
+
+        assertEquals(1, filter.getIndexStatistics().getFileCount(),
+                "only Test.java should be indexed");
+        assertTrue(filter.accept(createEvent(2)), "line 2 of Test.java is added");
+        final Violation violation = new Violation(2, 1, null, "msg", null,
+                SeverityLevel.ERROR, null, SuppressionPatchFilterTest.class, null);
+        assertFalse(filter.accept(new AuditEvent(SuppressionPatchFilterTest.class,
+                "gen/Generated.java", violation)), "excluded file should be suppressed");
+    }
+
+    @Test
+    public void testBinaryFileIsIndexedWithoutLines() throws Exception {
+        final String patch = "diff --git a/logo.png b/logo.png\n"
+                + "index 1234567..89abcde 100644\n"
+                + "Binary files a/logo.png and b/logo.png differ\n";
+        final SuppressionPatchFilter filter = new SuppressionPatchFilter();
+        filter.setPatchSource(new ByteArrayPatchSource(patch.getBytes(StandardCharsets.UTF_8)));
+        filter.setNeverSuppressedChecks("binaryCheck");
+        filter.finishLocalSetup();
+
+        assertEquals(1, filter.getIndexStatistics().getFileCount(),
+                "binary file should be indexed");
+        final Violation neverSuppressed = new Violation(0, 0, null, "msg", null,
+                SeverityLevel.ERROR, "binaryCheck", SuppressionPatchFilterTest.class, null);
+        assertTrue(filter.accept(new AuditEvent(SuppressionPatchFilterTest.class,
+                "logo.png", neverSuppressed)), "never suppressed check should fire");
+        final Violation other = new Violation(1, 1, null, "msg", null,
+                SeverityLevel.ERROR, null, SuppressionPatchFilterTest.class, null);
+        assertFalse(filter.accept(new AuditEvent(SuppressionPatchFilterTest.class,
+                "logo.png", other)), "binary file has no changed lines");
+    }
+
+    @Test
+    public void testInvalidPathMatchesNoGlob() {
+        final PatchPathFilter includeAll = new PatchPathFilter(null, List.of("*.txt"));
+        assertTrue(includeAll.isIncluded("bad\u0000path"),
+                "invalid path can not be excluded by a glob");
+        final PatchPathFilter includeJava = new PatchPathFilter(List.of("*.java"), null);
+        assertFalse(includeJava.isIncluded("bad\u0000path.java"),
+                "invalid path can not be included by a glob");
+    }
+
+    @Test
+    public void testConcurrentAcceptDuringReload() throws Exception {
+        final byte[] firstPatch = createPatch(" line1\n+added\n+added\n line2\n")
+                .getBytes(StandardCharsets.UTF_8);
+        final byte[] secondPatch = createPatch(" line1\n+added\n line2\n+added\n")
+                .getBytes(StandardCharsets.UTF_8);
+        final SuppressionPatchFilter filter = new SuppressionPatchFilter();
+        filter.setPatchSource(new ByteArrayPatchSource(firstPatch));
+        filter.finishLocalSetup();
+
+        final int threadCount = 4;
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount + 1);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        try {
+            final List<Future<?>> readers = new ArrayList<>();
+            for (int thread = 0; thread < threadCount; thread++) {
+                readers.add(executor.submit(() -> {
+                    for (int iteration = 0; iteration < 20_000; iteration++) {
+                        assertTrue(filter.accept(createEvent(2)),
+                                "line 2 is added in both patches");
+                        assertFalse(filter.accept(createEvent(5)),
+                                "line 5 is added in neither patch");
+                        filter.accept(createEvent(3));
+                    }
+                    return null;
+                }));
+            }
+            final Future<?> writer = executor.submit(() -> {
+                boolean first = false;
+                while (running.get()) {
+                    if (first) {
+                        filter.setPatchSource(new ByteArrayPatchSource(firstPatch));
+                    }
+                    else {
+                        filter.setPatchSource(new ByteArrayPatchSource(secondPatch));
+                    }
+                    filter.finishLocalSetup();
+                    first = !first;
+                }
+                return null;
+            });
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+            running.set(false);
+            writer.get();
+        }
+        finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+        assertEquals(1, filter.getIndexStatistics().getFileCount(),
+                "statistics should describe the last published patch");
+    }
+
+    @Test
+    public void testFileRepresentations() throws Exception {
+        final String patch = createReplacingPatch("Inline.java", 3, 7)
+                + createReplacingPatch("Sorted.java", 10, 100, 200, 300, 400)
+                + createReplacingPatch("Dense.java", 1, 3, 5, 7, 9, 10);
+        final SuppressionPatchFilter filter = new SuppressionPatchFilter();
+        filter.setPatchSource(new ByteArrayPatchSource(patch.getBytes(StandardCharsets.UTF_8)));
+        filter.setStrategy("patchedline");
+        filter.finishLocalSetup();
+
+        assertEquals(Map.of("Inline.java", LineRangesRepresentation.INLINE,
+                        "Sorted.java", LineRangesRepresentation.SORTED,
+                        "Dense.java", LineRangesRepresentation.BITSET),
+                filter.getIndexStatistics().getFileRepresentations(),
+                "representations should follow the shape of the changes");
+        for (int line = 1; line <= 12; line++) {
+            final boolean changed = line < 10 && line % 2 == 1 || line == 10;
+            assertEquals(changed, filter.accept(new AuditEvent(SuppressionPatchFilterTest.class,
+                    "Dense.java", new Violation(line, 1, null, "msg", null,
+                    SeverityLevel.ERROR, null, SuppressionPatchFilterTest.class, null))),
+                    "line " + line + " of Dense.java");
+        }
+        assertTrue(filter.accept(new AuditEvent(SuppressionPatchFilterTest.class,
+                "Sorted.java", new Violation(300, 1, null, "msg", null,
+                SeverityLevel.ERROR, null, SuppressionPatchFilterTest.class, null))),
+                "line 300 of Sorted.java is changed");
+        assertFalse(filter.accept(new AuditEvent(SuppressionPatchFilterTest.class,
+                "Inline.java", new Violation(5, 1, null, "msg", null,
+                SeverityLevel.ERROR, null, SuppressionPatchFilterTest.class, null))),
+                "line 5 of Inline.java is not changed");
+    }
+
+    @Test
+    public void testDenseLineThreshold() throws Exception {
+        final StringBuilder rewrite = new StringBuilder(64 * 1024)
+                .append("diff --git a/Large.java b/Large.java\n--- a/Large.java\n")
+                .append("+++ b/Large.java\n@@ -50000,10001 +50000,10001 @@\n");
+        for (int line = 0; line <= 10_000; line++) {
+            rewrite.append("-old\n");
+        }
+        for (int line = 0; line <= 10_000; line++) {
+            rewrite.append("+new\n");
+        }
+        final String patch = createReplacingPatch("Inline.java", 3, 7) + rewrite;
+        final SuppressionPatchFilter filter = new SuppressionPatchFilter();
+        filter.setPatchSource(new ByteArrayPatchSource(patch.getBytes(StandardCharsets.UTF_8)));
+        filter.setStrategy("patchedline");
+        filter.setDenseLineThreshold(0.1);
+        filter.finishLocalSetup();
+
+        assertEquals(Map.of("Inline.java", LineRangesRepresentation.BITSET,
+                        "Large.java", LineRangesRepresentation.RUN_LENGTH),
+                filter.getIndexStatistics().getFileRepresentations(),
+                "dense files should be kept as bitmaps");
+        final int[] lines = {1, 49_999, 50_000, 50_063, 50_064, 55_555, 60_000, 60_001};
+        final boolean[] expected = {false, false, true, true, true, true, true, false};
+        for (int index = 0; index < lines.length; index++) {
+            assertEquals(expected[index], filter.accept(new AuditEvent(
+                    SuppressionPatchFilterTest.class, "Large.java", new Violation(lines[index],
+                    1, null, "msg", null, SeverityLevel.ERROR, null,
+                    SuppressionPatchFilterTest.class, null))),
+                    "line " + lines[index] + " of Large.java");
+        }
+        assertTrue(filter.accept(new AuditEvent(SuppressionPatchFilterTest.class,
+                "Inline.java", new Violation(7, 1, null, "msg", null,
+                SeverityLevel.ERROR, null, SuppressionPatchFilterTest.class, null))),
+                "line 7 of Inline.java is changed");
+    }
+
+    private static String createReplacingPatch(String fileName, int... lines) {
+        final StringBuilder patch = new StringBuilder(128)
+                .append("diff --git a/").append(fileName).append(" b/").append(fileName)
+                .append("\n--- a/").append(fileName)
+                .append("\n+++ b/").append(fileName).append('\n');
+        for (int line : lines) {
+            patch.append("@@ -").append(line).append(",1 +").append(line).append(",1 @@\n")
+                    .append("-old\n+new\n");
+        }
+        return patch.toString();
+    }
+
+    private static String createPatch(String hunk) {
+        int oldLines = 0;
+        int newLines = 0;
+        for (String line : hunk.split("\n")) {
+            if (line.charAt(0) != '+') {
+                oldLines++;
+            }
+            if (line.charAt(0) != '-') {
+                newLines++;
+            }
+        }
+        return String.format(PATCH_TEMPLATE, oldLines, newLines, hunk);
+    }
+
+    private static void writePatch(Path patchFile, String hunk) throws Exception {
+        final Path tempFile = Files.createTempFile(patchFile.getParent(), "patch", ".tmp");
+        Files.write(tempFile, createPatch(hunk).getBytes(StandardCharsets.UTF_8));
+        Files.move(tempFile, patchFile, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static AuditEvent createEvent(int lineNo) {
+        final Violation violation = new Violation(lineNo, 1, null, "msg", null,
+                SeverityLevel.ERROR, null, SuppressionPatchFilterTest.class, null);
+        return new AuditEvent(SuppressionPatchFilterTest.class, "src/Test.java", violation);
+    }
 }
@@ -19,18 +19,32 @@
 
 package com.puppycrawl.tools.checkstyle.jgit;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
 import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.filters.ByteArrayPatchSource;
+import com.puppycrawl.tools.checkstyle.filters.ChannelPatchSource;
+import com.puppycrawl.tools.checkstyle.filters.IndexRepresentation;
+import com.puppycrawl.tools.checkstyle.filters.PatchSource;
 import com.puppycrawl.tools.checkstyle.filters.SuppressionPatchFilter;
 
 public class GitDiffOnOpenSourceTest extends AbstractModuleTestSupport {
@@ -58,6 +72,77 @@ public class GitDiffOnOpenSourceTest extends AbstractModuleTestSupport {
         testAddedLine(addedfilter, changedfilter, fileName, addedLineList, changedLineList);
     }
 
+    @Test
+    public void testGzipCompressedPatch(@TempDir File tempDir) throws Exception {
+        final Path patchFile = Paths.get(getPath("eclipse-cs-patch-1c057d1-9d473b4.txt"));
+        final File compressedPatchFile = new File(tempDir, "patch.txt.gz");
+        try (OutputStream out = new GZIPOutputStream(
+                Files.newOutputStream(compressedPatchFile.toPath()))) {
+            Files.copy(patchFile, out);
+        }
+        final SuppressionPatchFilter changedfilter = createSuppressionPatchFilter(
+                compressedPatchFile.getAbsolutePath(), "patchedline");
+        final SuppressionPatchFilter addedfilter = createSuppressionPatchFilter(
+                compressedPatchFile.getAbsolutePath(), "newline");
+        final List<Integer> addedLineList = Arrays.asList(4, 5, 6, 7, 8);
+        final List<Integer> changedLineList = Arrays.asList(27, 39, 42, 57, 64, 74, 85, 93,
+                94, 98, 99, 100, 114, 115, 116, 117, 149, 150, 154, 155, 158, 159, 164, 165);
+        final String fileName = "net.sf.eclipsecs.checkstyle/test/net/sf"
+                + "/eclipsecs/checkstyle/ChecksTest.java";
+        testAddedLine(addedfilter, changedfilter, fileName, addedLineList, changedLineList);
+    }
+
+    @Test
+    public void testInMemoryPatchSources() throws Exception {
+        final byte[] patch = Files.readAllBytes(
+                Paths.get(getPath("eclipse-cs-patch-1c057d1-9d473b4.txt")));
+        final SuppressionPatchFilter changedfilter = createSuppressionPatchFilter(
+                new ByteArrayPatchSource(patch), "patchedline");
+        final SuppressionPatchFilter addedfilter = createSuppressionPatchFilter(
+                new ChannelPatchSource(Channels.newChannel(new ByteArrayInputStream(patch))),
+                "newline");
+        final List<Integer> addedLineList = Arrays.asList(4, 5, 6, 7, 8);
+        final List<Integer> changedLineList = Arrays.asList(27, 39, 42, 57, 64, 74, 85, 93,
+                94, 98, 99, 100, 114, 115, 116, 117, 149, 150, 154, 155, 158, 159, 164, 165);
+        final String fileName = "net.sf.eclipsecs.checkstyle/test/net/sf"
+                + "/eclipsecs/checkstyle/ChecksTest.java";
+        testAddedLine(addedfilter, changedfilter, fileName, addedLineList, changedLineList);
+    }
+
+    @Test
+    public void testMappedIndexMatchesHeapIndex() throws Exception {
+        final String patchFileName = getPath("eclipse-cs-patch-1c057d1-9d473b4.txt");
+        final String fileName = "net.sf.eclipsecs.checkstyle/test/net/sf"
+                + "/eclipsecs/checkstyle/ChecksTest.java";
+        for (String strategy : Arrays.asList("newline", "patchedline", "context")) {
+            final SuppressionPatchFilter heapFilter =
+                    createSuppressionPatchFilter(patchFileName, strategy);
+            final SuppressionPatchFilter mappedFilter = new SuppressionPatchFilter();
+            mappedFilter.setFile(patchFileName);
+            mappedFilter.setStrategy(strategy);
+            mappedFilter.setMaxIndexMemory(0);
+            mappedFilter.finishLocalSetup();
+
+            assertEquals(IndexRepresentation.HEAP,
+                    heapFilter.getIndexStatistics().getRepresentation(),
+                    "index should stay on heap without a budget");
+            assertEquals(IndexRepresentation.MAPPED,
+                    mappedFilter.getIndexStatistics().getRepresentation(),
+                    "index should be spilled when over budget");
+            assertEquals(heapFilter.getIndexStatistics().getRangeCount(),
+                    mappedFilter.getIndexStatistics().getRangeCount(),
+                    "range count should not depend on representation");
+            for (int lineNo = 1; lineNo <= 400; lineNo++) {
+                if (heapFilter.accept(createEvent(lineNo, fileName))) {
+                    shouldAcceptLine(mappedFilter, lineNo, fileName);
+                }
+                else {
+                    shouldRejectLine(mappedFilter, lineNo, fileName);
+                }
+            }
+        }
+    }
+
     private void testAddedLine(SuppressionPatchFilter addedfilter,
                                SuppressionPatchFilter changedfilter, String fileName,
                                List<Integer> addedLineList, List<Integer> changedLineList) {
@@ -75,6 +160,12 @@ public class GitDiffOnOpenSourceTest extends AbstractModuleTestSupport {
         }
     }
 
+    private AuditEvent createEvent(int lineNo, String fileName) {
+        final Violation message = new Violation(lineNo, 1, null, "msg", null,
+                SeverityLevel.ERROR, null, getClass(), null);
+        return new AuditEvent(this, fileName, message);
+    }
+
     private void shouldAcceptLine(SuppressionPatchFilter filter, int lineNo, String fileName) {
         final Violation message = new Violation(lineNo, 1, null, "msg", null,
                 SeverityLevel.ERROR, null, getClass(), null);
@@ -100,6 +191,15 @@ public class GitDiffOnOpenSourceTest extends AbstractModuleTestSupport {
         return suppressionPatchFilter;
     }
 
+    private static SuppressionPatchFilter
+        createSuppressionPatchFilter(PatchSource patchSource, String strategy) throws Exception {
+        final SuppressionPatchFilter suppressionPatchFilter = new SuppressionPatchFilter();
+        suppressionPatchFilter.setPatchSource(patchSource);
+        suppressionPatchFilter.setStrategy(strategy);
+        suppressionPatchFilter.finishLocalSetup();
+        return suppressionPatchFilter;
+    }
+
     private static SuppressionPatchFilter
         createSuppressionPatchFilter(String fileName) throws Exception {
         return createSuppressionPatchFilter(fileName, "patchedline");
@@ -0,0 +1,21 @@
+package TreeWalker.JavadocStyle;
+
+public class Test {
+    /**
+     * Missing period  // violation without filter
+     */
+    public void test1() {
+    }
+
+    /**
+     * Has a period.
+     */
+    public void test2() {
+    }
+
+    /**
+     * Missing period
+     */
+    public void test3() {
+    }
+}